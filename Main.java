@@ -1,11 +1,16 @@
 package com.auction;
 
 import com.auction.enums.*;
+import com.auction.managers.AuctionArchive;
 import com.auction.managers.AuctionManager;
+import com.auction.managers.EventJournal;
+import com.auction.managers.FileManager;
+import com.auction.managers.RecoveryManager;
+import com.auction.managers.SnapshotWriter;
 import com.auction.models.*;
 import com.auction.ui.ConsoleUI;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
 
 /**
  * Main entry point for the Online Auction System
@@ -18,8 +23,12 @@ public class Main {
         // Option 1: Run with sample data (for demo/testing)
         if (args.length > 0 && args[0].equals("--demo")) {
             runDemoMode();
-        } 
-        // Option 2: Run interactive console UI
+        }
+        // Option 2: Convert legacy users.dat/auctions.dat into a binary snapshot
+        else if (args.length > 0 && args[0].equals("--convert")) {
+            FileManager.convertLegacyFiles(FileManager.getSnapshotPath());
+        }
+        // Option 3: Run interactive console UI
         else {
             runInteractiveMode();
         }
@@ -53,8 +62,8 @@ public class Main {
         String auction1 = manager.createAuction(
             "Vintage Rolex Watch",
             "Rare 1960s Rolex Submariner in excellent condition",
-            500.0,
-            800.0,
+            Money.ofDollars(500),
+            Money.ofDollars(800),
             alice,
             ItemCategory.COLLECTIBLES,
             10 // 10 minutes
@@ -63,8 +72,8 @@ public class Main {
         String auction2 = manager.createAuction(
             "MacBook Pro 2024",
             "Brand new MacBook Pro 16-inch with M3 chip",
-            1200.0,
-            1500.0,
+            Money.ofDollars(1200),
+            Money.ofDollars(1500),
             alice,
             ItemCategory.ELECTRONICS,
             15 // 15 minutes
@@ -73,8 +82,8 @@ public class Main {
         String auction3 = manager.createAuction(
             "Original Picasso Painting",
             "Authentic Picasso artwork from 1952",
-            5000.0,
-            8000.0,
+            Money.ofDollars(5000),
+            Money.ofDollars(8000),
             bob,
             ItemCategory.ART,
             20 // 20 minutes
@@ -92,33 +101,33 @@ public class Main {
         // Simulate bidding
         if (watch != null && bob != null && charlie != null) {
             System.out.println("\n--- Bidding on Vintage Rolex Watch ---");
-            watch.placeBid(bob, 550.0);
+            manager.placeBid(auction1, bob, Money.ofDollars(550));
             
             try { Thread.sleep(1000); } catch (InterruptedException e) {}
             
-            watch.placeBid(charlie, 650.0);
+            manager.placeBid(auction1, charlie, Money.ofDollars(650));
             
             try { Thread.sleep(1000); } catch (InterruptedException e) {}
             
-            watch.placeBid(bob, 750.0);
+            manager.placeBid(auction1, bob, Money.ofDollars(750));
             
             try { Thread.sleep(1000); } catch (InterruptedException e) {}
             
-            watch.placeBid(charlie, 900.0); // Meets reserve!
+            manager.placeBid(auction1, charlie, Money.ofDollars(900)); // Meets reserve!
         }
         
         if (laptop != null && bob != null && charlie != null) {
             System.out.println("\n--- Bidding on MacBook Pro ---");
-            laptop.placeBid(bob, 1300.0);
+            manager.placeBid(auction2, bob, Money.ofDollars(1300));
             
             try { Thread.sleep(1000); } catch (InterruptedException e) {}
             
-            laptop.placeBid(charlie, 1400.0);
+            manager.placeBid(auction2, charlie, Money.ofDollars(1400));
         }
         
         if (painting != null && charlie != null) {
             System.out.println("\n--- Bidding on Picasso Painting ---");
-            painting.placeBid(charlie, 5500.0); // Below reserve
+            manager.placeBid(auction3, charlie, Money.ofDollars(5500)); // Below reserve
         }
         
         // Display statistics
@@ -130,7 +139,7 @@ public class Main {
         System.out.println("\n--- ACTIVE AUCTIONS ---");
         for (AuctionItem item : manager.getActiveAuctions()) {
             System.out.println(item);
-            System.out.println("  Bids: " + item.getBidHistory().size() + 
+            System.out.println("  Bids: " + item.getBidCount() + 
                              " | Reserve " + (item.isReserveMet() ? "✅ Met" : "⚠️ Not Met"));
         }
         
@@ -154,9 +163,46 @@ public class Main {
      * Run interactive console mode
      */
     private static void runInteractiveMode() {
-        // Optionally load saved data
-        // FileManager.loadUsers();
-        // FileManager.loadAuctions();
+        AuctionManager manager = AuctionManager.getInstance();
+        
+        // Journal every change so accepted bids survive a crash
+        EventJournal journal = FileManager.openJournal(manager.getClockSource());
+        if (journal != null) {
+            manager.attachJournal(journal);
+        }
+        
+        // Closed auctions live on disk once their grace period is over
+        AuctionArchive archive = FileManager.openArchive();
+        if (archive != null) {
+            manager.attachArchive(archive);
+        }
+        
+        // Rebuild users and auctions from the last snapshot plus the journal tail.
+        // If that fails, stop before anything is written: starting empty would
+        // append to the journal and overwrite the snapshot, losing the old state.
+        try {
+            RecoveryManager.recover(manager, FileManager.getSnapshotPath(), FileManager.getJournalPath()).print();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Recovery failed: " + e.getMessage());
+            System.err.println("   The snapshot and journal in data/ were left untouched; fix or move them aside and restart.");
+            if (journal != null) {
+                journal.close();
+            }
+            if (archive != null) {
+                archive.close();
+            }
+            System.exit(1);
+        }
+        
+        if (archive != null) {
+            FileManager.startArchiving(manager);
+        }
+        
+        // Keep the snapshot fresh so the journal tail to replay stays short
+        SnapshotWriter snapshots = FileManager.startSnapshotWriter(manager);
+        if (snapshots != null) {
+            manager.attachSnapshotWriter(snapshots);
+        }
         
         ConsoleUI ui = new ConsoleUI();
         ui.start();
@@ -0,0 +1,24 @@
+package com.auction.enums;
+
+/**
+ * Enum representing the outcome of a bid submission
+ */
+public enum BidStatus {
+    ACCEPTED("Bid accepted"),
+    AUCTION_NOT_FOUND("Auction does not exist"),
+    AUCTION_NOT_ACTIVE("Auction is not accepting bids"),
+    AUCTION_ENDED("Auction has already ended"),
+    SELLER_CANNOT_BID("Seller cannot bid on their own item"),
+    BELOW_MINIMUM("Bid is below the minimum next bid"),
+    OUTBID_BY_PROXY("Another bidder's maximum bid is higher");
+    
+    private final String description;
+    
+    BidStatus(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,45 @@
+package com.auction.enums;
+
+/**
+ * Enum representing the kinds of domain event written to the event journal.
+ * The code is the byte stored in each journal record and must never change.
+ */
+public enum JournalEventType {
+    USER_REGISTERED(1, "User registered"),
+    AUCTION_CREATED(2, "Auction created"),
+    BID_ACCEPTED(3, "Bid accepted"),
+    PROXY_MAXIMUM(4, "Leader's proxy maximum changed"),
+    AUCTION_CLOSED(5, "Auction closed"),
+    AUCTION_REMOVED(6, "Auction removed");
+    
+    private static final JournalEventType[] BY_CODE = new JournalEventType[7];
+    
+    static {
+        for (JournalEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+    
+    private final byte code;
+    private final String description;
+    
+    JournalEventType(int code, String description) {
+        this.code = (byte) code;
+        this.description = description;
+    }
+    
+    public byte getCode() {
+        return code;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    /**
+     * The event type stored under a code, or null for an unknown code
+     */
+    public static JournalEventType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
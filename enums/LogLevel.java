@@ -0,0 +1,11 @@
+package com.auction.enums;
+
+/**
+ * Enum representing log severity levels, from most to least verbose
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
@@ -0,0 +1,20 @@
+package com.auction.enums;
+
+/**
+ * Enum representing what happens when an observer's event queue is full
+ */
+public enum OverflowPolicy {
+    DROP("Discard the new event"),
+    BLOCK("Wait until the observer catches up"),
+    COALESCE("Replace a pending bid event with the newer one");
+    
+    private final String description;
+    
+    OverflowPolicy(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
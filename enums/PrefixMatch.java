@@ -0,0 +1,20 @@
+package com.auction.enums;
+
+/**
+ * Enum representing the outcome of resolving a typed ID prefix
+ */
+public enum PrefixMatch {
+    UNIQUE("Exactly one auction matches"),
+    MISSING("No auction matches"),
+    AMBIGUOUS("More than one auction matches");
+    
+    private final String description;
+    
+    PrefixMatch(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
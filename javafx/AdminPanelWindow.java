@@ -1,6 +1,9 @@
 package com.auction.javafx;
 
+import com.auction.enums.AuctionState;
+import com.auction.enums.UserRole;
 import com.auction.managers.AuctionManager;
+import com.auction.managers.AuctionStatistics;
 import com.auction.models.*;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -102,18 +105,14 @@ public class AdminPanelWindow {
         HBox statsCards = new HBox(20);
         statsCards.setAlignment(Pos.CENTER);
         
-        List<User> allUsers = manager.getAllUsers();
-        List<AuctionItem> allAuctions = manager.getAllAuctions();
-        long activeAuctions = manager.getActiveAuctions().size();
-        
-        long totalBids = allAuctions.stream()
-            .mapToLong(a -> a.getBidHistory().size())
-            .sum();
+        // Live counters - no scan of users, auctions or bid histories
+        AuctionStatistics.Snapshot stats = manager.getStatistics();
+        long activeAuctions = stats.getAuctionCount(AuctionState.ACTIVE);
         
-        VBox usersCard = createStatCard("Total Users", String.valueOf(allUsers.size()), "#2196F3");
-        VBox auctionsCard = createStatCard("Total Auctions", String.valueOf(allAuctions.size()), "#4CAF50");
+        VBox usersCard = createStatCard("Total Users", String.valueOf(stats.getTotalUsers()), "#2196F3");
+        VBox auctionsCard = createStatCard("Total Auctions", String.valueOf(stats.getTotalAuctions()), "#4CAF50");
         VBox activeCard = createStatCard("Active Auctions", String.valueOf(activeAuctions), "#FF9800");
-        VBox bidsCard = createStatCard("Total Bids", String.valueOf(totalBids), "#9C27B0");
+        VBox bidsCard = createStatCard("Total Bids", String.valueOf(stats.getTotalBids()), "#9C27B0");
         
         statsCards.getChildren().addAll(usersCard, auctionsCard, activeCard, bidsCard);
         
@@ -126,39 +125,38 @@ public class AdminPanelWindow {
         breakdownTitle.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         
         // User roles
-        long adminCount = allUsers.stream()
-            .filter(u -> u.getRole().toString().equals("ADMIN")).count();
-        long regularUsers = allUsers.size() - adminCount;
+        long adminCount = stats.getUserCount(UserRole.ADMIN);
+        long regularUsers = stats.getUserCount(UserRole.USER);
         
         Label usersBreakdown = new Label(String.format("Users: %d Regular, %d Admins", 
             regularUsers, adminCount));
         usersBreakdown.setFont(Font.font("Arial", 14));
         
         // Auction states
-        long closedAuctions = allAuctions.stream()
-            .filter(a -> a.getState().toString().equals("CLOSED")).count();
-        long pendingAuctions = allAuctions.stream()
-            .filter(a -> a.getState().toString().equals("PENDING")).count();
+        long closedAuctions = stats.getAuctionCount(AuctionState.CLOSED);
+        long pendingAuctions = stats.getAuctionCount(AuctionState.PENDING);
         
         Label auctionsBreakdown = new Label(String.format("Auctions: %d Active, %d Closed, %d Pending",
             activeAuctions, closedAuctions, pendingAuctions));
         auctionsBreakdown.setFont(Font.font("Arial", 14));
         
         // Reserve met
-        long reserveMet = allAuctions.stream()
-            .filter(AuctionItem::isReserveMet).count();
-        
         Label reserveLabel = new Label(String.format("Auctions with Reserve Met: %d (%.1f%%)",
-            reserveMet, allAuctions.isEmpty() ? 0 : (reserveMet * 100.0 / allAuctions.size())));
+            stats.getReserveMetCount(), stats.getReserveMetPercent()));
         reserveLabel.setFont(Font.font("Arial", 14));
         
         // Average bids per auction
-        double avgBids = allAuctions.isEmpty() ? 0 : (double) totalBids / allAuctions.size();
-        Label avgBidsLabel = new Label(String.format("Average Bids per Auction: %.2f", avgBids));
+        Label avgBidsLabel = new Label(String.format("Average Bids per Auction: %.2f",
+            stats.getAverageBidsPerAuction()));
         avgBidsLabel.setFont(Font.font("Arial", 14));
         
+        // Sales
+        Label revenueLabel = new Label(String.format("Auctions Sold: %d, Revenue: %s",
+            stats.getSoldCount(), Money.format(stats.getRevenue())));
+        revenueLabel.setFont(Font.font("Arial", 14));
+        
         breakdown.getChildren().addAll(breakdownTitle, usersBreakdown, auctionsBreakdown, 
-                                       reserveLabel, avgBidsLabel);
+                                       reserveLabel, avgBidsLabel, revenueLabel);
         
         pane.getChildren().addAll(title, statsCards, breakdown);
         
@@ -186,7 +184,7 @@ public class AdminPanelWindow {
                 user.getUsername(),
                 user.getEmail(),
                 user.getRole(),
-                user.getMyBidIds().size());
+                user.getMyBidCount());
             usersList.getItems().add(userInfo);
         }
         
@@ -202,7 +200,7 @@ public class AdminPanelWindow {
                     user.getUsername(),
                     user.getEmail(),
                     user.getRole(),
-                    user.getMyBidIds().size());
+                    user.getMyBidCount());
                 usersList.getItems().add(userInfo);
             }
             countLabel.setText("Total Users: " + users.size());
@@ -240,10 +238,10 @@ public class AdminPanelWindow {
             Label titleLabel = new Label(auction.getTitle());
             titleLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
             
-            Label detailsLabel = new Label(String.format("State: %s | Bids: %d | Current: $%.2f | Seller: %s",
+            Label detailsLabel = new Label(String.format("State: %s | Bids: %d | Current: %s | Seller: %s",
                 auction.getState(),
-                auction.getBidHistory().size(),
-                auction.getCurrentBid(),
+                auction.getBidCount(),
+                Money.format(auction.getCurrentBid()),
                 auction.getSellerUsername()));
             detailsLabel.setFont(Font.font("Arial", 11));
             detailsLabel.setTextFill(Color.GRAY);
@@ -1,6 +1,7 @@
 package com.auction.javafx;
 
 import com.auction.enums.AuctionState;
+import com.auction.enums.BidStatus;
 import com.auction.managers.AuctionManager;
 import com.auction.models.*;
 import javafx.animation.AnimationTimer;
@@ -32,6 +33,9 @@ public class AuctionDetailsWindow {
     private Label statusLabel;
     private ListView<String> bidHistoryList;
     private AnimationTimer updateTimer;
+    private int shownBidCount = -1;
+    
+    private static final int MAX_BIDS_SHOWN = 100;
     
     public AuctionDetailsWindow(AuctionItem item, User currentUser, AuctionManager manager) {
         this.item = item;
@@ -88,16 +92,15 @@ public class AuctionDetailsWindow {
         
         int row = 0;
         addInfoRow(infoGrid, row++, "Seller:", item.getSellerUsername());
-        addInfoRow(infoGrid, row++, "Starting Price:", String.format("$%.2f", item.getStartingPrice()));
-        addInfoRow(infoGrid, row++, "Reserve Price:", String.format("$%.2f", item.getReservePrice()));
+        addInfoRow(infoGrid, row++, "Starting Price:", Money.format(item.getStartingPrice()));
+        addInfoRow(infoGrid, row++, "Reserve Price:", Money.format(item.getReservePrice()));
         
-        currentBidLabel = new Label(String.format("$%.2f", item.getCurrentBid()));
+        currentBidLabel = new Label(Money.format(item.getCurrentBid()));
         currentBidLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
         currentBidLabel.setTextFill(Color.GREEN);
         addInfoRowWithControl(infoGrid, row++, "Current Bid:", currentBidLabel);
         
-        addInfoRow(infoGrid, row++, "Minimum Next Bid:", 
-            String.format("$%.2f", item.getCurrentBid() + item.getMinimumBidIncrement()));
+        addInfoRow(infoGrid, row++, "Minimum Next Bid:", Money.format(item.getMinimumNextBid()));
         
         timeRemainingLabel = new Label(formatTimeRemaining());
         timeRemainingLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
@@ -109,7 +112,7 @@ public class AuctionDetailsWindow {
         addInfoRowWithControl(infoGrid, row++, "Status:", statusLabel);
         
         // Bid History
-        Label historyLabel = new Label("Bid History (" + item.getBidHistory().size() + " bids):");
+        Label historyLabel = new Label("Bid History (" + item.getBidCount() + " bids):");
         historyLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
         
         bidHistoryList = new ListView<>();
@@ -145,13 +148,26 @@ public class AuctionDetailsWindow {
             Button quickBidBtn = new Button("Quick Bid (Min)");
             quickBidBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white;");
             quickBidBtn.setOnAction(e -> {
-                double minBid = item.getCurrentBid() + item.getMinimumBidIncrement();
-                bidField.setText(String.format("%.2f", minBid));
+                bidField.setText(Money.formatPlain(item.getMinimumNextBid()));
             });
             
             bidBox.getChildren().addAll(new Label("$"), bidField, bidButton, quickBidBtn);
             
-            bidSection.getChildren().addAll(bidLabel, bidBox);
+            // Proxy bidding: the system bids for the user up to a hidden maximum
+            HBox maxBidBox = new HBox(10);
+            maxBidBox.setAlignment(Pos.CENTER_LEFT);
+            
+            TextField maxBidField = new TextField();
+            maxBidField.setPromptText("Your maximum bid");
+            maxBidField.setPrefWidth(150);
+            
+            Button maxBidButton = new Button("Set Max Bid");
+            maxBidButton.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; -fx-font-weight: bold;");
+            maxBidButton.setOnAction(e -> placeMaxBid(maxBidField));
+            
+            maxBidBox.getChildren().addAll(new Label("$"), maxBidField, maxBidButton);
+            
+            bidSection.getChildren().addAll(bidLabel, bidBox, maxBidBox);
             root.setBottom(bidSection);
         } else if (item.getSellerId().equals(currentUser.getUserId())) {
             Label sellerNote = new Label("You cannot bid on your own auction");
@@ -199,8 +215,15 @@ public class AuctionDetailsWindow {
     }
     
     private void updateBidHistory() {
+        // Only rebuild the list when new bids have arrived
+        int bidCount = item.getBidCount();
+        if (bidCount == shownBidCount) {
+            return;
+        }
+        shownBidCount = bidCount;
+        
         bidHistoryList.getItems().clear();
-        var bids = item.getBidHistory();
+        var bids = item.getRecentBids(MAX_BIDS_SHOWN);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, HH:mm:ss");
         
         if (bids.isEmpty()) {
@@ -209,8 +232,8 @@ public class AuctionDetailsWindow {
             // Show most recent bids first
             for (int i = bids.size() - 1; i >= 0; i--) {
                 Bid bid = bids.get(i);
-                String bidInfo = String.format("$%.2f by %s at %s",
-                    bid.getAmount(),
+                String bidInfo = String.format("%s by %s at %s",
+                    Money.format(bid.getAmount()),
                     bid.getBidderUsername(),
                     bid.getTimestamp().format(formatter));
                 bidHistoryList.getItems().add(bidInfo);
@@ -237,7 +260,7 @@ public class AuctionDetailsWindow {
                 if (now - lastUpdate >= 1_000_000_000) { // Update every second
                     Platform.runLater(() -> {
                         // Update labels
-                        currentBidLabel.setText(String.format("$%.2f", item.getCurrentBid()));
+                        currentBidLabel.setText(Money.format(item.getCurrentBid()));
                         timeRemainingLabel.setText(formatTimeRemaining());
                         statusLabel.setText(item.isReserveMet() ? "✅ Reserve Met" : "⚠️ Reserve Not Met");
                         updateBidHistory();
@@ -264,22 +287,60 @@ public class AuctionDetailsWindow {
         }
         
         try {
-            double bidAmount = Double.parseDouble(bidText);
+            long bidAmount = Money.parse(bidText);
             
-            boolean success = item.placeBid(currentUser, bidAmount);
+            BidStatus status = manager.placeBid(item.getItemId(), currentUser, bidAmount);
             
-            if (success) {
+            if (status == BidStatus.ACCEPTED) {
                 showAlert(Alert.AlertType.INFORMATION, "Success!", 
-                    String.format("Your bid of $%.2f has been placed successfully!", bidAmount));
+                    "Your bid of " + Money.format(bidAmount) + " has been placed successfully!");
+                bidField.clear();
+                updateBidHistory();
+            } else if (status == BidStatus.OUTBID_BY_PROXY) {
+                // The bid was placed, but another bidder's maximum answered it
+                showAlert(Alert.AlertType.WARNING, "Outbid", 
+                    "Your bid of " + Money.format(bidAmount) + " was placed, but you were outbid by a proxy bid. " +
+                    "Current bid is now " + Money.format(item.getCurrentBid()) + ".");
                 bidField.clear();
                 updateBidHistory();
             } else {
-                showAlert(Alert.AlertType.ERROR, "Bid Failed", 
-                    "Your bid was rejected. Check the minimum bid requirement.");
+                showAlert(Alert.AlertType.ERROR, "Bid Failed", status.getDescription());
+            }
+            
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.WARNING, "Invalid Bid", "Please enter a valid amount (e.g. 12.50)");
+        }
+    }
+    
+    private void placeMaxBid(TextField maxBidField) {
+        String maxText = maxBidField.getText().trim();
+        
+        if (maxText.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Invalid Bid", "Please enter your maximum bid");
+            return;
+        }
+        
+        try {
+            long maximum = Money.parse(maxText);
+            
+            BidStatus status = manager.placeProxyBid(item.getItemId(), currentUser, maximum);
+            
+            if (status == BidStatus.ACCEPTED) {
+                showAlert(Alert.AlertType.INFORMATION, "Max Bid Set", 
+                    "You are the highest bidder at " + Money.format(item.getCurrentBid()) + 
+                    ". We will bid for you up to " + Money.format(maximum) + ".");
+                maxBidField.clear();
+            } else if (status == BidStatus.OUTBID_BY_PROXY) {
+                showAlert(Alert.AlertType.WARNING, "Outbid", 
+                    "Another bidder's maximum is higher. Current bid is now " + 
+                    Money.format(item.getCurrentBid()) + ".");
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Bid Failed", status.getDescription());
             }
+            updateBidHistory();
             
         } catch (NumberFormatException e) {
-            showAlert(Alert.AlertType.WARNING, "Invalid Bid", "Please enter a valid number");
+            showAlert(Alert.AlertType.WARNING, "Invalid Bid", "Please enter a valid amount (e.g. 12.50)");
         }
     }
     
@@ -2,6 +2,7 @@ package com.auction.javafx;
 
 import com.auction.enums.ItemCategory;
 import com.auction.managers.AuctionManager;
+import com.auction.models.Money;
 import com.auction.models.User;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -193,9 +194,9 @@ public class CreateAuctionWindow {
         }
         
         // Validate starting price
-        double startPrice;
+        long startPrice;
         try {
-            startPrice = Double.parseDouble(startPriceField.getText().trim());
+            startPrice = Money.parse(startPriceField.getText());
             if (startPrice <= 0) {
                 errorLabel.setText("❌ Starting price must be greater than 0");
                 return false;
@@ -206,9 +207,9 @@ public class CreateAuctionWindow {
         }
         
         // Validate reserve price
-        double reservePrice;
+        long reservePrice;
         try {
-            reservePrice = Double.parseDouble(reservePriceField.getText().trim());
+            reservePrice = Money.parse(reservePriceField.getText());
             if (reservePrice <= 0) {
                 errorLabel.setText("❌ Reserve price must be greater than 0");
                 return false;
@@ -255,7 +256,7 @@ public class CreateAuctionWindow {
             alert.setTitle("Success!");
             alert.setHeaderText("Auction Created Successfully");
             alert.setContentText("Your auction '" + title + "' has been created and is now live!\n\n" +
-                               "Auction ID: " + auctionId.substring(0, 8) + "\n" +
+                               "Auction ID: " + auctionId + "\n" +
                                "Duration: " + duration + " minutes");
             alert.showAndWait();
             return true;
@@ -2,6 +2,7 @@ package com.auction.javafx;
 
 import com.auction.enums.*;
 import com.auction.managers.AuctionManager;
+import com.auction.managers.AuctionPage;
 import com.auction.models.*;
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
@@ -29,6 +30,10 @@ public class DashboardController {
     private TableView<AuctionItemRow> auctionTable;
     private ObservableList<AuctionItemRow> auctionData;
     private AnimationTimer refreshTimer;
+    private Button loadMoreBtn;
+    private AuctionPage.Cursor nextCursor;
+    
+    private static final int PAGE_SIZE = 50;
     
     public DashboardController(Stage stage, AuctionManager manager, User currentUser) {
         this.stage = stage;
@@ -81,6 +86,10 @@ public class DashboardController {
         Button refreshBtn = new Button("🔄 Refresh");
         refreshBtn.setOnAction(e -> refreshAuctions());
         
+        loadMoreBtn = new Button("⬇ Load More");
+        loadMoreBtn.setOnAction(e -> loadMoreAuctions());
+        loadMoreBtn.setDisable(true);
+        
         Button createBtn = new Button("➕ Create Auction");
         createBtn.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; -fx-font-weight: bold;");
         createBtn.setOnAction(e -> showCreateAuction());
@@ -91,7 +100,7 @@ public class DashboardController {
         Button myAuctionsBtn = new Button("📦 My Auctions");
         myAuctionsBtn.setOnAction(e -> showMyAuctions());
         
-        buttonBar.getChildren().addAll(refreshBtn, createBtn, myBidsBtn, myAuctionsBtn);
+        buttonBar.getChildren().addAll(refreshBtn, loadMoreBtn, createBtn, myBidsBtn, myAuctionsBtn);
         
         if (currentUser.getRole() == UserRole.ADMIN) {
             Button adminBtn = new Button("⚙️ Admin Panel");
@@ -195,9 +204,20 @@ public class DashboardController {
     
     private void refreshAuctions() {
         auctionData.clear();
-        for (AuctionItem item : manager.getActiveAuctions()) {
+        nextCursor = null;
+        loadMoreAuctions();
+    }
+    
+    /**
+     * Append the next page of active auctions, soonest ending first
+     */
+    private void loadMoreAuctions() {
+        AuctionPage page = manager.getActiveAuctionsPage(nextCursor, PAGE_SIZE);
+        for (AuctionItem item : page.getItems()) {
             auctionData.add(new AuctionItemRow(item));
         }
+        nextCursor = page.getNextCursor();
+        loadMoreBtn.setDisable(!page.hasMore());
     }
     
     private void startAutoRefresh() {
@@ -227,6 +247,7 @@ public class DashboardController {
             return;
         }
         auctionData.clear();
+        loadMoreBtn.setDisable(true);
         for (AuctionItem item : manager.searchAuctions(keyword)) {
             if (item.getState() == AuctionState.ACTIVE) {
                 auctionData.add(new AuctionItemRow(item));
@@ -297,7 +318,7 @@ public class DashboardController {
         public void refresh() {
             this.title = auctionItem.getTitle();
             this.category = auctionItem.getCategory().toString();
-            this.currentBid = String.format("$%.2f", auctionItem.getCurrentBid());
+            this.currentBid = Money.format(auctionItem.getCurrentBid());
             
             long minutes = auctionItem.getTimeRemainingMinutes();
             if (minutes > 60) {
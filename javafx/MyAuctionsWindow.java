@@ -196,10 +196,10 @@ public class MyAuctionsWindow {
         infoGrid.setPadding(new Insets(10, 0, 10, 0));
         
         int row = 0;
-        addInfoRow(infoGrid, row++, "Starting Price:", String.format("$%.2f", auction.getStartingPrice()));
-        addInfoRow(infoGrid, row++, "Current Bid:", String.format("$%.2f", auction.getCurrentBid()));
-        addInfoRow(infoGrid, row++, "Reserve Price:", String.format("$%.2f", auction.getReservePrice()));
-        addInfoRow(infoGrid, row++, "Total Bids:", String.valueOf(auction.getBidHistory().size()));
+        addInfoRow(infoGrid, row++, "Starting Price:", Money.format(auction.getStartingPrice()));
+        addInfoRow(infoGrid, row++, "Current Bid:", Money.format(auction.getCurrentBid()));
+        addInfoRow(infoGrid, row++, "Reserve Price:", Money.format(auction.getReservePrice()));
+        addInfoRow(infoGrid, row++, "Total Bids:", String.valueOf(auction.getBidCount()));
         
         if (auction.getState().toString().equals("ACTIVE")) {
             long timeLeft = auction.getTimeRemainingMinutes();
@@ -220,8 +220,8 @@ public class MyAuctionsWindow {
         
         // Winner information (if closed and sold)
         if (auction.getState().toString().equals("CLOSED") && auction.isReserveMet()) {
-            Label winnerLabel = new Label("🏆 Sold to highest bidder for $" + 
-                String.format("%.2f", auction.getCurrentBid()));
+            Label winnerLabel = new Label("🏆 Sold to highest bidder for " + 
+                Money.format(auction.getCurrentBid()));
             winnerLabel.setFont(Font.font("Arial", FontWeight.BOLD, 13));
             winnerLabel.setTextFill(Color.GREEN);
             box.getChildren().addAll(titleBox, categoryLabel, infoGrid, statusBox, winnerLabel);
@@ -61,9 +61,9 @@ public class MyBidsWindow {
         VBox content = new VBox(15);
         content.setPadding(new Insets(20));
         
-        List<String> myBidIds = currentUser.getMyBidIds();
+        int myBidCount = currentUser.getMyBidCount();
         
-        if (myBidIds.isEmpty()) {
+        if (myBidCount == 0) {
             VBox emptyBox = new VBox(20);
             emptyBox.setAlignment(Pos.CENTER);
             emptyBox.setPadding(new Insets(50));
@@ -78,24 +78,12 @@ public class MyBidsWindow {
             emptyBox.getChildren().addAll(emptyLabel, tipLabel);
             content.getChildren().add(emptyBox);
         } else {
-            Label statsLabel = new Label("Total Bids Placed: " + myBidIds.size());
+            Label statsLabel = new Label("Total Bids Placed: " + myBidCount);
             statsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 16));
             content.getChildren().add(statsLabel);
             
-            // Group bids by auction
-            Map<AuctionItem, List<Bid>> bidsByAuction = new HashMap<>();
-            
-            for (AuctionItem auction : manager.getAllAuctions()) {
-                List<Bid> relevantBids = new ArrayList<>();
-                for (Bid bid : auction.getBidHistory()) {
-                    if (myBidIds.contains(bid.getBidId())) {
-                        relevantBids.add(bid);
-                    }
-                }
-                if (!relevantBids.isEmpty()) {
-                    bidsByAuction.put(auction, relevantBids);
-                }
-            }
+            // Bids grouped by auction, straight from the per-user index
+            Map<AuctionItem, List<Bid>> bidsByAuction = manager.getBidsByUser(currentUser);
             
             // Display each auction with user's bids
             for (Map.Entry<AuctionItem, List<Bid>> entry : bidsByAuction.entrySet()) {
@@ -162,8 +150,8 @@ public class MyBidsWindow {
         titleBox.getChildren().addAll(titleLabel, spacer, stateLabel);
         
         // Auction info
-        Label infoLabel = new Label(String.format("Current Bid: $%.2f | Your Bids: %d", 
-            auction.getCurrentBid(), bids.size()));
+        Label infoLabel = new Label(String.format("Current Bid: %s | Your Bids: %d", 
+            Money.format(auction.getCurrentBid()), bids.size()));
         infoLabel.setTextFill(Color.GRAY);
         
         // Check if user is winning
@@ -199,7 +187,7 @@ public class MyBidsWindow {
             HBox bidRow = new HBox(10);
             bidRow.setAlignment(Pos.CENTER_LEFT);
             
-            Label bidLabel = new Label(String.format("$%.2f", bid.getAmount()));
+            Label bidLabel = new Label(Money.format(bid.getAmount()));
             bidLabel.setFont(Font.font("Arial", FontWeight.BOLD, 13));
             
             Label timeLabel = new Label("placed on " + bid.getTimestamp().format(formatter));
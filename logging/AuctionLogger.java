@@ -0,0 +1,234 @@
+package com.auction.logging;
+
+import com.auction.enums.LogLevel;
+
+import java.util.Formatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Level-gated logging facade for the auction core.
+ *
+ * Callers only check the level and copy the template and arguments into a
+ * pre-allocated ring buffer slot; formatting (printf-style templates) and
+ * writing to the sinks happen on a single background thread. When the ring
+ * is full new records are dropped rather than stalling the caller.
+ */
+public final class AuctionLogger {
+    private static final int RING_SIZE = 8192; // must be a power of two
+    private static final int MAX_ARGS = 4;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    private static final Slot[] ring = new Slot[RING_SIZE];
+    private static final AtomicLong claimed = new AtomicLong();
+    private static final LongAdder dropped = new LongAdder();
+    private static final List<LogSink> sinks = new CopyOnWriteArrayList<>();
+    private static volatile long consumed;
+    private static volatile long written;
+    private static volatile LogLevel level = LogLevel.INFO;
+    
+    static {
+        for (int i = 0; i < RING_SIZE; i++) {
+            ring[i] = new Slot();
+        }
+        sinks.add(new ConsoleLogSink());
+        
+        Thread writer = new Thread(AuctionLogger::drainLoop, "auction-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    private AuctionLogger() {
+    }
+    
+    /**
+     * One reusable ring buffer entry
+     */
+    private static final class Slot {
+        private volatile long published = -1;
+        private LogLevel level;
+        private long timestampMillis;
+        private String template;
+        private int argCount;
+        private final Object[] args = new Object[MAX_ARGS];
+    }
+    
+    // ==================== CONFIGURATION ====================
+    
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+    
+    public static LogLevel getLevel() {
+        return level;
+    }
+    
+    public static boolean isEnabled(LogLevel candidate) {
+        return candidate.compareTo(level) >= 0;
+    }
+    
+    /**
+     * Level checks for call sites whose arguments are costly to build
+     */
+    public static boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+    
+    public static boolean isInfoEnabled() {
+        return isEnabled(LogLevel.INFO);
+    }
+    
+    public static boolean isWarnEnabled() {
+        return isEnabled(LogLevel.WARN);
+    }
+    
+    public static void addSink(LogSink sink) {
+        sinks.add(sink);
+    }
+    
+    public static void removeSink(LogSink sink) {
+        sinks.remove(sink);
+    }
+    
+    /**
+     * Remove the console sink, e.g. for load tests or GUI-only runs
+     */
+    public static void disableConsole() {
+        sinks.removeIf(sink -> sink instanceof ConsoleLogSink);
+    }
+    
+    /**
+     * Number of records dropped because the ring buffer was full
+     */
+    public static long getDroppedCount() {
+        return dropped.sum();
+    }
+    
+    // ==================== LOGGING ====================
+    
+    public static void debug(String template) { log(LogLevel.DEBUG, template, 0, null, null, null, null); }
+    public static void debug(String template, Object a) { log(LogLevel.DEBUG, template, 1, a, null, null, null); }
+    public static void debug(String template, Object a, Object b) { log(LogLevel.DEBUG, template, 2, a, b, null, null); }
+    public static void debug(String template, Object a, Object b, Object c) { log(LogLevel.DEBUG, template, 3, a, b, c, null); }
+    public static void debug(String template, Object a, Object b, Object c, Object d) { log(LogLevel.DEBUG, template, 4, a, b, c, d); }
+    
+    public static void info(String template) { log(LogLevel.INFO, template, 0, null, null, null, null); }
+    public static void info(String template, Object a) { log(LogLevel.INFO, template, 1, a, null, null, null); }
+    public static void info(String template, Object a, Object b) { log(LogLevel.INFO, template, 2, a, b, null, null); }
+    public static void info(String template, Object a, Object b, Object c) { log(LogLevel.INFO, template, 3, a, b, c, null); }
+    public static void info(String template, Object a, Object b, Object c, Object d) { log(LogLevel.INFO, template, 4, a, b, c, d); }
+    
+    public static void warn(String template) { log(LogLevel.WARN, template, 0, null, null, null, null); }
+    public static void warn(String template, Object a) { log(LogLevel.WARN, template, 1, a, null, null, null); }
+    public static void warn(String template, Object a, Object b) { log(LogLevel.WARN, template, 2, a, b, null, null); }
+    public static void warn(String template, Object a, Object b, Object c) { log(LogLevel.WARN, template, 3, a, b, c, null); }
+    public static void warn(String template, Object a, Object b, Object c, Object d) { log(LogLevel.WARN, template, 4, a, b, c, d); }
+    
+    public static void error(String template) { log(LogLevel.ERROR, template, 0, null, null, null, null); }
+    public static void error(String template, Object a) { log(LogLevel.ERROR, template, 1, a, null, null, null); }
+    public static void error(String template, Object a, Object b) { log(LogLevel.ERROR, template, 2, a, b, null, null); }
+    public static void error(String template, Object a, Object b, Object c) { log(LogLevel.ERROR, template, 3, a, b, c, null); }
+    public static void error(String template, Object a, Object b, Object c, Object d) { log(LogLevel.ERROR, template, 4, a, b, c, d); }
+    
+    /**
+     * Claim a ring slot and copy the record into it - no formatting on the caller
+     */
+    private static void log(LogLevel recordLevel, String template, int argCount,
+                            Object a, Object b, Object c, Object d) {
+        if (!isEnabled(recordLevel)) {
+            return;
+        }
+        
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed >= RING_SIZE) {
+                dropped.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+        
+        Slot slot = ring[(int) (seq & (RING_SIZE - 1))];
+        slot.level = recordLevel;
+        slot.timestampMillis = System.currentTimeMillis();
+        slot.template = template;
+        slot.argCount = argCount;
+        slot.args[0] = a;
+        slot.args[1] = b;
+        slot.args[2] = c;
+        slot.args[3] = d;
+        slot.published = seq;
+    }
+    
+    /**
+     * Block until every record logged so far has reached the sinks
+     */
+    public static void flush() {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (written < target && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+    
+    // ==================== WRITER THREAD ====================
+    
+    private static void drainLoop() {
+        StringBuilder buffer = new StringBuilder(256);
+        Formatter formatter = new Formatter(buffer);
+        Object[] args = new Object[MAX_ARGS];
+        boolean dirty = false;
+        
+        while (true) {
+            long next = consumed;
+            Slot slot = ring[(int) (next & (RING_SIZE - 1))];
+            if (slot.published != next) {
+                if (dirty) {
+                    for (LogSink sink : sinks) {
+                        sink.flush();
+                    }
+                    dirty = false;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            
+            LogLevel recordLevel = slot.level;
+            long timestamp = slot.timestampMillis;
+            String template = slot.template;
+            int argCount = slot.argCount;
+            for (int i = 0; i < MAX_ARGS; i++) {
+                args[i] = slot.args[i];
+                slot.args[i] = null;
+            }
+            slot.template = null;
+            consumed = next + 1; // slot may now be reused
+            
+            buffer.setLength(0);
+            if (argCount == 0) {
+                buffer.append(template);
+            } else {
+                try {
+                    formatter.format(template, args);
+                } catch (RuntimeException e) {
+                    buffer.setLength(0);
+                    buffer.append(template);
+                }
+            }
+            
+            for (LogSink sink : sinks) {
+                try {
+                    sink.write(recordLevel, timestamp, buffer);
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Log sink failed: " + e.getMessage());
+                }
+            }
+            written = next + 1;
+            dirty = true;
+        }
+    }
+}
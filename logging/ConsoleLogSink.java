@@ -0,0 +1,24 @@
+package com.auction.logging;
+
+import com.auction.enums.LogLevel;
+
+/**
+ * Log sink that prints records to the console, errors to stderr
+ */
+public class ConsoleLogSink implements LogSink {
+    
+    @Override
+    public void write(LogLevel level, long timestampMillis, CharSequence message) {
+        if (level == LogLevel.ERROR) {
+            System.err.println(message);
+        } else {
+            System.out.println(message);
+        }
+    }
+    
+    @Override
+    public void flush() {
+        System.out.flush();
+        System.err.flush();
+    }
+}
@@ -0,0 +1,20 @@
+package com.auction.logging;
+
+import com.auction.enums.LogLevel;
+
+/**
+ * Destination for formatted log records.
+ * Sinks are only ever called from the single background log writer thread.
+ */
+public interface LogSink {
+    /**
+     * Write one formatted record
+     */
+    void write(LogLevel level, long timestampMillis, CharSequence message);
+    
+    /**
+     * Flush any buffered output
+     */
+    default void flush() {
+    }
+}
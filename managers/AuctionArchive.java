@@ -0,0 +1,574 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.ItemCategory;
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * On-disk tier for auctions that closed a while ago, so only live auctions
+ * occupy the heap.
+ *
+ * Archived auctions are appended to segment files as checksummed frames of
+ * [length][crc32c][payload] and read back through read-only memory maps.
+ * Each segment starts with the enum name tables its records were written
+ * with. The heap keeps only a small entry per auction, indexed by item ID,
+ * seller and category, plus a bounded LRU cache of decoded auctions;
+ * get() decodes an auction from its mapping on a cache miss.
+ *
+ * Removing an archived auction appends a tombstone frame. Opening the
+ * archive scans every segment to rebuild the indexes and the totals of
+ * archived auctions; a torn frame at the end of the last segment is cut off.
+ *
+ * The bids of archived auctions are also copied into a BidColumnStore in
+ * the same directory for reporting scans. On open, the two are reconciled
+ * in case a crash came between writing one and the other.
+ */
+public class AuctionArchive implements AutoCloseable {
+    private static final byte[] MAGIC = "AUCA".getBytes(StandardCharsets.US_ASCII);
+    private static final int FORMAT_VERSION = 1;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int KIND_AUCTION = 1;
+    private static final int KIND_REMOVED = 2;
+    private static final String SEGMENT_PREFIX = "archive-";
+    private static final String SEGMENT_SUFFIX = ".arc";
+    
+    private final Path directory;
+    private final long segmentBytes;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ConcurrentSkipListMap<String, Entry> byId = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> bySeller = new ConcurrentHashMap<>();
+    private final Map<ItemCategory, Set<String>> byCategory = new EnumMap<>(ItemCategory.class);
+    private final Map<String, AuctionItem> cache;
+    private final AuctionStatistics statistics = new AuctionStatistics();
+    private final BidColumnStore bidColumns;
+    
+    // Appends only, guarded by this
+    private final ByteWriter frame = new ByteWriter(4096);
+    private final CRC32C crc = new CRC32C();
+    
+    /**
+     * Where an archived auction's record lives, and what the indexes and
+     * statistics need without decoding it
+     */
+    private static final class Entry {
+        private final int segment;
+        private final long offset;
+        private final int length;
+        private final String sellerId;
+        private final ItemCategory category;
+        private final int bidCount;
+        private final boolean reserveMet;
+        private final long soldPrice; // 0 if closed without a winner
+        
+        Entry(int segment, long offset, int length, String sellerId, ItemCategory category,
+              int bidCount, boolean reserveMet, long soldPrice) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.sellerId = sellerId;
+            this.category = category;
+            this.bidCount = bidCount;
+            this.reserveMet = reserveMet;
+            this.soldPrice = soldPrice;
+        }
+    }
+    
+    /**
+     * One segment file, remapped when reads reach past the current mapping
+     */
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final ItemCategory[] categories;
+        private final AuctionState[] states;
+        private volatile long size;
+        private volatile MappedByteBuffer mapped;
+        
+        Segment(Path path, FileChannel channel, ItemCategory[] categories, AuctionState[] states, long size) {
+            this.path = path;
+            this.channel = channel;
+            this.categories = categories;
+            this.states = states;
+            this.size = size;
+        }
+        
+        ByteBuffer read(long offset, int length) throws IOException {
+            MappedByteBuffer map = mapped;
+            if (map == null || offset + length > map.capacity()) {
+                synchronized (this) {
+                    map = mapped;
+                    if (map == null || offset + length > map.capacity()) {
+                        map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                        mapped = map;
+                    }
+                }
+            }
+            return map.duplicate().position((int) offset).limit((int) (offset + length)).slice();
+        }
+    }
+    
+    private AuctionArchive(Path directory, long segmentBytes, int cacheSize, BidColumnStore bidColumns) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.bidColumns = bidColumns;
+        for (ItemCategory category : ItemCategory.values()) {
+            byCategory.put(category, ConcurrentHashMap.newKeySet());
+        }
+        this.cache = new LinkedHashMap<String, AuctionItem>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AuctionItem> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+    
+    /**
+     * Open the archive in a directory and index what it holds
+     *
+     * @param segmentBytes start a new segment file once the current one reaches this size
+     * @param cacheSize number of decoded auctions kept in memory
+     */
+    public static AuctionArchive open(Path directory, long segmentBytes, int cacheSize) throws IOException {
+        if (segmentBytes <= 0 || segmentBytes > Integer.MAX_VALUE || cacheSize <= 0) {
+            throw new IllegalArgumentException("Invalid archive settings");
+        }
+        Files.createDirectories(directory);
+        AuctionArchive archive = new AuctionArchive(directory, segmentBytes, cacheSize,
+                                                    BidColumnStore.open(directory, segmentBytes));
+        List<Path> files = listSegments(directory);
+        for (int i = 0; i < files.size(); i++) {
+            archive.scan(files.get(i), i == files.size() - 1);
+        }
+        archive.reconcileBidColumns();
+        AuctionLogger.info("🗄️  Auction archive opened at %s (%d auctions)", directory, archive.size());
+        return archive;
+    }
+    
+    // ==================== WRITING ====================
+    
+    /**
+     * Append closed auctions and force them to disk, then copy their bids
+     * into the bid columns. They are readable through get() once this returns.
+     */
+    public synchronized void archive(List<AuctionItem> items) throws IOException {
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        List<String> ids = new ArrayList<>(items.size());
+        List<Entry> entries = new ArrayList<>(items.size());
+        for (AuctionItem item : items) {
+            if (segment == null || segment.size >= segmentBytes) {
+                if (segment != null) {
+                    segment.channel.force(true);
+                }
+                segment = createSegment();
+            }
+            
+            boolean met = item.isReserveMet();
+            long sold = met && item.getCurrentHighestBidderId() != null ? item.getCurrentBid() : 0;
+            frame.clear();
+            frame.putByte(KIND_AUCTION);
+            frame.putString(item.getItemId());
+            frame.putString(item.getSellerId());
+            frame.putVarInt(item.getCategory().ordinal());
+            frame.putVarInt(item.getBidCount());
+            frame.putByte(met ? 1 : 0);
+            frame.putVarLong(sold);
+            SnapshotCodec.encodeAuction(item, frame);
+            
+            long offset = append(segment);
+            ids.add(item.getItemId());
+            entries.add(new Entry(segments.size() - 1, offset, frame.size(), item.getSellerId(),
+                                  item.getCategory(), item.getBidCount(), met, sold));
+        }
+        if (segment != null) {
+            segment.channel.force(true);
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            index(ids.get(i), entries.get(i));
+            statistics.auctionAdded(AuctionState.CLOSED, entries.get(i).reserveMet);
+        }
+        try {
+            bidColumns.append(items);
+        } catch (IOException e) {
+            // The archive is already durable; the next open copies the bids over
+            AuctionLogger.error("❌ Error copying archived bids to columns: %s", e.getMessage());
+        }
+    }
+    
+    /**
+     * Delete an archived auction; returns false if it is not archived
+     */
+    public synchronized boolean remove(String itemId) throws IOException {
+        if (!byId.containsKey(itemId)) {
+            return false;
+        }
+        Segment segment = segments.get(segments.size() - 1);
+        if (segment.size >= segmentBytes) {
+            segment = createSegment();
+        }
+        frame.clear();
+        frame.putByte(KIND_REMOVED);
+        frame.putString(itemId);
+        append(segment);
+        segment.channel.force(true);
+        
+        Entry entry = unindex(itemId);
+        statistics.auctionRemoved(AuctionState.CLOSED, entry.reserveMet);
+        synchronized (cache) {
+            cache.remove(itemId);
+        }
+        bidColumns.remove(itemId);
+        return true;
+    }
+    
+    /**
+     * Write the frame buffer to the end of a segment; returns the payload offset
+     */
+    private long append(Segment segment) throws IOException {
+        ByteBuffer payload = frame.view();
+        crc.reset();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        header.putInt(payload.remaining()).putInt((int) crc.getValue()).flip();
+        
+        long position = segment.size;
+        writeFully(segment.channel, header, position);
+        writeFully(segment.channel, payload, position + FRAME_HEADER_BYTES);
+        segment.size = position + FRAME_HEADER_BYTES + frame.size();
+        return position + FRAME_HEADER_BYTES;
+    }
+    
+    private Segment createSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        
+        ByteWriter header = new ByteWriter(256);
+        header.putRaw(ByteBuffer.wrap(MAGIC));
+        header.putVarInt(FORMAT_VERSION);
+        SnapshotCodec.putNames(header, ItemCategory.values());
+        SnapshotCodec.putNames(header, AuctionState.values());
+        writeFully(channel, header.view(), 0);
+        
+        Segment segment = new Segment(path, channel, ItemCategory.values(), AuctionState.values(), header.size());
+        segments.add(segment);
+        return segment;
+    }
+    
+    private static void writeFully(FileChannel channel, ByteBuffer source, long position) throws IOException {
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+    }
+    
+    // ==================== READING ====================
+    
+    /**
+     * Walk a segment's frames into the indexes, stopping at the first torn
+     * or damaged frame (cut off if this is the last segment)
+     */
+    private void scan(Path path, boolean last) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        if (fileSize > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Archive segment too large: " + path.getFileName());
+        }
+        ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        for (byte b : MAGIC) {
+            if (!mapped.hasRemaining() || mapped.get() != b) {
+                channel.close();
+                throw new IOException("Not an archive segment: " + path.getFileName());
+            }
+        }
+        ByteReader header = new ByteReader(mapped);
+        int version = header.getCount();
+        if (version != FORMAT_VERSION) {
+            channel.close();
+            throw new IOException("Unsupported archive format version " + version);
+        }
+        ItemCategory[] categories = SnapshotCodec.getNames(header, ItemCategory.class);
+        AuctionState[] states = SnapshotCodec.getNames(header, AuctionState.class);
+        
+        int segmentIndex = segments.size();
+        CRC32C check = new CRC32C();
+        while (mapped.remaining() >= FRAME_HEADER_BYTES) {
+            int start = mapped.position();
+            int length = mapped.getInt(start);
+            if (length <= 0 || mapped.remaining() < FRAME_HEADER_BYTES + length) {
+                break;
+            }
+            ByteBuffer payload = mapped.duplicate().position(start + FRAME_HEADER_BYTES)
+                .limit(start + FRAME_HEADER_BYTES + length).slice();
+            check.reset();
+            check.update(payload.duplicate());
+            if ((int) check.getValue() != mapped.getInt(start + 4)) {
+                break;
+            }
+            
+            ByteReader record = new ByteReader(payload);
+            int kind = record.getByte();
+            String itemId = record.getString();
+            if (kind == KIND_AUCTION) {
+                String sellerId = record.getString();
+                int categoryIndex = record.getCount();
+                if (categoryIndex >= categories.length) {
+                    break;
+                }
+                ItemCategory category = categories[categoryIndex];
+                int bidCount = record.getCount();
+                boolean met = record.getByte() != 0;
+                long sold = record.getVarLong();
+                Entry entry = new Entry(segmentIndex, start + FRAME_HEADER_BYTES, length, sellerId,
+                                        category, bidCount, met, sold);
+                index(itemId, entry);
+                statistics.auctionAdded(AuctionState.CLOSED, met);
+                statistics.bidsRestored(bidCount);
+                if (sold > 0) {
+                    statistics.auctionSold(sold);
+                }
+            } else if (kind == KIND_REMOVED) {
+                Entry entry = unindex(itemId);
+                if (entry != null) {
+                    statistics.auctionRemoved(AuctionState.CLOSED, entry.reserveMet);
+                }
+            }
+            mapped.position(start + FRAME_HEADER_BYTES + length);
+        }
+        
+        long validBytes = mapped.position();
+        if (validBytes < fileSize) {
+            if (last) {
+                AuctionLogger.warn("⚠️  Archive: cutting torn tail of %s at byte %d", path.getFileName(), validBytes);
+                channel.truncate(validBytes);
+                channel.force(true);
+            } else {
+                AuctionLogger.warn("⚠️  Archive: ignoring damaged frames in %s after byte %d", path.getFileName(), validBytes);
+            }
+        }
+        segments.add(new Segment(path, channel, categories, states, validBytes));
+    }
+    
+    /**
+     * An archived auction, decoded on a cache miss, or null if it is not archived.
+     * The returned auction is closed and detached from the live system.
+     */
+    public AuctionItem get(String itemId) {
+        Entry entry = byId.get(itemId);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (cache) {
+            AuctionItem cached = cache.get(itemId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        AuctionItem item;
+        try {
+            item = decode(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archived auction " + itemId, e);
+        }
+        synchronized (cache) {
+            AuctionItem raced = cache.putIfAbsent(itemId, item);
+            return raced != null ? raced : item;
+        }
+    }
+    
+    private AuctionItem decode(Entry entry) throws IOException {
+        Segment segment = segments.get(entry.segment);
+        ByteReader record = new ByteReader(segment.read(entry.offset, entry.length));
+        record.getByte();
+        record.getString();
+        record.getString();
+        record.getCount();
+        record.getCount();
+        record.getByte();
+        record.getVarLong();
+        return SnapshotCodec.decodeAuction(record, segment.categories, segment.states);
+    }
+    
+    public boolean contains(String itemId) {
+        return byId.containsKey(itemId);
+    }
+    
+    /**
+     * Column-oriented bid history of the archived auctions, for reports
+     */
+    public BidColumnStore getBidColumns() {
+        return bidColumns;
+    }
+    
+    public int size() {
+        return byId.size();
+    }
+    
+    /**
+     * IDs of every archived auction, in ID order
+     */
+    List<String> ids() {
+        return new ArrayList<>(byId.keySet());
+    }
+    
+    List<String> idsBySeller(String sellerId) {
+        Set<String> ids = bySeller.get(sellerId);
+        return ids == null ? new ArrayList<>() : new ArrayList<>(ids);
+    }
+    
+    List<String> idsByCategory(ItemCategory category) {
+        return new ArrayList<>(byCategory.get(category));
+    }
+    
+    /**
+     * Up to limit archived IDs starting with the prefix, in ID order
+     */
+    List<String> idsWithPrefix(String prefix, int limit) {
+        List<String> ids = new ArrayList<>();
+        if (prefix.isEmpty()) {
+            return ids;
+        }
+        for (String id : byId.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            if (ids.size() == limit) {
+                break;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+    
+    /**
+     * Totals of the auctions that were already archived when the archive was opened
+     */
+    AuctionStatistics statistics() {
+        return statistics;
+    }
+    
+    /**
+     * Live auctions followed by archived ones. Archived auctions are read
+     * through the cache as elements are accessed, so the list itself holds
+     * only their IDs.
+     */
+    List<AuctionItem> join(List<AuctionItem> live, List<String> archivedIds) {
+        if (archivedIds.isEmpty()) {
+            return live;
+        }
+        return new JoinedList(live, archivedIds);
+    }
+    
+    private final class JoinedList extends AbstractList<AuctionItem> implements RandomAccess {
+        private final List<AuctionItem> live;
+        private final List<String> archivedIds;
+        
+        JoinedList(List<AuctionItem> live, List<String> archivedIds) {
+            this.live = live;
+            this.archivedIds = archivedIds;
+        }
+        
+        @Override
+        public AuctionItem get(int index) {
+            if (index < live.size()) {
+                return live.get(index);
+            }
+            AuctionItem item = AuctionArchive.this.get(archivedIds.get(index - live.size()));
+            if (item == null) {
+                throw new ConcurrentModificationException("Auction removed from the archive");
+            }
+            return item;
+        }
+        
+        @Override
+        public int size() {
+            return live.size() + archivedIds.size();
+        }
+    }
+    
+    /**
+     * Copy the bids of archived auctions missing from the bid columns, and
+     * drop bids of auctions no longer archived
+     */
+    private void reconcileBidColumns() throws IOException {
+        Set<String> stored = bidColumns.auctionIds();
+        List<AuctionItem> missing = new ArrayList<>();
+        int copied = 0;
+        for (Map.Entry<String, Entry> archived : byId.entrySet()) {
+            if (stored.remove(archived.getKey())) {
+                continue;
+            }
+            missing.add(decode(archived.getValue()));
+            if (missing.size() == 1024) {
+                bidColumns.append(missing);
+                copied += missing.size();
+                missing.clear();
+            }
+        }
+        bidColumns.append(missing);
+        copied += missing.size();
+        for (String itemId : stored) {
+            bidColumns.remove(itemId);
+        }
+        if (copied > 0 || !stored.isEmpty()) {
+            AuctionLogger.info("🗄️  Bid columns: copied %d auctions, dropped %d", copied, stored.size());
+        }
+    }
+    
+    private void index(String itemId, Entry entry) {
+        byId.put(itemId, entry);
+        bySeller.computeIfAbsent(entry.sellerId, k -> ConcurrentHashMap.newKeySet()).add(itemId);
+        byCategory.get(entry.category).add(itemId);
+    }
+    
+    private Entry unindex(String itemId) {
+        Entry entry = byId.remove(itemId);
+        if (entry != null) {
+            bySeller.computeIfPresent(entry.sellerId, (k, ids) -> {
+                ids.remove(itemId);
+                return ids.isEmpty() ? null : ids;
+            });
+            byCategory.get(entry.category).remove(itemId);
+        }
+        return entry;
+    }
+    
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            Path[] segments = files
+                .filter(p -> {
+                    String name = p.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .toArray(Path[]::new);
+            // Names are zero-padded, so name order is creation order
+            Arrays.sort(segments);
+            return new ArrayList<>(Arrays.asList(segments));
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        bidColumns.close();
+        for (Segment segment : segments) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                AuctionLogger.error("❌ Error closing archive segment %s: %s", segment.path.getFileName(), e.getMessage());
+            }
+        }
+    }
+}
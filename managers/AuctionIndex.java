@@ -0,0 +1,206 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.ItemCategory;
+import com.auction.enums.PrefixMatch;
+import com.auction.models.AuctionItem;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary indexes over the auctions map: by category, by seller, by state,
+ * by sorted item ID, and active auctions ordered by (end time, item ID).
+ * Kept up to date on create, remove and every state transition so queries
+ * cost time proportional to the result instead of a scan of all auctions.
+ * The auction counters in AuctionStatistics are updated under the same
+ * lock, so they always agree with the index. Locks are private stripes
+ * picked by item ID, never the AuctionItem monitor, so outside code that
+ * synchronizes on an item cannot stall index updates.
+ */
+class AuctionIndex {
+    private static final int LOCK_STRIPES = 64; // must be a power of two
+    
+    private final AuctionStatistics statistics;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Set<AuctionItem> indexed = ConcurrentHashMap.newKeySet();
+    private final Set<AuctionItem> reserveMet = ConcurrentHashMap.newKeySet();
+    private final Map<ItemCategory, Set<AuctionItem>> byCategory = new EnumMap<>(ItemCategory.class);
+    private final Map<AuctionState, Set<AuctionItem>> byState = new EnumMap<>(AuctionState.class);
+    private final Map<String, Set<AuctionItem>> bySeller = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<AuctionPage.Cursor, AuctionItem> activeByEndTime = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, AuctionItem> byId = new ConcurrentSkipListMap<>();
+    
+    AuctionIndex(AuctionStatistics statistics) {
+        this.statistics = statistics;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        // EnumMaps are filled once here and only read afterwards
+        for (ItemCategory category : ItemCategory.values()) {
+            byCategory.put(category, ConcurrentHashMap.newKeySet());
+        }
+        for (AuctionState state : AuctionState.values()) {
+            byState.put(state, ConcurrentHashMap.newKeySet());
+        }
+    }
+    
+    /**
+     * Index a newly created or restored auction
+     */
+    void add(AuctionItem item) {
+        synchronized (lockFor(item)) {
+            if (!indexed.add(item)) {
+                return;
+            }
+            byId.put(item.getItemId(), item);
+            byCategory.get(item.getCategory()).add(item);
+            bySeller.compute(item.getSellerId(), (k, items) -> {
+                Set<AuctionItem> sellerItems = items != null ? items : ConcurrentHashMap.<AuctionItem>newKeySet();
+                sellerItems.add(item);
+                return sellerItems;
+            });
+            byState.get(item.getState()).add(item);
+            if (item.getState() == AuctionState.ACTIVE) {
+                activeByEndTime.put(AuctionPage.Cursor.of(item), item);
+            }
+            boolean met = item.isReserveMet() && reserveMet.add(item);
+            statistics.auctionAdded(item.getState(), met);
+            if (item.getState() == AuctionState.CLOSED && met && item.getCurrentHighestBidderId() != null) {
+                // A restored auction that had already closed with a winner
+                statistics.auctionSold(item.getCurrentBid());
+            }
+        }
+    }
+    
+    /**
+     * Drop a removed auction from every index
+     */
+    void remove(AuctionItem item) {
+        synchronized (lockFor(item)) {
+            if (!indexed.remove(item)) {
+                return;
+            }
+            byId.remove(item.getItemId());
+            byCategory.get(item.getCategory()).remove(item);
+            bySeller.computeIfPresent(item.getSellerId(), (k, items) -> {
+                items.remove(item);
+                return items.isEmpty() ? null : items;
+            });
+            for (Set<AuctionItem> items : byState.values()) {
+                items.remove(item);
+            }
+            activeByEndTime.remove(AuctionPage.Cursor.of(item));
+            statistics.auctionRemoved(item.getState(), reserveMet.remove(item));
+        }
+    }
+    
+    /**
+     * Move an auction between state sets; ignored once it has been removed
+     */
+    void stateChanged(AuctionItem item, AuctionState from, AuctionState to) {
+        synchronized (lockFor(item)) {
+            if (!indexed.contains(item)) {
+                return;
+            }
+            byState.get(from).remove(item);
+            byState.get(to).add(item);
+            if (to == AuctionState.ACTIVE) {
+                activeByEndTime.put(AuctionPage.Cursor.of(item), item);
+            } else if (from == AuctionState.ACTIVE) {
+                activeByEndTime.remove(AuctionPage.Cursor.of(item));
+            }
+            statistics.stateChanged(from, to);
+            if (to == AuctionState.CLOSED && item.isReserveMet() && item.getCurrentHighestBidderId() != null) {
+                statistics.auctionSold(item.getCurrentBid());
+            }
+        }
+    }
+    
+    /**
+     * Count an auction whose high bid has just reached its reserve
+     */
+    void reserveMet(AuctionItem item) {
+        synchronized (lockFor(item)) {
+            if (indexed.contains(item) && reserveMet.add(item)) {
+                statistics.reserveMet();
+            }
+        }
+    }
+    
+    /**
+     * The lock guarding one auction's index entries
+     */
+    private Object lockFor(AuctionItem item) {
+        return locks[item.getItemId().hashCode() & (LOCK_STRIPES - 1)];
+    }
+    
+    List<AuctionItem> byCategory(ItemCategory category) {
+        return new ArrayList<>(byCategory.get(category));
+    }
+    
+    List<AuctionItem> bySeller(String sellerId) {
+        Set<AuctionItem> items = bySeller.get(sellerId);
+        return items == null ? new ArrayList<>() : new ArrayList<>(items);
+    }
+    
+    List<AuctionItem> inState(AuctionState state) {
+        return new ArrayList<>(byState.get(state));
+    }
+    
+    /**
+     * All active auctions, soonest ending first
+     */
+    List<AuctionItem> activeByEndTime() {
+        return new ArrayList<>(activeByEndTime.values());
+    }
+    
+    /**
+     * Up to limit active auctions ordered strictly after the cursor
+     * (from the start when the cursor is null)
+     */
+    AuctionPage activePage(AuctionPage.Cursor after, int limit) {
+        ConcurrentNavigableMap<AuctionPage.Cursor, AuctionItem> tail =
+            after == null ? activeByEndTime : activeByEndTime.tailMap(after, false);
+        List<AuctionItem> items = new ArrayList<>(Math.min(limit, 256));
+        AuctionPage.Cursor last = null;
+        for (Map.Entry<AuctionPage.Cursor, AuctionItem> entry : tail.entrySet()) {
+            if (items.size() == limit) {
+                return new AuctionPage(items, last);
+            }
+            items.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new AuctionPage(items, null);
+    }
+    
+    /**
+     * Resolve an ID prefix with a range scan over the sorted IDs,
+     * reading at most maxCandidates entries
+     */
+    IdPrefixResult findByIdPrefix(String prefix, int maxCandidates) {
+        if (prefix.isEmpty()) {
+            return new IdPrefixResult(PrefixMatch.MISSING, Collections.emptyList());
+        }
+        List<AuctionItem> candidates = new ArrayList<>(2);
+        for (AuctionItem item : byId.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (candidates.size() == Math.max(2, maxCandidates)) {
+                break;
+            }
+            candidates.add(item);
+        }
+        if (candidates.isEmpty()) {
+            return new IdPrefixResult(PrefixMatch.MISSING, candidates);
+        }
+        if (candidates.size() == 1) {
+            return new IdPrefixResult(PrefixMatch.UNIQUE, candidates);
+        }
+        return new IdPrefixResult(PrefixMatch.AMBIGUOUS, candidates);
+    }
+    
+    int countInState(AuctionState state) {
+        return byState.get(state).size();
+    }
+}
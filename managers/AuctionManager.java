@@ -1,35 +1,118 @@
 package com.auction.managers;
 import com.auction.enums.AuctionState;
+import com.auction.enums.BidStatus;
 
 import com.auction.enums.ItemCategory;
+import com.auction.enums.PrefixMatch;
 import com.auction.enums.UserRole;
+import com.auction.logging.AuctionLogger;
 import com.auction.models.*;
+import com.auction.observers.BidEventDispatcher;
+import com.auction.util.ClockSource;
+import com.auction.util.Clocks;
+import com.auction.util.Ids;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Singleton class managing all auctions and users in the system
  * Thread-safe implementation using double-checked locking
+ *
+ * Auctions are partitioned into AuctionShards by item ID (set the shard
+ * count with -Dauction.shards, default one per available processor). Each
+ * shard owns its auctions, indexes, statistics and close timer; this class
+ * routes single-auction calls to the owning shard and merges results for
+ * queries across shards. Each shard keeps its own part of the per-user bid
+ * index. Users and text search stay global.
+ *
+ * Bids are applied on the calling thread with the auctions' lock-free
+ * compare-and-set. With -Dauction.shards.singleWriter=true each shard's
+ * writer thread applies all bids on its auctions instead, so an auction
+ * never sees contending bidders.
  */
 public class AuctionManager {
     private static volatile AuctionManager instance;
     
-    private Map<String, AuctionItem> auctions;
+    /**
+     * Auction close accuracy; override with -Dauction.closeTimer.tickMillis
+     */
+    private static final long DEFAULT_CLOSE_TICK_MILLIS = 100;
+    
+    /**
+     * Archived sales covered by printStatistics, in weekly buckets
+     */
+    private static final long SALES_REPORT_MILLIS = TimeUnit.DAYS.toMillis(28);
+    private static final long SALES_BUCKET_MILLIS = TimeUnit.DAYS.toMillis(7);
+    
+    private static final Comparator<AuctionItem> BY_END_TIME =
+        Comparator.comparingLong(AuctionItem::getEndTimeMillis).thenComparing(AuctionItem::getItemId);
+    
+    private final AuctionShard[] shards;
+    private final boolean singleWriter;
     private Map<String, User> users;
-    private ScheduledExecutorService scheduler;
-    private Map<String, ScheduledFuture<?>> scheduledTasks;
+    private ConcurrentMap<String, User> usersByName;
+    private SearchIndex searchIndex;
+    private AuctionStatistics userStatistics;
+    private volatile EventJournal journal;
+    private volatile SnapshotWriter snapshotWriter;
+    private volatile AuctionArchive archive;
+    private ScheduledExecutorService archiver;
+    private final Object archiveLock = new Object(); // one archiving pass at a time
+    private volatile ClockSource clock;
+    private final ClockSource managerClock = this::currentMillis; // follows setClockSource
     
     /**
      * Private constructor for Singleton pattern
      */
     private AuctionManager() {
-        auctions = new ConcurrentHashMap<>();
+        this(Clocks.getSource(),
+             Math.max(1, Integer.getInteger("auction.shards", Runtime.getRuntime().availableProcessors())),
+             Long.getLong("auction.closeTimer.tickMillis", DEFAULT_CLOSE_TICK_MILLIS),
+             Boolean.getBoolean("auction.shards.singleWriter"));
+    }
+    
+    /**
+     * A manager outside the singleton, reading the time from the given
+     * clock for end times, close timers, archive ages and snapshots
+     */
+    AuctionManager(ClockSource clock, int shardCount, long closeTickMillis) {
+        this(clock, shardCount, closeTickMillis, false);
+    }
+    
+    /**
+     * As above; with singleWriter, bids run on the owning shard's writer thread
+     */
+    AuctionManager(ClockSource clock, int shardCount, long closeTickMillis, boolean singleWriter) {
+        this.clock = clock;
+        this.singleWriter = singleWriter;
         users = new ConcurrentHashMap<>();
-        scheduler = Executors.newScheduledThreadPool(10);
-        scheduledTasks = new ConcurrentHashMap<>();
+        usersByName = new ConcurrentHashMap<>();
+        searchIndex = new SearchIndex();
+        userStatistics = new AuctionStatistics();
+        
+        // Shards and their auctions read the manager's clock, so setClockSource reaches them too
+        shards = new AuctionShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new AuctionShard(i, closeTickMillis, managerClock, singleWriter);
+        }
+    }
+    
+    /**
+     * The shard owning an auction ID
+     */
+    private AuctionShard shardFor(String itemId) {
+        return shards.length == 1 ? shards[0] : shards[Math.floorMod(itemId.hashCode(), shards.length)];
+    }
+    
+    /**
+     * Number of auction shards
+     */
+    public int getShardCount() {
+        return shards.length;
     }
     
     /**
@@ -46,25 +129,276 @@ public class AuctionManager {
         return instance;
     }
     
+    // ==================== CLOCK ====================
+    
+    /**
+     * Replace the clock used for end times, close timers, archive ages,
+     * snapshots, bid timestamps and journal stamps, e.g. a CachedClockSource
+     * for coarse, allocation-free time reads. The shared Clocks source is
+     * replaced as well, for code outside the manager.
+     */
+    public void setClockSource(ClockSource clockSource) {
+        clock = clockSource;
+        Clocks.setSource(clockSource);
+    }
+    
+    /**
+     * The manager's clock; it keeps following later setClockSource calls,
+     * so hand this to anything that should share the manager's time
+     */
+    public ClockSource getClockSource() {
+        return managerClock;
+    }
+    
+    private long currentMillis() {
+        return clock.millis();
+    }
+    
+    // ==================== PERSISTENCE ====================
+    
+    /**
+     * Write every registration, new auction, accepted bid and close to the
+     * journal from now on. The manager closes the journal on shutdown.
+     */
+    public void attachJournal(EventJournal journal) {
+        this.journal = journal;
+        for (AuctionShard shard : shards) {
+            shard.setJournal(journal);
+        }
+    }
+    
+    /**
+     * The attached event journal, or null if events are not persisted
+     */
+    public EventJournal getJournal() {
+        return journal;
+    }
+    
+    /**
+     * Install users and auctions rebuilt by recovery. Must be called on an
+     * empty manager before it is used. Each shard indexes its auctions on
+     * its own writer thread, so large restores are spread across shards.
+     * Close timers are not armed until armCloseTimers().
+     */
+    public void restoreState(Collection<User> restoredUsers, Collection<AuctionItem> restoredAuctions) {
+        if (!users.isEmpty() || !getLiveAuctions().isEmpty()) {
+            throw new IllegalStateException("State can only be restored into an empty manager");
+        }
+        for (User user : restoredUsers) {
+            if (usersByName.putIfAbsent(usernameKey(user.getUsername()), user) != null) {
+                AuctionLogger.warn("⚠️  Recovery: skipping duplicate username '%s'", user.getUsername());
+                continue;
+            }
+            users.put(user.getUserId(), user);
+            userStatistics.userRegistered(user.getRole());
+        }
+        
+        Map<AuctionShard, List<AuctionItem>> byShard = new LinkedHashMap<>();
+        for (AuctionItem item : restoredAuctions) {
+            searchIndex.add(item);
+            byShard.computeIfAbsent(shardFor(item.getItemId()), k -> new ArrayList<>()).add(item);
+        }
+        List<Future<?>> parts = new ArrayList<>(byShard.size());
+        byShard.forEach((shard, items) -> parts.add(shard.submit(() -> shard.restore(items))));
+        for (Future<?> part : parts) {
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while restoring auctions", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Restoring auctions failed", e.getCause());
+            }
+        }
+        
+        // My Bids entries for auctions that were already archived
+        AuctionArchive a = archive;
+        if (a != null) {
+            restoreArchivedBids(a.getBidColumns());
+        }
+    }
+    
+    /**
+     * Record every archived bid in the per-user index. The columns hold each
+     * auction's bids together and in history order, so positions are counted.
+     */
+    private void restoreArchivedBids(BidColumnStore columns) {
+        BidColumnStore.Scan scan = columns.scan(Long.MIN_VALUE, Long.MAX_VALUE, null);
+        String itemId = null;
+        int position = 0;
+        while (scan.next()) {
+            String auctionId = scan.auctionId();
+            if (!auctionId.equals(itemId)) {
+                itemId = auctionId;
+                position = 0;
+            }
+            shardFor(itemId).userBidIndex().record(scan.bidderId(), itemId, position++);
+        }
+    }
+    
+    /**
+     * Schedule the end of every active auction from its persisted end time;
+     * those already past it close straight away. Timers already armed move
+     * to the end time as the clock now sees it. Returns the number newly armed.
+     */
+    public int armCloseTimers() {
+        int armed = 0;
+        for (AuctionShard shard : shards) {
+            armed += shard.armCloseTimers();
+        }
+        return armed;
+    }
+    
+    /**
+     * Capture users and auctions together with the journal position they
+     * reflect. The sequence is read first, so every event up to it is
+     * already applied; later events replayed on top are skipped if the
+     * capture already saw them.
+     */
+    public StateSnapshot captureSnapshot() {
+        EventJournal j = journal;
+        long sequence = j == null ? 0 : j.getLastSequence();
+        return new StateSnapshot(sequence, currentMillis(), getAllUsers(), getLiveAuctions());
+    }
+    
+    /**
+     * Save snapshots through this writer from now on. The manager stops it
+     * on shutdown.
+     */
+    public void attachSnapshotWriter(SnapshotWriter writer) {
+        this.snapshotWriter = writer;
+    }
+    
+    /**
+     * Keep closed auctions in this archive once they are moved out of memory.
+     * Archived auctions are still found by getAuction and listed by
+     * getAllAuctions and the state, category and seller queries. Call before
+     * recovery so archived auctions are not restored into memory. The
+     * manager closes the archive on shutdown.
+     */
+    public void attachArchive(AuctionArchive archive) {
+        this.archive = archive;
+    }
+    
+    /**
+     * The attached auction archive, or null if closed auctions stay in memory
+     */
+    public AuctionArchive getArchive() {
+        return archive;
+    }
+    
+    /**
+     * Check periodically for auctions that ended more than graceMillis ago
+     * and move them to the attached archive
+     */
+    public synchronized void startArchiving(long graceMillis) {
+        if (archive == null || archiver != null) {
+            return;
+        }
+        long period = Math.max(1000, Math.min(graceMillis, 60_000));
+        archiver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "auction-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        archiver.scheduleWithFixedDelay(() -> archiveClosedAuctions(graceMillis),
+                                        period, period, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Move every auction that closed and ended more than graceMillis ago to
+     * the archive now. The archive is written on the calling thread and made
+     * durable before the moved auctions leave their shard, so a crash in
+     * between leaves an auction in both places and recovery keeps the
+     * archived copy. Only the removal runs on the shard's writer thread.
+     * Returns the number moved.
+     */
+    public int archiveClosedAuctions(long graceMillis) {
+        AuctionArchive a = archive;
+        if (a == null) {
+            return 0;
+        }
+        long endedBefore = currentMillis() - graceMillis;
+        int moved = 0;
+        synchronized (archiveLock) {
+            for (AuctionShard shard : shards) {
+                List<AuctionItem> due = shard.closedBefore(endedBefore);
+                if (due.isEmpty()) {
+                    continue;
+                }
+                try {
+                    a.archive(due);
+                    shard.submit(() -> due.forEach(item -> shard.remove(item.getItemId()))).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return moved;
+                } catch (IOException | ExecutionException e) {
+                    AuctionLogger.error("❌ Archiving closed auctions failed: %s", e);
+                    continue;
+                }
+                for (AuctionItem item : due) {
+                    // Drop the remaining reference so the auction can be collected;
+                    // bidders' My Bids entries are kept by ID and resolve through the archive
+                    searchIndex.remove(item);
+                }
+                moved += due.size();
+            }
+        }
+        if (moved > 0) {
+            AuctionLogger.info("🗄️  Archived %d closed auction(s)", moved);
+        }
+        return moved;
+    }
+    
+    /**
+     * Save a snapshot now: incrementally through the attached writer, or a
+     * full capture to the given file if there is none
+     */
+    public boolean saveSnapshot(Path file) {
+        SnapshotWriter writer = snapshotWriter;
+        if (writer == null) {
+            return FileManager.saveSnapshot(captureSnapshot(), file);
+        }
+        try {
+            writer.writeSnapshot();
+            return true;
+        } catch (IOException e) {
+            AuctionLogger.error("❌ Error saving snapshot: %s", e.getMessage());
+            return false;
+        }
+    }
+    
     // ==================== USER MANAGEMENT ====================
     
+    /**
+     * Usernames are unique ignoring case; this is the key in usersByName
+     */
+    private static String usernameKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+    
     /**
      * Register a new user
      */
     public boolean registerUser(String username, String password, String email, UserRole role) {
-        // Check if username already exists
-        if (users.values().stream().anyMatch(u -> u.getUsername().equalsIgnoreCase(username))) {
-            System.out.println("❌ Registration failed: Username '" + username + "' already exists");
-            return false;
-        }
-        
         // Create user based on role
         User newUser = (role == UserRole.ADMIN) 
             ? new Admin(username, password, email)
             : new User(username, password, email, role);
         
+        // Claim the username atomically so concurrent registrations cannot both succeed
+        if (usersByName.putIfAbsent(usernameKey(username), newUser) != null) {
+            AuctionLogger.warn("❌ Registration failed: Username '%s' already exists", username);
+            return false;
+        }
+        
         users.put(newUser.getUserId(), newUser);
-        System.out.println("✅ User registered successfully: " + username + " (" + role + ")");
+        userStatistics.userRegistered(role);
+        EventJournal j = journal;
+        if (j != null) {
+            j.userRegistered(newUser);
+        }
+        AuctionLogger.info("✅ User registered successfully: %s (%s)", username, role);
         return true;
     }
     
@@ -72,16 +406,14 @@ public class AuctionManager {
      * Login user with username and password
      */
     public User login(String username, String password) {
-        Optional<User> userOpt = users.values().stream()
-            .filter(u -> u.getUsername().equalsIgnoreCase(username))
-            .findFirst();
+        User user = username == null ? null : usersByName.get(usernameKey(username));
         
-        if (userOpt.isPresent() && userOpt.get().verifyPassword(password)) {
-            System.out.println("✅ Login successful: " + username);
-            return userOpt.get();
+        if (user != null && user.verifyPassword(password)) {
+            AuctionLogger.info("✅ Login successful: %s", username);
+            return user;
         }
         
-        System.out.println("❌ Login failed: Invalid username or password");
+        AuctionLogger.warn("❌ Login failed: Invalid username or password");
         return null;
     }
     
@@ -99,65 +431,55 @@ public class AuctionManager {
         return users.get(userId);
     }
     
+    /**
+     * Get user by username, ignoring case
+     */
+    public User getUserByUsername(String username) {
+        return usersByName.get(usernameKey(username));
+    }
+    
     // ==================== AUCTION MANAGEMENT ====================
     
     /**
-     * Create a new auction
+     * Create a new auction (prices in cents)
      */
-    public String createAuction(String title, String description, double startingPrice,
-                               double reservePrice, User seller, ItemCategory category,
+    public String createAuction(String title, String description, long startingPrice,
+                               long reservePrice, User seller, ItemCategory category,
                                int durationMinutes) {
         
         // Validate inputs
         if (startingPrice < 0 || reservePrice < 0) {
-            System.out.println("❌ Invalid prices");
+            AuctionLogger.warn("❌ Invalid prices");
             return null;
         }
         
         if (durationMinutes <= 0) {
-            System.out.println("❌ Invalid duration");
+            AuctionLogger.warn("❌ Invalid duration");
             return null;
         }
         
-        LocalDateTime endTime = LocalDateTime.now().plusMinutes(durationMinutes);
+        long endTime = currentMillis() + TimeUnit.MINUTES.toMillis(durationMinutes);
         AuctionItem item = new AuctionItem(title, description, startingPrice,
-                                          reservePrice, seller, category, endTime);
+                                          reservePrice, seller, category, endTime, managerClock);
         
-        auctions.put(item.getItemId(), item);
+        // The owning shard journals and starts the auction and schedules its end
+        searchIndex.add(item);
+        shardFor(item.getItemId()).add(item);
         
-        // Start auction immediately
-        item.startAuction();
-        
-        // Schedule auction end
-        scheduleAuctionEnd(item, durationMinutes);
-        
-        System.out.printf("✅ Auction created: '%s' (Duration: %d minutes)\n", title, durationMinutes);
+        AuctionLogger.info("✅ Auction created: '%s' (Duration: %d minutes)", title, durationMinutes);
         return item.getItemId();
     }
     
-    /**
-     * Schedule automatic auction end
-     */
-    private void scheduleAuctionEnd(AuctionItem item, int durationMinutes) {
-        ScheduledFuture<?> future = scheduler.schedule(() -> {
-            System.out.println("\n⏰ Timer expired for auction: " + item.getTitle());
-            item.endAuction();
-            scheduledTasks.remove(item.getItemId());
-        }, durationMinutes, TimeUnit.MINUTES);
-        
-        scheduledTasks.put(item.getItemId(), future);
-    }
-    
     /**
      * Remove an auction (admin only)
      */
     public boolean removeAuction(String itemId) {
-        AuctionItem item = auctions.remove(itemId);
+        AuctionItem item = shardFor(itemId).remove(itemId);
         if (item != null) {
-            // Cancel scheduled task
-            ScheduledFuture<?> task = scheduledTasks.remove(itemId);
-            if (task != null) {
-                task.cancel(false);
+            searchIndex.remove(item);
+            EventJournal j = journal;
+            if (j != null) {
+                j.auctionRemoved(itemId);
             }
             
             // End auction if still active
@@ -165,104 +487,456 @@ public class AuctionManager {
                 item.endAuction();
             }
             
-            System.out.println("✅ Auction removed: " + item.getTitle());
+            AuctionLogger.info("✅ Auction removed: %s", item.getTitle());
             return true;
         }
-        return false;
+        return removeArchivedAuction(itemId);
     }
     
     /**
-     * Get all auctions
+     * Delete an auction from the archive, if there is one
+     */
+    private boolean removeArchivedAuction(String itemId) {
+        AuctionArchive a = archive;
+        if (a == null) {
+            return false;
+        }
+        try {
+            if (!a.remove(itemId)) {
+                return false;
+            }
+        } catch (IOException e) {
+            AuctionLogger.error("❌ Error removing archived auction %s: %s", itemId, e.getMessage());
+            return false;
+        }
+        EventJournal j = journal;
+        if (j != null) {
+            j.auctionRemoved(itemId);
+        }
+        AuctionLogger.info("✅ Archived auction removed: %s", itemId);
+        return true;
+    }
+    
+    /**
+     * Get all auctions. Archived auctions come after live ones and are
+     * read from the archive as the list is accessed.
      */
     public List<AuctionItem> getAllAuctions() {
-        return new ArrayList<>(auctions.values());
+        AuctionArchive a = archive;
+        List<AuctionItem> live = getLiveAuctions();
+        return a == null ? live : a.join(live, a.ids());
     }
     
     /**
-     * Get active auctions only
+     * Walk all auctions without collecting them: live ones shard by shard,
+     * then archived ones read one at a time, for exports. Auctions created
+     * or archived during the walk may be skipped.
+     */
+    public Iterator<AuctionItem> iterateAllAuctions() {
+        Stream<AuctionItem> live = Arrays.stream(shards).flatMap(shard -> shard.all().stream());
+        AuctionArchive a = archive;
+        if (a == null) {
+            return live.iterator();
+        }
+        return Stream.concat(live, a.ids().stream().map(a::get).filter(Objects::nonNull)).iterator();
+    }
+    
+    /**
+     * Auctions held in memory: everything not yet archived
+     */
+    List<AuctionItem> getLiveAuctions() {
+        List<AuctionItem> all = new ArrayList<>();
+        for (AuctionShard shard : shards) {
+            all.addAll(shard.all());
+        }
+        return all;
+    }
+    
+    /**
+     * Get active auctions only, soonest ending first
      */
     public List<AuctionItem> getActiveAuctions() {
-        return auctions.values().stream()
-            .filter(a -> a.getState() == AuctionState.ACTIVE)
-            .sorted(Comparator.comparing(AuctionItem::getEndTime))
-            .collect(Collectors.toList());
+        if (shards.length == 1) {
+            return shards[0].index().activeByEndTime();
+        }
+        List<AuctionItem> active = new ArrayList<>();
+        for (AuctionShard shard : shards) {
+            active.addAll(shard.index().activeByEndTime());
+        }
+        active.sort(BY_END_TIME);
+        return active;
     }
     
     /**
-     * Search auctions by keyword
+     * Get one page of active auctions, soonest ending first.
+     * Pass null for the first page, then the previous page's next cursor.
+     */
+    public AuctionPage getActiveAuctionsPage(AuctionPage.Cursor after, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        if (shards.length == 1) {
+            return shards[0].index().activePage(after, pageSize);
+        }
+        
+        // Each shard's page is in order; the merged page is the first pageSize of their union
+        List<AuctionItem> merged = new ArrayList<>();
+        boolean more = false;
+        for (AuctionShard shard : shards) {
+            AuctionPage page = shard.index().activePage(after, pageSize);
+            merged.addAll(page.getItems());
+            more |= page.hasMore();
+        }
+        merged.sort(BY_END_TIME);
+        if (merged.size() > pageSize) {
+            merged = new ArrayList<>(merged.subList(0, pageSize));
+            more = true;
+        }
+        AuctionPage.Cursor next = more ? AuctionPage.Cursor.of(merged.get(merged.size() - 1)) : null;
+        return new AuctionPage(merged, next);
+    }
+    
+    /**
+     * Number of live auctions, without building a list
+     */
+    public int getActiveAuctionCount() {
+        int count = 0;
+        for (AuctionShard shard : shards) {
+            count += shard.index().countInState(AuctionState.ACTIVE);
+        }
+        return count;
+    }
+    
+    /**
+     * Get auctions in the given state
+     */
+    public List<AuctionItem> getAuctionsByState(AuctionState state) {
+        List<AuctionItem> result = new ArrayList<>();
+        for (AuctionShard shard : shards) {
+            result.addAll(shard.index().inState(state));
+        }
+        AuctionArchive a = archive;
+        return a == null || state != AuctionState.CLOSED ? result : a.join(result, a.ids());
+    }
+    
+    /**
+     * Search auctions by keyword(s) in title and description.
+     * All words must match; the last word also matches as a prefix.
+     * Results are ordered by relevance.
      */
     public List<AuctionItem> searchAuctions(String keyword) {
-        String lowerKeyword = keyword.toLowerCase();
-        return auctions.values().stream()
-            .filter(a -> a.getTitle().toLowerCase().contains(lowerKeyword) ||
-                        a.getDescription().toLowerCase().contains(lowerKeyword))
-            .collect(Collectors.toList());
+        return searchIndex.search(keyword);
+    }
+    
+    /**
+     * Search auctions one page at a time (pageNumber is zero-based)
+     */
+    public SearchPage searchAuctions(String keyword, int pageNumber, int pageSize) {
+        if (pageNumber < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page: " + pageNumber + " x " + pageSize);
+        }
+        return searchIndex.search(keyword, pageNumber, pageSize);
     }
     
     /**
      * Get auctions by category
      */
     public List<AuctionItem> getAuctionsByCategory(ItemCategory category) {
-        return auctions.values().stream()
-            .filter(a -> a.getCategory() == category)
-            .collect(Collectors.toList());
+        List<AuctionItem> result = new ArrayList<>();
+        for (AuctionShard shard : shards) {
+            result.addAll(shard.index().byCategory(category));
+        }
+        AuctionArchive a = archive;
+        return a == null ? result : a.join(result, a.idsByCategory(category));
     }
     
     /**
      * Get auction by ID
      */
     public AuctionItem getAuction(String itemId) {
-        return auctions.get(itemId);
+        AuctionItem item = shardFor(itemId).get(itemId);
+        if (item == null) {
+            AuctionArchive a = archive;
+            if (a != null) {
+                item = a.get(itemId);
+            }
+        }
+        return item;
+    }
+    
+    /**
+     * Find an auction by the start of its ID, as typed by a user
+     * (case and surrounding spaces are ignored). Reports whether the
+     * prefix is unique, missing or ambiguous; for an ambiguous prefix
+     * up to maxCandidates matches are returned.
+     */
+    public IdPrefixResult findByIdPrefix(String idPrefix, int maxCandidates) {
+        String prefix = Ids.normalize(idPrefix);
+        AuctionArchive a = archive;
+        if (shards.length == 1 && a == null) {
+            return shards[0].index().findByIdPrefix(prefix, maxCandidates);
+        }
+        List<AuctionItem> candidates = new ArrayList<>();
+        for (AuctionShard shard : shards) {
+            candidates.addAll(shard.index().findByIdPrefix(prefix, maxCandidates).getCandidates());
+        }
+        if (a != null) {
+            for (String id : a.idsWithPrefix(prefix, Math.max(2, maxCandidates))) {
+                AuctionItem item = a.get(id);
+                if (item != null) {
+                    candidates.add(item);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new IdPrefixResult(PrefixMatch.MISSING, candidates);
+        }
+        if (candidates.size() == 1) {
+            return new IdPrefixResult(PrefixMatch.UNIQUE, candidates);
+        }
+        candidates.sort(Comparator.comparing(AuctionItem::getItemId));
+        int keep = Math.max(2, maxCandidates);
+        return new IdPrefixResult(PrefixMatch.AMBIGUOUS,
+            candidates.size() > keep ? new ArrayList<>(candidates.subList(0, keep)) : candidates);
     }
     
     /**
      * Get auctions by seller
      */
     public List<AuctionItem> getAuctionsBySeller(User seller) {
-        return auctions.values().stream()
-            .filter(a -> a.getSellerId().equals(seller.getUserId()))
-            .collect(Collectors.toList());
+        List<AuctionItem> result = new ArrayList<>();
+        for (AuctionShard shard : shards) {
+            result.addAll(shard.index().bySeller(seller.getUserId()));
+        }
+        AuctionArchive a = archive;
+        return a == null ? result : a.join(result, a.idsBySeller(seller.getUserId()));
+    }
+    
+    // ==================== BIDDING ====================
+    
+    /**
+     * Place a bid, on the owning shard's writer thread in single-writer
+     * mode. Returns ACCEPTED if the bidder now leads, OUTBID_BY_PROXY if the
+     * bid was placed but answered by another bidder's maximum, or why it
+     * was rejected.
+     */
+    public BidStatus placeBid(String itemId, User bidder, long amount) {
+        return routeBid(itemId, bidder, amount, false);
+    }
+    
+    /**
+     * Set a proxy maximum, on the owning shard's writer thread in
+     * single-writer mode
+     */
+    public BidStatus placeProxyBid(String itemId, User bidder, long maximum) {
+        return routeBid(itemId, bidder, maximum, true);
+    }
+    
+    private BidStatus routeBid(String itemId, User bidder, long amount, boolean proxy) {
+        BidStatus status = shardFor(itemId).placeBid(itemId, bidder, amount, proxy);
+        if (status == BidStatus.AUCTION_NOT_FOUND && getAuction(itemId) != null) {
+            // Archived auctions have closed
+            return BidStatus.AUCTION_NOT_ACTIVE;
+        }
+        return status;
+    }
+    
+    /**
+     * Place a batch of bids. Requests are grouped by auction and each group
+     * is applied in arrival order with one state swap per auction, on the
+     * calling thread. In single-writer mode each shard's part runs on that
+     * shard's writer thread, in parallel when the batch spans several shards.
+     * The result holds one status per request, in submission order.
+     */
+    public BatchBidResult placeBids(Collection<BidRequest> requests) {
+        List<BidRequest> ordered = new ArrayList<>(requests);
+        BidStatus[] statuses = new BidStatus[ordered.size()];
+        
+        Map<AuctionShard, List<Integer>> byShard = new LinkedHashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            byShard.computeIfAbsent(shardFor(ordered.get(i).getAuctionId()), k -> new ArrayList<>()).add(i);
+        }
+        
+        if (!singleWriter) {
+            byShard.forEach((shard, positions) -> shard.placeBids(ordered, positions, statuses));
+            return new BatchBidResult(ordered, statuses);
+        }
+        
+        List<Future<?>> parts = new ArrayList<>(byShard.size());
+        byShard.forEach((shard, positions) ->
+            parts.add(shard.submit(() -> shard.placeBids(ordered, positions, statuses))));
+        for (Future<?> part : parts) {
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while placing bids", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Bid batch failed", e.getCause());
+            }
+        }
+        
+        // Future.get() orders the writers' status writes before this read
+        return new BatchBidResult(ordered, statuses);
+    }
+    
+    /**
+     * Get a user's bids grouped by auction, in the order the user first bid
+     * on each auction; each group is oldest first. Removed auctions are skipped.
+     */
+    public Map<AuctionItem, List<Bid>> getBidsByUser(User user) {
+        List<Map.Entry<AuctionItem, List<Bid>>> groups = new ArrayList<>();
+        for (AuctionShard shard : shards) {
+            UserBidIndex userBids = shard.userBidIndex();
+            for (Map.Entry<String, int[]> entry : userBids.positionsOf(user.getUserId()).entrySet()) {
+                // Live or archived; the archive hands back a freshly decoded copy
+                AuctionItem item = getAuction(entry.getKey());
+                if (item == null) {
+                    userBids.forget(user.getUserId(), entry.getKey());
+                    continue;
+                }
+                List<Bid> history = item.getBidHistory();
+                List<Bid> bids = new ArrayList<>(entry.getValue().length);
+                for (int position : entry.getValue()) {
+                    // Skip a bid whose earlier neighbours are still being written
+                    if (position < history.size()) {
+                        bids.add(history.get(position));
+                    }
+                }
+                if (!bids.isEmpty()) {
+                    groups.add(new AbstractMap.SimpleImmutableEntry<>(item, bids));
+                }
+            }
+        }
+        if (shards.length > 1) {
+            // Interleave the shards' groups by the user's first bid in each
+            groups.sort(Comparator.comparingLong(group -> group.getValue().get(0).getTimestampMillis()));
+        }
+        Map<AuctionItem, List<Bid>> result = new LinkedHashMap<>();
+        for (Map.Entry<AuctionItem, List<Bid>> group : groups) {
+            result.put(group.getKey(), group.getValue());
+        }
+        return result;
     }
     
     // ==================== SYSTEM MANAGEMENT ====================
     
     /**
-     * Shutdown the scheduler gracefully
+     * Shutdown the shards and close the journal gracefully
      */
     public void shutdown() {
-        System.out.println("\nShutting down auction system...");
+        AuctionLogger.info("\nShutting down auction system...");
         
-        // End all active auctions
-        auctions.values().stream()
-            .filter(a -> a.getState() == AuctionState.ACTIVE)
-            .forEach(AuctionItem::endAuction);
+        // End all active auctions, unless the journal lets them resume on the next start
+        EventJournal j = journal;
+        if (j == null) {
+            for (AuctionShard shard : shards) {
+                shard.endActiveAuctions();
+            }
+        } else {
+            AuctionLogger.info("Active auctions stay open and resume on the next start.");
+        }
         
-        // Shutdown scheduler
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
+        // Deliver the resulting notifications before stopping
+        BidEventDispatcher.getInstance().shutdown();
+        
+        // Let an archiving pass in progress finish
+        synchronized (this) {
+            if (archiver != null) {
+                archiver.shutdown();
+                try {
+                    archiver.awaitTermination(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
         }
         
-        System.out.println("Auction system shutdown complete.");
+        // Let a background snapshot in progress finish
+        SnapshotWriter writer = snapshotWriter;
+        if (writer != null) {
+            writer.close();
+        }
+        
+        // Stop close timers and writer threads
+        for (AuctionShard shard : shards) {
+            shard.shutdown();
+        }
+        
+        // Force any queued events to disk
+        if (j != null) {
+            j.close();
+        }
+        AuctionArchive a = archive;
+        if (a != null) {
+            a.close();
+        }
+        
+        AuctionLogger.info("Auction system shutdown complete.");
+        AuctionLogger.flush();
     }
     
     /**
-     * Get system statistics
+     * Get a snapshot of the live system counters (no scanning)
+     */
+    public AuctionStatistics.Snapshot getStatistics() {
+        List<AuctionStatistics> parts = new ArrayList<>(shards.length + 2);
+        parts.add(userStatistics);
+        for (AuctionShard shard : shards) {
+            parts.add(shard.statistics());
+        }
+        AuctionArchive a = archive;
+        if (a != null) {
+            parts.add(a.statistics());
+        }
+        return AuctionStatistics.combine(parts, currentMillis());
+    }
+    
+    /**
+     * Revenue of archived auctions whose last bid falls in [fromMillis, toMillis),
+     * scanned from the archive's bid columns; 0 without an archive
+     */
+    public long getArchivedRevenue(long fromMillis, long toMillis) {
+        AuctionArchive a = archive;
+        return a == null ? 0 : a.getBidColumns().revenue(fromMillis, toMillis);
+    }
+    
+    /**
+     * Archived bid prices in [fromMillis, toMillis) per bucket, scanned from
+     * the archive's bid columns; empty without an archive
+     */
+    public List<BidColumnStore.PricePoint> getArchivedPriceTrend(long fromMillis, long toMillis, long bucketMillis) {
+        AuctionArchive a = archive;
+        return a == null ? Collections.emptyList()
+                         : a.getBidColumns().priceTrend(fromMillis, toMillis, bucketMillis, null);
+    }
+    
+    /**
+     * Get system statistics, plus recent archived sales if there is an archive
      */
     public void printStatistics() {
+        AuctionLogger.flush();
+        AuctionStatistics.Snapshot stats = getStatistics();
         System.out.println("\n=== SYSTEM STATISTICS ===");
-        System.out.println("Total Users: " + users.size());
-        System.out.println("Total Auctions: " + auctions.size());
-        System.out.println("Active Auctions: " + getActiveAuctions().size());
+        System.out.println("Total Users: " + stats.getTotalUsers());
+        System.out.println("Total Auctions: " + stats.getTotalAuctions());
+        System.out.println("Active Auctions: " + stats.getAuctionCount(AuctionState.ACTIVE));
+        System.out.println("Total Bids Placed: " + stats.getTotalBids());
+        System.out.printf("Reserve Met: %d | Sold: %d | Revenue: %s\n",
+            stats.getReserveMetCount(), stats.getSoldCount(), Money.format(stats.getRevenue()));
         
-        long totalBids = auctions.values().stream()
-            .mapToLong(a -> a.getBidHistory().size())
-            .sum();
-        System.out.println("Total Bids Placed: " + totalBids);
+        if (archive == null) {
+            return;
+        }
+        long to = currentMillis();
+        long from = to - SALES_REPORT_MILLIS;
+        System.out.printf("Archived Revenue (last %d days): %s\n",
+            TimeUnit.MILLISECONDS.toDays(SALES_REPORT_MILLIS), Money.format(getArchivedRevenue(from, to)));
+        for (BidColumnStore.PricePoint point : getArchivedPriceTrend(from, to, SALES_BUCKET_MILLIS)) {
+            System.out.printf("  Week of %s: %d bids, avg %s (%s - %s)\n",
+                Clocks.toLocalDateTime(point.getBucketStartMillis()).toLocalDate(), point.getBidCount(),
+                Money.format(point.getAverageAmount()), Money.format(point.getMinAmount()),
+                Money.format(point.getMaxAmount()));
+        }
     }
 }
@@ -0,0 +1,86 @@
+package com.auction.managers;
+
+import com.auction.models.AuctionItem;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of active auctions in end-time order, with a cursor for the next page
+ */
+public class AuctionPage {
+    private final List<AuctionItem> items;
+    private final Cursor nextCursor;
+    
+    AuctionPage(List<AuctionItem> items, Cursor nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<AuctionItem> getItems() {
+        return items;
+    }
+    
+    /**
+     * Cursor for the following page, or null if this is the last page
+     */
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+    
+    /**
+     * Position in the (end time, item ID) order. A page continues strictly
+     * after it, so it stays valid when the auction it names closes.
+     */
+    public static final class Cursor implements Comparable<Cursor> {
+        private final long endTimeMillis;
+        private final String itemId;
+        
+        public Cursor(long endTimeMillis, String itemId) {
+            this.endTimeMillis = endTimeMillis;
+            this.itemId = itemId;
+        }
+        
+        /**
+         * Cursor positioned before every auction ending after the given time
+         */
+        public static Cursor endingAfter(long endTimeMillis) {
+            return new Cursor(endTimeMillis, "\uffff");
+        }
+        
+        static Cursor of(AuctionItem item) {
+            return new Cursor(item.getEndTimeMillis(), item.getItemId());
+        }
+        
+        public long getEndTimeMillis() {
+            return endTimeMillis;
+        }
+        
+        public String getItemId() {
+            return itemId;
+        }
+        
+        @Override
+        public int compareTo(Cursor other) {
+            int byTime = Long.compare(endTimeMillis, other.endTimeMillis);
+            return byTime != 0 ? byTime : itemId.compareTo(other.itemId);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Cursor)) return false;
+            Cursor other = (Cursor) o;
+            return endTimeMillis == other.endTimeMillis && itemId.equals(other.itemId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Long.hashCode(endTimeMillis) * 31 + itemId.hashCode();
+        }
+    }
+}
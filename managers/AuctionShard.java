@@ -0,0 +1,409 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.BidStatus;
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.models.Bid;
+import com.auction.models.BidHistory;
+import com.auction.models.BidRequest;
+import com.auction.models.User;
+import com.auction.observers.AuctionLifecycleListener;
+import com.auction.util.ClockSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One partition of the auction engine. Owns the auctions whose IDs hash to
+ * it, together with their indexes, statistics and close timer, so work on
+ * auctions in different shards never touches the same structures.
+ *
+ * Bids are applied on the calling thread through each auction's lock-free
+ * compare-and-set, and only touch the shard's own indexes, statistics and
+ * per-user bid index. Each shard also has a writer thread that runs its
+ * auction closes and restores; in single-writer mode it runs every bid on
+ * the shard's auctions too, single or batched.
+ */
+class AuctionShard {
+    private final int shardId;
+    private final Map<String, AuctionItem> auctions;
+    private final AuctionStatistics statistics;
+    private final AuctionIndex index;
+    private final UserBidIndex userBidIndex;
+    private final AuctionLifecycleListener lifecycleListener;
+    private final ExecutorService writer;
+    private final TimingWheel closeTimer;
+    private final Map<String, CloseTask> scheduledTasks;
+    private final ClockSource clock;
+    private final boolean singleWriter;
+    private volatile EventJournal journal;
+    private volatile Thread writerThread;
+    
+    /**
+     * The clock gives the current time for close timers; with singleWriter,
+     * placeBid runs bids on the writer thread
+     */
+    AuctionShard(int shardId, long closeTickMillis, ClockSource clock, boolean singleWriter) {
+        this.shardId = shardId;
+        this.clock = clock;
+        this.singleWriter = singleWriter;
+        this.auctions = new ConcurrentHashMap<>();
+        this.statistics = new AuctionStatistics();
+        this.index = new AuctionIndex(statistics);
+        this.userBidIndex = new UserBidIndex();
+        this.lifecycleListener = new IndexUpdater();
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "auction-shard-" + shardId);
+            t.setDaemon(true);
+            writerThread = t;
+            return t;
+        });
+        this.closeTimer = new TimingWheel(closeTickMillis, writer, "auction-close-ticker-" + shardId);
+        this.scheduledTasks = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Keeps the shard's indexes in step with auction state changes and bids
+     */
+    private class IndexUpdater implements AuctionLifecycleListener {
+        @Override
+        public void onStateChanged(AuctionItem item, AuctionState from, AuctionState to) {
+            index.stateChanged(item, from, to);
+            EventJournal j = journal;
+            if (j != null && to == AuctionState.CLOSED) {
+                j.auctionClosed(item);
+            }
+        }
+        
+        @Override
+        public void onBidRecorded(AuctionItem item, int position, Bid bid) {
+            EventJournal j = journal;
+            if (j != null) {
+                j.bidAccepted(item, position, bid);
+            }
+            userBidIndex.record(bid.getBidderId(), item.getItemId(), position);
+            statistics.bidRecorded();
+        }
+        
+        @Override
+        public void onReserveMet(AuctionItem item) {
+            index.reserveMet(item);
+        }
+        
+        @Override
+        public void onProxyMaximum(AuctionItem item, String leaderId, long maximum) {
+            EventJournal j = journal;
+            if (j != null) {
+                j.proxyMaximum(item, leaderId, maximum);
+            }
+        }
+    }
+    
+    /**
+     * Journal this shard's bids and closes from now on (null to stop)
+     */
+    void setJournal(EventJournal journal) {
+        this.journal = journal;
+    }
+    
+    // ==================== AUCTIONS ====================
+    
+    /**
+     * Take ownership of a new auction, start it and arm its close timer
+     */
+    void add(AuctionItem item) {
+        auctions.put(item.getItemId(), item);
+        index.add(item);
+        item.setLifecycleListener(lifecycleListener);
+        item.setClockSource(clock);
+        
+        // Journal the auction once it is stored but before it can take bids
+        EventJournal j = journal;
+        if (j != null) {
+            j.auctionCreated(item);
+        }
+        
+        // Start auction immediately
+        item.startAuction();
+        
+        // Schedule auction end
+        scheduleAuctionEnd(item);
+    }
+    
+    /**
+     * Take ownership of auctions rebuilt by recovery. Their bids are counted
+     * and indexed by bidder here; close timers are armed separately by
+     * armCloseTimers once every shard is populated.
+     */
+    void restore(List<AuctionItem> items) {
+        for (AuctionItem item : items) {
+            auctions.put(item.getItemId(), item);
+            index.add(item);
+            
+            BidHistory.Cursor cursor = item.getBidCursor();
+            int bids = 0;
+            while (cursor.next()) {
+                userBidIndex.record(cursor.bidderId(), item.getItemId(), cursor.position());
+                bids++;
+            }
+            statistics.bidsRestored(bids);
+            
+            item.setLifecycleListener(lifecycleListener);
+            item.setClockSource(clock);
+            // Saved between creation and start
+            item.startAuction();
+        }
+    }
+    
+    /**
+     * Schedule the end of every active auction that has no timer yet, and
+     * move existing timers to the end time as the clock now sees it;
+     * auctions already past their end time close on the next tick.
+     * Returns the number of timers newly armed.
+     */
+    int armCloseTimers() {
+        int armed = 0;
+        for (AuctionItem item : index.inState(AuctionState.ACTIVE)) {
+            CloseTask task = scheduledTasks.get(item.getItemId());
+            if (task == null) {
+                scheduleAuctionEnd(item);
+                armed++;
+            } else {
+                task.reschedule();
+            }
+        }
+        return armed;
+    }
+    
+    /**
+     * Schedule automatic auction end. The task is registered before its
+     * timeout is placed, so a timeout that is already due cannot fire and
+     * clear the entry before it exists.
+     */
+    private void scheduleAuctionEnd(AuctionItem item) {
+        CloseTask task = new CloseTask(item);
+        scheduledTasks.put(item.getItemId(), task);
+        task.timeout = closeTimer.schedule(task, item.getEndTimeMillis() - clock.millis());
+    }
+    
+    /**
+     * Close timer entry for one auction; only removes its own map entry.
+     * The wheel counts elapsed time while end times follow the clock, so a
+     * timer that fires before the clock reaches the end (the clock was set
+     * back) moves its timeout instead of closing early.
+     */
+    private final class CloseTask implements Runnable {
+        private final AuctionItem item;
+        private volatile TimingWheel.Timeout timeout;
+        private volatile boolean cancelled;
+        
+        CloseTask(AuctionItem item) {
+            this.item = item;
+        }
+        
+        void cancel() {
+            cancelled = true;
+            TimingWheel.Timeout placed = timeout;
+            if (placed != null) {
+                placed.cancel();
+            }
+        }
+        
+        /**
+         * Move the timeout to the end time as the clock now sees it
+         */
+        void reschedule() {
+            TimingWheel.Timeout placed = timeout;
+            if (placed != null) {
+                placed.reschedule(item.getEndTimeMillis() - clock.millis());
+            }
+        }
+        
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            if (item.getState() != AuctionState.ACTIVE) {
+                // Closed some other way, or a timer moved while it was firing
+                scheduledTasks.remove(item.getItemId(), this);
+                return;
+            }
+            long remaining = item.getEndTimeMillis() - clock.millis();
+            TimingWheel.Timeout placed = timeout;
+            if (remaining > 0 && placed != null && placed.reschedule(remaining)) {
+                return;
+            }
+            AuctionLogger.info("\n⏰ Timer expired for auction: %s", item.getTitle());
+            item.endAuction();
+            scheduledTasks.remove(item.getItemId(), this);
+        }
+    }
+    
+    /**
+     * Remove an auction and cancel its timer; returns the removed item or null
+     */
+    AuctionItem remove(String itemId) {
+        AuctionItem item = auctions.remove(itemId);
+        if (item == null) {
+            return null;
+        }
+        // Cancel scheduled task
+        CloseTask task = scheduledTasks.remove(itemId);
+        if (task != null) {
+            task.cancel();
+        }
+        index.remove(item);
+        item.setLifecycleListener(null);
+        return item;
+    }
+    
+    /**
+     * Closed auctions that ended at or before the cutoff, ready to archive
+     */
+    List<AuctionItem> closedBefore(long endedBefore) {
+        List<AuctionItem> due = new ArrayList<>();
+        for (AuctionItem item : index.inState(AuctionState.CLOSED)) {
+            if (item.getEndTimeMillis() <= endedBefore) {
+                due.add(item);
+            }
+        }
+        return due;
+    }
+    
+    AuctionItem get(String itemId) {
+        return auctions.get(itemId);
+    }
+    
+    Collection<AuctionItem> all() {
+        return auctions.values();
+    }
+    
+    AuctionIndex index() {
+        return index;
+    }
+    
+    AuctionStatistics statistics() {
+        return statistics;
+    }
+    
+    UserBidIndex userBidIndex() {
+        return userBidIndex;
+    }
+    
+    // ==================== BIDDING ====================
+    
+    /**
+     * Place one bid, or set a proxy maximum, and return the outcome. Runs
+     * on the calling thread, or on the writer thread in single-writer mode.
+     * Returns AUCTION_NOT_FOUND if this shard does not hold the auction.
+     */
+    BidStatus placeBid(String itemId, User bidder, long amount, boolean proxy) {
+        if (!singleWriter || Thread.currentThread() == writerThread) {
+            // On the writer already, e.g. a close task, queueing would wait on itself
+            return applyBid(itemId, bidder, amount, proxy);
+        }
+        try {
+            return writer.submit(() -> applyBid(itemId, bidder, amount, proxy)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while placing bid", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Bid failed", e.getCause());
+        }
+    }
+    
+    private BidStatus applyBid(String itemId, User bidder, long amount, boolean proxy) {
+        AuctionItem item = auctions.get(itemId);
+        if (item == null) {
+            return BidStatus.AUCTION_NOT_FOUND;
+        }
+        return proxy ? item.placeProxyBid(bidder, amount) : item.placeBid(bidder, amount);
+    }
+    
+    /**
+     * Apply this shard's part of a bid batch: each auction's requests in
+     * arrival order with one state swap per auction
+     */
+    void placeBids(List<BidRequest> ordered, List<Integer> positions, BidStatus[] statuses) {
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int position : positions) {
+            groups.computeIfAbsent(ordered.get(position).getAuctionId(), k -> new ArrayList<>()).add(position);
+        }
+        
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            List<Integer> indexes = group.getValue();
+            AuctionItem item = auctions.get(group.getKey());
+            if (item == null) {
+                for (int index : indexes) {
+                    statuses[index] = BidStatus.AUCTION_NOT_FOUND;
+                }
+                continue;
+            }
+            
+            List<BidRequest> groupRequests = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                groupRequests.add(ordered.get(index));
+            }
+            BidStatus[] groupStatuses = item.placeBids(groupRequests);
+            for (int i = 0; i < indexes.size(); i++) {
+                statuses[indexes.get(i)] = groupStatuses[i];
+            }
+        }
+    }
+    
+    /**
+     * Run a task on this shard's writer thread
+     */
+    Future<?> submit(Runnable task) {
+        return writer.submit(task);
+    }
+    
+    <T> Future<T> submit(Callable<T> task) {
+        return writer.submit(task);
+    }
+    
+    // ==================== SHUTDOWN ====================
+    
+    /**
+     * End every active auction in this shard
+     */
+    void endActiveAuctions() {
+        index.inState(AuctionState.ACTIVE).forEach(AuctionItem::endAuction);
+    }
+    
+    /**
+     * Stop the close timer and the writer thread
+     */
+    void shutdown() {
+        closeTimer.shutdown();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "AuctionShard[" + shardId + ": " + auctions.size() + " auctions]";
+    }
+}
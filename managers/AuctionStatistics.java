@@ -0,0 +1,218 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.UserRole;
+import com.auction.util.Clocks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live system counters, updated as events happen so reading them never
+ * scans users, auctions or bid histories. LongAdder keeps concurrent
+ * updates from contending on a single counter.
+ */
+public class AuctionStatistics {
+    private final LongAdder[] usersByRole = newAdders(UserRole.values().length);
+    private final LongAdder[] auctionsByState = newAdders(AuctionState.values().length);
+    private final LongAdder totalBids = new LongAdder();
+    private final LongAdder reserveMet = new LongAdder();
+    private final LongAdder auctionsSold = new LongAdder();
+    private final LongAdder revenue = new LongAdder();
+    
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+    
+    // ==================== UPDATES ====================
+    
+    void userRegistered(UserRole role) {
+        usersByRole[role.ordinal()].increment();
+    }
+    
+    void auctionAdded(AuctionState state, boolean reserveAlreadyMet) {
+        auctionsByState[state.ordinal()].increment();
+        if (reserveAlreadyMet) {
+            reserveMet.increment();
+        }
+    }
+    
+    void auctionRemoved(AuctionState state, boolean hadReserveMet) {
+        auctionsByState[state.ordinal()].decrement();
+        if (hadReserveMet) {
+            reserveMet.decrement();
+        }
+    }
+    
+    void stateChanged(AuctionState from, AuctionState to) {
+        auctionsByState[from.ordinal()].decrement();
+        auctionsByState[to.ordinal()].increment();
+    }
+    
+    void bidRecorded() {
+        totalBids.increment();
+    }
+    
+    /**
+     * Count bids restored in bulk during recovery
+     */
+    void bidsRestored(long count) {
+        totalBids.add(count);
+    }
+    
+    void reserveMet() {
+        reserveMet.increment();
+    }
+    
+    /**
+     * An auction closed with a winner at the given price in cents
+     */
+    void auctionSold(long price) {
+        auctionsSold.increment();
+        revenue.add(price);
+    }
+    
+    // ==================== READING ====================
+    
+    /**
+     * Point-in-time copy of every counter. Counters are read one by one,
+     * so a snapshot taken during heavy activity may straddle a few events.
+     */
+    public Snapshot snapshot() {
+        return combine(Collections.singletonList(this), Clocks.millis());
+    }
+    
+    /**
+     * One snapshot summing the counters of several parts (e.g. shards),
+     * stamped with the given time
+     */
+    static Snapshot combine(Collection<AuctionStatistics> parts, long takenAtMillis) {
+        Map<UserRole, Long> users = new EnumMap<>(UserRole.class);
+        for (UserRole role : UserRole.values()) {
+            long count = 0;
+            for (AuctionStatistics part : parts) {
+                count += part.usersByRole[role.ordinal()].sum();
+            }
+            users.put(role, count);
+        }
+        Map<AuctionState, Long> auctions = new EnumMap<>(AuctionState.class);
+        for (AuctionState state : AuctionState.values()) {
+            long count = 0;
+            for (AuctionStatistics part : parts) {
+                count += part.auctionsByState[state.ordinal()].sum();
+            }
+            auctions.put(state, count);
+        }
+        long bids = 0;
+        long met = 0;
+        long sold = 0;
+        long total = 0;
+        for (AuctionStatistics part : parts) {
+            bids += part.totalBids.sum();
+            met += part.reserveMet.sum();
+            sold += part.auctionsSold.sum();
+            total += part.revenue.sum();
+        }
+        return new Snapshot(takenAtMillis, users, auctions, bids, met, sold, total);
+    }
+    
+    /**
+     * Immutable view of the statistics at one moment
+     */
+    public static final class Snapshot {
+        private final long takenAtMillis;
+        private final Map<UserRole, Long> usersByRole;
+        private final Map<AuctionState, Long> auctionsByState;
+        private final long totalUsers;
+        private final long totalAuctions;
+        private final long totalBids;
+        private final long reserveMetCount;
+        private final long soldCount;
+        private final long revenue;
+        
+        private Snapshot(long takenAtMillis, Map<UserRole, Long> usersByRole,
+                         Map<AuctionState, Long> auctionsByState, long totalBids,
+                         long reserveMetCount, long soldCount, long revenue) {
+            this.takenAtMillis = takenAtMillis;
+            this.usersByRole = Collections.unmodifiableMap(usersByRole);
+            this.auctionsByState = Collections.unmodifiableMap(auctionsByState);
+            this.totalUsers = usersByRole.values().stream().mapToLong(Long::longValue).sum();
+            this.totalAuctions = auctionsByState.values().stream().mapToLong(Long::longValue).sum();
+            this.totalBids = totalBids;
+            this.reserveMetCount = reserveMetCount;
+            this.soldCount = soldCount;
+            this.revenue = revenue;
+        }
+        
+        public long getTakenAtMillis() {
+            return takenAtMillis;
+        }
+        
+        public long getTotalUsers() {
+            return totalUsers;
+        }
+        
+        public long getUserCount(UserRole role) {
+            return usersByRole.get(role);
+        }
+        
+        public Map<UserRole, Long> getUsersByRole() {
+            return usersByRole;
+        }
+        
+        public long getTotalAuctions() {
+            return totalAuctions;
+        }
+        
+        public long getAuctionCount(AuctionState state) {
+            return auctionsByState.get(state);
+        }
+        
+        public Map<AuctionState, Long> getAuctionsByState() {
+            return auctionsByState;
+        }
+        
+        /**
+         * Bids recorded since startup, including bids on auctions removed since
+         */
+        public long getTotalBids() {
+            return totalBids;
+        }
+        
+        /**
+         * Current auctions whose high bid has reached the reserve price
+         */
+        public long getReserveMetCount() {
+            return reserveMetCount;
+        }
+        
+        public double getReserveMetPercent() {
+            return totalAuctions == 0 ? 0 : reserveMetCount * 100.0 / totalAuctions;
+        }
+        
+        public double getAverageBidsPerAuction() {
+            return totalAuctions == 0 ? 0 : (double) totalBids / totalAuctions;
+        }
+        
+        /**
+         * Auctions that closed with a winner
+         */
+        public long getSoldCount() {
+            return soldCount;
+        }
+        
+        /**
+         * Sum of winning bids in cents
+         */
+        public long getRevenue() {
+            return revenue;
+        }
+    }
+}
@@ -0,0 +1,1032 @@
+package com.auction.managers;
+
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.models.BidHistory;
+import com.auction.util.Ids;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Column-oriented copy of archived bid history, for reporting scans.
+ *
+ * Bids are stored in segments of up to 64K rows, grouped by auction and
+ * oldest first within each auction. Each segment holds four columns,
+ * encoded separately:
+ * - auction: run-length encoded, one run per auction with the delta of its
+ *   ID from the previous run and its sale price
+ * - bidder: index into the segment's bidder dictionary, bit-packed at the
+ *   narrowest width that fits the dictionary
+ * - amount and timestamp: zigzag delta from the previous row, bit-packed in
+ *   blocks of 128 at each block's own width
+ *
+ * The footer in front of the columns holds the row count, the min/max of
+ * timestamp, amount and auction ID, and each column's length and checksum.
+ * Only footers and auction columns are read on open. A scan skips segments
+ * whose footer rules them out and reads just the columns it uses.
+ *
+ * Segments are appended to files of about fileBytes each. Removing an
+ * auction appends a tombstone, and scans leave out its bids.
+ */
+public class BidColumnStore implements AutoCloseable {
+    private static final byte[] MAGIC = "AUCB".getBytes(StandardCharsets.US_ASCII);
+    private static final int FORMAT_VERSION = 1;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int KIND_SEGMENT = 1;
+    private static final int KIND_REMOVED = 2;
+    private static final int COLUMN_AUCTION = 0;
+    private static final int COLUMN_BIDDER = 1;
+    private static final int COLUMN_AMOUNT = 2;
+    private static final int COLUMN_TIME = 3;
+    private static final int COLUMN_COUNT = 4;
+    private static final int ROWS_PER_SEGMENT = 64 * 1024;
+    private static final int BLOCK_SIZE = 128;
+    private static final String FILE_PREFIX = "bids-";
+    private static final String FILE_SUFFIX = ".col";
+    
+    private final Path directory;
+    private final long fileBytes;
+    private final List<ColumnFile> files = new CopyOnWriteArrayList<>();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Set<String> auctionIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> removed = ConcurrentHashMap.newKeySet();
+    
+    // Appends only, guarded by this
+    private final ByteWriter footer = new ByteWriter(256);
+    private final ByteWriter[] columns = new ByteWriter[COLUMN_COUNT];
+    private final CRC32C crc = new CRC32C();
+    
+    /**
+     * One file of segments
+     */
+    private static final class ColumnFile {
+        private final Path path;
+        private final FileChannel channel;
+        private volatile long size;
+        
+        ColumnFile(Path path, FileChannel channel, long size) {
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+        }
+    }
+    
+    /**
+     * A segment's footer: where its columns are and what values they span
+     */
+    private static final class Segment {
+        private final ColumnFile file;
+        private final long offset;
+        private final int rows;
+        private final int runs;
+        private final long minTime;
+        private final long maxTime;
+        private final long minAmount;
+        private final long maxAmount;
+        private final long minAuction;
+        private final long maxAuction; // min > max if every auction ID is non-standard
+        private final int textAuctions;
+        private final int[] lengths;
+        private final int[] checksums;
+        
+        Segment(ColumnFile file, long offset, ByteReader footer) throws IOException {
+            this.file = file;
+            this.offset = offset;
+            this.rows = footer.getCount();
+            this.runs = footer.getCount();
+            this.minTime = footer.getLong();
+            this.maxTime = footer.getLong();
+            this.minAmount = footer.getLong();
+            this.maxAmount = footer.getLong();
+            this.minAuction = footer.getLong();
+            this.maxAuction = footer.getLong();
+            this.textAuctions = footer.getCount();
+            this.lengths = new int[COLUMN_COUNT];
+            this.checksums = new int[COLUMN_COUNT];
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                lengths[i] = footer.getCount();
+                checksums[i] = footer.getInt();
+            }
+        }
+        
+        long columnOffset(int column) {
+            long position = offset;
+            for (int i = 0; i < column; i++) {
+                position += lengths[i];
+            }
+            return position;
+        }
+        
+        long end() {
+            return columnOffset(COLUMN_COUNT);
+        }
+        
+        boolean overlaps(long fromMillis, long toMillis) {
+            return rows > 0 && maxTime >= fromMillis && minTime < toMillis;
+        }
+        
+        boolean within(long fromMillis, long toMillis) {
+            return minTime >= fromMillis && maxTime < toMillis;
+        }
+        
+        /**
+         * False only if the footer proves the auction has no bids here
+         */
+        boolean mayContain(AuctionKey auction) {
+            if (auction.text != null) {
+                return textAuctions > 0;
+            }
+            return auction.numeric >= minAuction && auction.numeric <= maxAuction;
+        }
+    }
+    
+    /**
+     * An auction ID as stored in the auction column: its numeric value if
+     * it is a standard ID, otherwise its text
+     */
+    private static final class AuctionKey {
+        private final long numeric;
+        private final String text;
+        
+        AuctionKey(String itemId) {
+            long value = 0;
+            boolean standard = itemId.length() == Ids.TEXT_LENGTH;
+            if (standard) {
+                try {
+                    value = Ids.fromText(itemId);
+                    standard = Ids.toText(value).equals(itemId);
+                } catch (IllegalArgumentException e) {
+                    standard = false;
+                }
+            }
+            this.numeric = value;
+            this.text = standard ? null : itemId;
+        }
+    }
+    
+    /**
+     * Average, lowest and highest bid in one time bucket
+     */
+    public static final class PricePoint {
+        private final long bucketStartMillis;
+        private final long bids;
+        private final long minAmount;
+        private final long maxAmount;
+        private final long totalAmount;
+        
+        PricePoint(long bucketStartMillis, long bids, long minAmount, long maxAmount, long totalAmount) {
+            this.bucketStartMillis = bucketStartMillis;
+            this.bids = bids;
+            this.minAmount = minAmount;
+            this.maxAmount = maxAmount;
+            this.totalAmount = totalAmount;
+        }
+        
+        public long getBucketStartMillis() {
+            return bucketStartMillis;
+        }
+        
+        public long getBidCount() {
+            return bids;
+        }
+        
+        public long getMinAmount() {
+            return minAmount;
+        }
+        
+        public long getMaxAmount() {
+            return maxAmount;
+        }
+        
+        public long getAverageAmount() {
+            return totalAmount / bids;
+        }
+    }
+    
+    private BidColumnStore(Path directory, long fileBytes) {
+        this.directory = directory;
+        this.fileBytes = fileBytes;
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            columns[i] = new ByteWriter(64 * 1024);
+        }
+    }
+    
+    /**
+     * Open the bid columns in a directory, reading every segment footer
+     *
+     * @param fileBytes start a new file once the current one reaches this size
+     */
+    public static BidColumnStore open(Path directory, long fileBytes) throws IOException {
+        if (fileBytes <= 0) {
+            throw new IllegalArgumentException("Invalid bid column file size");
+        }
+        Files.createDirectories(directory);
+        BidColumnStore store = new BidColumnStore(directory, fileBytes);
+        List<Path> paths = listFiles(directory);
+        for (int i = 0; i < paths.size(); i++) {
+            store.scan(paths.get(i), i == paths.size() - 1);
+        }
+        AuctionLogger.info("📊 Bid columns opened at %s (%d segments, %d auctions)",
+                           directory, store.segments.size(), store.auctionIds.size());
+        return store;
+    }
+    
+    // ==================== WRITING ====================
+    
+    /**
+     * Append the bids of closed auctions and force them to disk. Auctions
+     * already stored are skipped, so appending the same auction twice is harmless.
+     */
+    public synchronized void append(List<AuctionItem> items) throws IOException {
+        List<AuctionItem> fresh = new ArrayList<>(items.size());
+        for (AuctionItem item : items) {
+            if (!auctionIds.contains(item.getItemId())) {
+                fresh.add(item);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        // Standard IDs sort by time in text order too, so ID deltas stay small
+        fresh.sort(Comparator.comparing(AuctionItem::getItemId));
+        
+        Rows rows = new Rows();
+        for (AuctionItem item : fresh) {
+            if (rows.count > 0 && rows.count + item.getBidCount() > ROWS_PER_SEGMENT) {
+                writeSegment(rows);
+                rows.clear();
+            }
+            rows.add(item);
+        }
+        writeSegment(rows);
+        files.get(files.size() - 1).channel.force(true);
+        for (AuctionItem item : fresh) {
+            auctionIds.add(item.getItemId());
+        }
+    }
+    
+    /**
+     * Leave an auction's bids out of every later scan; returns false if
+     * none are stored
+     */
+    public synchronized boolean remove(String itemId) throws IOException {
+        if (!auctionIds.contains(itemId)) {
+            return false;
+        }
+        footer.clear();
+        footer.putByte(KIND_REMOVED);
+        footer.putString(itemId);
+        ColumnFile file = currentFile();
+        writeFrame(file, false);
+        file.channel.force(true);
+        removed.add(itemId);
+        auctionIds.remove(itemId);
+        return true;
+    }
+    
+    /**
+     * Rows of one segment being built
+     */
+    private static final class Rows {
+        private final List<AuctionKey> runIds = new ArrayList<>();
+        private final List<Integer> runLengths = new ArrayList<>();
+        private final List<Long> runSold = new ArrayList<>();
+        private final Map<String, Integer> bidderIndex = new HashMap<>();
+        private final List<String> bidderIds = new ArrayList<>();
+        private final List<String> bidderNames = new ArrayList<>();
+        private long[] bidders = new long[1024];
+        private long[] amounts = new long[1024];
+        private long[] times = new long[1024];
+        private int count;
+        
+        void add(AuctionItem item) {
+            int start = count;
+            BidHistory.Cursor cursor = item.getBidCursor();
+            while (cursor.next()) {
+                if (count == amounts.length) {
+                    bidders = Arrays.copyOf(bidders, count * 2);
+                    amounts = Arrays.copyOf(amounts, count * 2);
+                    times = Arrays.copyOf(times, count * 2);
+                }
+                Integer index = bidderIndex.get(cursor.bidderId());
+                if (index == null) {
+                    index = bidderIds.size();
+                    bidderIndex.put(cursor.bidderId(), index);
+                    bidderIds.add(cursor.bidderId());
+                    bidderNames.add(cursor.bidderUsername());
+                }
+                bidders[count] = index;
+                amounts[count] = cursor.amount();
+                times[count] = cursor.timestampMillis();
+                count++;
+            }
+            boolean sold = item.isReserveMet() && item.getCurrentHighestBidderId() != null;
+            runIds.add(new AuctionKey(item.getItemId()));
+            runLengths.add(count - start);
+            runSold.add(sold ? item.getCurrentBid() : 0);
+        }
+        
+        void clear() {
+            runIds.clear();
+            runLengths.clear();
+            runSold.clear();
+            bidderIndex.clear();
+            bidderIds.clear();
+            bidderNames.clear();
+            count = 0;
+        }
+    }
+    
+    private void writeSegment(Rows rows) throws IOException {
+        for (ByteWriter column : columns) {
+            column.clear();
+        }
+        
+        ByteWriter auctions = columns[COLUMN_AUCTION];
+        long previousId = 0;
+        long minAuction = Long.MAX_VALUE;
+        long maxAuction = Long.MIN_VALUE;
+        int textAuctions = 0;
+        for (int i = 0; i < rows.runIds.size(); i++) {
+            AuctionKey key = rows.runIds.get(i);
+            boolean text = key.text != null;
+            auctions.putVarLong(((long) rows.runLengths.get(i) << 1) | (text ? 1 : 0));
+            if (text) {
+                auctions.putString(key.text);
+                textAuctions++;
+            } else {
+                auctions.putSignedVarLong(key.numeric - previousId);
+                previousId = key.numeric;
+                minAuction = Math.min(minAuction, key.numeric);
+                maxAuction = Math.max(maxAuction, key.numeric);
+            }
+            auctions.putVarLong(rows.runSold.get(i));
+        }
+        
+        ByteWriter bidders = columns[COLUMN_BIDDER];
+        bidders.putVarInt(rows.bidderIds.size());
+        for (int i = 0; i < rows.bidderIds.size(); i++) {
+            bidders.putString(rows.bidderIds.get(i));
+            bidders.putString(rows.bidderNames.get(i));
+        }
+        int width = 32 - Integer.numberOfLeadingZeros(Math.max(0, rows.bidderIds.size() - 1));
+        bidders.putByte(width);
+        packBits(rows.bidders, 0, rows.count, width, bidders);
+        
+        putDeltas(rows.amounts, rows.count, columns[COLUMN_AMOUNT]);
+        putDeltas(rows.times, rows.count, columns[COLUMN_TIME]);
+        
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        long minAmount = Long.MAX_VALUE;
+        long maxAmount = Long.MIN_VALUE;
+        for (int i = 0; i < rows.count; i++) {
+            minTime = Math.min(minTime, rows.times[i]);
+            maxTime = Math.max(maxTime, rows.times[i]);
+            minAmount = Math.min(minAmount, rows.amounts[i]);
+            maxAmount = Math.max(maxAmount, rows.amounts[i]);
+        }
+        
+        footer.clear();
+        footer.putByte(KIND_SEGMENT);
+        footer.putVarInt(rows.count);
+        footer.putVarInt(rows.runIds.size());
+        footer.putLong(minTime).putLong(maxTime);
+        footer.putLong(minAmount).putLong(maxAmount);
+        footer.putLong(minAuction).putLong(maxAuction);
+        footer.putVarInt(textAuctions);
+        for (ByteWriter column : columns) {
+            crc.reset();
+            crc.update(column.view());
+            footer.putVarInt(column.size());
+            footer.putInt((int) crc.getValue());
+        }
+        
+        ColumnFile file = currentFile();
+        long offset = writeFrame(file, true);
+        ByteReader parsed = new ByteReader(footer.view());
+        parsed.getByte();
+        segments.add(new Segment(file, offset, parsed));
+    }
+    
+    /**
+     * Write the footer buffer and, for a segment, the column buffers to the
+     * end of a file; returns where the columns start
+     */
+    private long writeFrame(ColumnFile file, boolean withColumns) throws IOException {
+        ByteBuffer body = footer.view();
+        crc.reset();
+        crc.update(body.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        header.putInt(body.remaining()).putInt((int) crc.getValue()).flip();
+        
+        long position = file.size;
+        position = writeFully(file.channel, header, position);
+        position = writeFully(file.channel, body, position);
+        long offset = position;
+        if (withColumns) {
+            for (ByteWriter column : columns) {
+                position = writeFully(file.channel, column.view(), position);
+            }
+        }
+        file.size = position;
+        return offset;
+    }
+    
+    private ColumnFile currentFile() throws IOException {
+        ColumnFile file = files.isEmpty() ? null : files.get(files.size() - 1);
+        if (file != null && file.size < fileBytes) {
+            return file;
+        }
+        if (file != null) {
+            file.channel.force(true);
+        }
+        Path path = directory.resolve(String.format("%s%06d%s", FILE_PREFIX, files.size(), FILE_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteWriter header = new ByteWriter(16);
+        header.putRaw(ByteBuffer.wrap(MAGIC));
+        header.putVarInt(FORMAT_VERSION);
+        long size = writeFully(channel, header.view(), 0);
+        
+        ColumnFile created = new ColumnFile(path, channel, size);
+        files.add(created);
+        return created;
+    }
+    
+    private static long writeFully(FileChannel channel, ByteBuffer source, long position) throws IOException {
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+        return position;
+    }
+    
+    // ==================== ENCODING ====================
+    
+    /**
+     * Zigzag deltas from the previous value, bit-packed in blocks of
+     * BLOCK_SIZE, each led by its bit width
+     */
+    private static void putDeltas(long[] values, int count, ByteWriter out) {
+        long[] block = new long[BLOCK_SIZE];
+        long previous = 0;
+        for (int start = 0; start < count; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, count - start);
+            long bits = 0;
+            for (int i = 0; i < length; i++) {
+                long delta = values[start + i] - previous;
+                previous = values[start + i];
+                block[i] = (delta << 1) ^ (delta >> 63);
+                bits |= block[i];
+            }
+            int width = 64 - Long.numberOfLeadingZeros(bits);
+            out.putByte(width);
+            packBits(block, 0, length, width, out);
+        }
+    }
+    
+    private static long[] getDeltas(ByteReader in, int count) throws IOException {
+        long[] values = new long[count];
+        long previous = 0;
+        for (int start = 0; start < count; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, count - start);
+            int width = in.getByte();
+            if (width > 64) {
+                throw new IOException("Bad bit width " + width);
+            }
+            unpackBits(in, width, values, start, length);
+            for (int i = start; i < start + length; i++) {
+                long zigzag = values[i];
+                previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                values[i] = previous;
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * Low width bits of each value, least significant first, padded to a whole byte
+     */
+    private static void packBits(long[] values, int from, int count, int width, ByteWriter out) {
+        int pending = 0;
+        int pendingBits = 0;
+        for (int i = from; i < from + count; i++) {
+            long value = values[i];
+            int remaining = width;
+            while (remaining > 0) {
+                int take = Math.min(remaining, 8 - pendingBits);
+                pending |= (int) (value & ((1L << take) - 1)) << pendingBits;
+                value >>>= take;
+                remaining -= take;
+                pendingBits += take;
+                if (pendingBits == 8) {
+                    out.putByte(pending);
+                    pending = 0;
+                    pendingBits = 0;
+                }
+            }
+        }
+        if (pendingBits > 0) {
+            out.putByte(pending);
+        }
+    }
+    
+    private static void unpackBits(ByteReader in, int width, long[] values, int from, int count) throws IOException {
+        int pending = 0;
+        int pendingBits = 0;
+        for (int i = from; i < from + count; i++) {
+            long value = 0;
+            int filled = 0;
+            while (filled < width) {
+                if (pendingBits == 0) {
+                    pending = in.getByte();
+                    pendingBits = 8;
+                }
+                int take = Math.min(width - filled, pendingBits);
+                value |= (long) (pending & ((1 << take) - 1)) << filled;
+                pending >>>= take;
+                pendingBits -= take;
+                filled += take;
+            }
+            values[i] = value;
+        }
+    }
+    
+    // ==================== READING ====================
+    
+    /**
+     * Read a file's segment footers and auction columns, stopping at the
+     * first torn or damaged frame (cut off if this is the last file)
+     */
+    private void scan(Path path, boolean last) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        ByteBuffer start = ByteBuffer.allocate((int) Math.min(fileSize, MAGIC.length + 5));
+        readFully(channel, start, 0);
+        start.flip();
+        for (byte b : MAGIC) {
+            if (!start.hasRemaining() || start.get() != b) {
+                channel.close();
+                throw new IOException("Not a bid column file: " + path.getFileName());
+            }
+        }
+        int version = new ByteReader(start).getCount();
+        if (version != FORMAT_VERSION) {
+            channel.close();
+            throw new IOException("Unsupported bid column format version " + version);
+        }
+        
+        ColumnFile file = new ColumnFile(path, channel, fileSize);
+        long position = start.position();
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        CRC32C check = new CRC32C();
+        while (position + FRAME_HEADER_BYTES <= fileSize) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || position + FRAME_HEADER_BYTES + length > fileSize) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(channel, body, position + FRAME_HEADER_BYTES);
+            body.flip();
+            check.reset();
+            check.update(body.duplicate());
+            if ((int) check.getValue() != header.getInt(4)) {
+                break;
+            }
+            
+            long next;
+            try {
+                ByteReader record = new ByteReader(body);
+                int kind = record.getByte();
+                if (kind == KIND_SEGMENT) {
+                    Segment segment = new Segment(file, position + FRAME_HEADER_BYTES + length, record);
+                    if (segment.end() > fileSize) {
+                        break;
+                    }
+                    for (String itemId : new SegmentView(segment).auctionIds()) {
+                        auctionIds.add(itemId);
+                    }
+                    segments.add(segment);
+                    next = segment.end();
+                } else if (kind == KIND_REMOVED) {
+                    String itemId = record.getString();
+                    removed.add(itemId);
+                    auctionIds.remove(itemId);
+                    next = position + FRAME_HEADER_BYTES + length;
+                } else {
+                    break;
+                }
+            } catch (IOException e) {
+                break;
+            }
+            position = next;
+        }
+        
+        if (position < fileSize) {
+            if (last) {
+                AuctionLogger.warn("⚠️  Bid columns: cutting torn tail of %s at byte %d", path.getFileName(), position);
+                channel.truncate(position);
+                channel.force(true);
+            } else {
+                AuctionLogger.warn("⚠️  Bid columns: ignoring damaged frames in %s after byte %d", path.getFileName(), position);
+            }
+        }
+        file.size = position;
+        files.add(file);
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new EOFException("Bid column file ends early");
+            }
+            position += read;
+        }
+    }
+    
+    /**
+     * One segment's columns, each read and checked the first time it is used
+     */
+    private final class SegmentView {
+        private final Segment segment;
+        private final int[] runLengths;
+        private final long[] runIds;
+        private final String[] runText;
+        private final long[] runSold;
+        private long[] amounts;
+        private long[] times;
+        private long[] bidders;
+        private String[] bidderIds;
+        private String[] bidderNames;
+        private long bytesRead;
+        
+        SegmentView(Segment segment) throws IOException {
+            this.segment = segment;
+            this.runLengths = new int[segment.runs];
+            this.runIds = new long[segment.runs];
+            this.runText = new String[segment.runs];
+            this.runSold = new long[segment.runs];
+            
+            ByteReader column = column(COLUMN_AUCTION);
+            long previousId = 0;
+            long rows = 0;
+            for (int i = 0; i < segment.runs; i++) {
+                long header = column.getVarLong();
+                runLengths[i] = (int) (header >>> 1);
+                rows += runLengths[i];
+                if ((header & 1) != 0) {
+                    runText[i] = column.getString();
+                } else {
+                    previousId += column.getSignedVarLong();
+                    runIds[i] = previousId;
+                }
+                runSold[i] = column.getVarLong();
+            }
+            if (rows != segment.rows) {
+                throw new IOException("Auction runs do not cover the segment");
+            }
+        }
+        
+        String auctionId(int run) {
+            return runText[run] != null ? runText[run] : Ids.toText(runIds[run]);
+        }
+        
+        List<String> auctionIds() {
+            List<String> ids = new ArrayList<>(segment.runs);
+            for (int i = 0; i < segment.runs; i++) {
+                ids.add(auctionId(i));
+            }
+            return ids;
+        }
+        
+        boolean matches(int run, AuctionKey auction) {
+            if (auction.text != null) {
+                return auction.text.equals(runText[run]);
+            }
+            return runText[run] == null && runIds[run] == auction.numeric;
+        }
+        
+        boolean isRemoved(int run) {
+            return !removed.isEmpty() && removed.contains(auctionId(run));
+        }
+        
+        long[] amounts() throws IOException {
+            if (amounts == null) {
+                amounts = getDeltas(column(COLUMN_AMOUNT), segment.rows);
+            }
+            return amounts;
+        }
+        
+        long[] times() throws IOException {
+            if (times == null) {
+                times = getDeltas(column(COLUMN_TIME), segment.rows);
+            }
+            return times;
+        }
+        
+        long[] bidders() throws IOException {
+            if (bidders == null) {
+                ByteReader column = column(COLUMN_BIDDER);
+                int size = column.getCount();
+                String[] ids = new String[size];
+                String[] names = new String[size];
+                for (int i = 0; i < size; i++) {
+                    ids[i] = column.getString();
+                    names[i] = column.getString();
+                }
+                int width = column.getByte();
+                long[] indexes = new long[segment.rows];
+                unpackBits(column, width, indexes, 0, segment.rows);
+                for (long index : indexes) {
+                    if (index >= size) {
+                        throw new IOException("Bidder index out of range: " + index);
+                    }
+                }
+                bidderIds = ids;
+                bidderNames = names;
+                bidders = indexes;
+            }
+            return bidders;
+        }
+        
+        private ByteReader column(int column) throws IOException {
+            ByteBuffer bytes = ByteBuffer.allocate(segment.lengths[column]);
+            readFully(segment.file.channel, bytes, segment.columnOffset(column));
+            bytes.flip();
+            CRC32C check = new CRC32C();
+            check.update(bytes.duplicate());
+            if ((int) check.getValue() != segment.checksums[column]) {
+                throw new IOException("Damaged bid column in " + segment.file.path.getFileName());
+            }
+            bytesRead += bytes.remaining();
+            return new ByteReader(bytes);
+        }
+    }
+    
+    // ==================== QUERIES ====================
+    
+    /**
+     * Bids placed in [fromMillis, toMillis), on one auction or on all of
+     * them if auctionId is null
+     */
+    public Scan scan(long fromMillis, long toMillis, String auctionId) {
+        return new Scan(fromMillis, toMillis, auctionId == null ? null : new AuctionKey(auctionId));
+    }
+    
+    /**
+     * Total sale price of sold auctions whose last bid falls in
+     * [fromMillis, toMillis). Reads the auction column of each overlapping
+     * segment and the timestamp column only where the range cuts through one.
+     */
+    public long revenue(long fromMillis, long toMillis) {
+        long total = 0;
+        try {
+            for (Segment segment : segments) {
+                if (!segment.overlaps(fromMillis, toMillis)) {
+                    continue;
+                }
+                SegmentView view = new SegmentView(segment);
+                long[] times = segment.within(fromMillis, toMillis) ? null : view.times();
+                int end = 0;
+                for (int run = 0; run < segment.runs; run++) {
+                    end += view.runLengths[run];
+                    if (view.runSold[run] == 0 || view.runLengths[run] == 0 || view.isRemoved(run)) {
+                        continue;
+                    }
+                    if (times == null || (times[end - 1] >= fromMillis && times[end - 1] < toMillis)) {
+                        total += view.runSold[run];
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read bid columns", e);
+        }
+        return total;
+    }
+    
+    /**
+     * Bid prices in [fromMillis, toMillis) per bucket of bucketMillis since
+     * the epoch, oldest first, on one auction or all if auctionId is null.
+     * Buckets without bids are left out.
+     */
+    public List<PricePoint> priceTrend(long fromMillis, long toMillis, long bucketMillis, String auctionId) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Bucket must be positive");
+        }
+        // bucket start -> {bids, min, max, total}
+        TreeMap<Long, long[]> buckets = new TreeMap<>();
+        Scan scan = scan(fromMillis, toMillis, auctionId);
+        while (scan.next()) {
+            long start = Math.floorDiv(scan.timestampMillis(), bucketMillis) * bucketMillis;
+            long[] bucket = buckets.computeIfAbsent(start, k -> new long[] {0, Long.MAX_VALUE, Long.MIN_VALUE, 0});
+            long amount = scan.amount();
+            bucket[0]++;
+            bucket[1] = Math.min(bucket[1], amount);
+            bucket[2] = Math.max(bucket[2], amount);
+            bucket[3] += amount;
+        }
+        List<PricePoint> trend = new ArrayList<>(buckets.size());
+        for (Map.Entry<Long, long[]> entry : buckets.entrySet()) {
+            long[] b = entry.getValue();
+            trend.add(new PricePoint(entry.getKey(), b[0], b[1], b[2], b[3]));
+        }
+        return trend;
+    }
+    
+    /**
+     * Forward-only cursor over matching bids, segment by segment. Columns
+     * are read the first time an accessor needs them in each segment.
+     * Read failures surface as UncheckedIOException.
+     */
+    public final class Scan {
+        private final long fromMillis;
+        private final long toMillis;
+        private final AuctionKey auction;
+        private final List<Segment> snapshot = new ArrayList<>(segments);
+        private int segmentIndex = -1;
+        private SegmentView view;
+        private boolean covered;
+        private int row;
+        private int run;
+        private int runEnd;
+        private int current = -1;
+        private int segmentsRead;
+        private int segmentsSkipped;
+        private long bytesRead;
+        
+        Scan(long fromMillis, long toMillis, AuctionKey auction) {
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+            this.auction = auction;
+        }
+        
+        public boolean next() {
+            try {
+                while (true) {
+                    if (view == null || row >= view.segment.rows) {
+                        if (!nextSegment()) {
+                            current = -1;
+                            return false;
+                        }
+                        continue;
+                    }
+                    if (row >= runEnd) {
+                        run++;
+                        runEnd += view.runLengths[run];
+                        if ((auction != null && !view.matches(run, auction)) || view.isRemoved(run)) {
+                            row = runEnd;
+                        }
+                        continue;
+                    }
+                    if (!covered) {
+                        long time = view.times()[row];
+                        if (time < fromMillis || time >= toMillis) {
+                            row++;
+                            continue;
+                        }
+                    }
+                    current = row++;
+                    return true;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read bid columns", e);
+            }
+        }
+        
+        private boolean nextSegment() throws IOException {
+            if (view != null) {
+                bytesRead += view.bytesRead;
+                view = null;
+            }
+            while (++segmentIndex < snapshot.size()) {
+                Segment segment = snapshot.get(segmentIndex);
+                if (!segment.overlaps(fromMillis, toMillis) || (auction != null && !segment.mayContain(auction))) {
+                    segmentsSkipped++;
+                    continue;
+                }
+                view = new SegmentView(segment);
+                covered = segment.within(fromMillis, toMillis);
+                row = 0;
+                run = -1;
+                runEnd = 0;
+                segmentsRead++;
+                return true;
+            }
+            return false;
+        }
+        
+        public String auctionId() {
+            return view.auctionId(run);
+        }
+        
+        public long amount() {
+            try {
+                return view.amounts()[current];
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read bid columns", e);
+            }
+        }
+        
+        public long timestampMillis() {
+            try {
+                return view.times()[current];
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read bid columns", e);
+            }
+        }
+        
+        public String bidderId() {
+            try {
+                int index = (int) view.bidders()[current];
+                return view.bidderIds[index];
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read bid columns", e);
+            }
+        }
+        
+        public String bidderUsername() {
+            try {
+                int index = (int) view.bidders()[current];
+                return view.bidderNames[index];
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read bid columns", e);
+            }
+        }
+        
+        public int getSegmentsRead() {
+            return segmentsRead;
+        }
+        
+        /**
+         * Segments ruled out by their footer without reading any column
+         */
+        public int getSegmentsSkipped() {
+            return segmentsSkipped;
+        }
+        
+        /**
+         * Column bytes read so far
+         */
+        public long getBytesRead() {
+            return bytesRead + (view == null ? 0 : view.bytesRead);
+        }
+    }
+    
+    // ==================== MAINTENANCE ====================
+    
+    public boolean contains(String itemId) {
+        return auctionIds.contains(itemId);
+    }
+    
+    /**
+     * IDs of the auctions whose bids are stored
+     */
+    Set<String> auctionIds() {
+        return new HashSet<>(auctionIds);
+    }
+    
+    public int getSegmentCount() {
+        return segments.size();
+    }
+    
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> list = Files.list(directory)) {
+            Path[] found = list
+                .filter(p -> {
+                    String name = p.getFileName().toString();
+                    return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                })
+                .toArray(Path[]::new);
+            // Names are zero-padded, so name order is creation order
+            Arrays.sort(found);
+            return new ArrayList<>(Arrays.asList(found));
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        for (ColumnFile file : files) {
+            try {
+                file.channel.close();
+            } catch (IOException e) {
+                AuctionLogger.error("❌ Error closing bid column file %s: %s", file.path.getFileName(), e.getMessage());
+            }
+        }
+    }
+}
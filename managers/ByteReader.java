@@ -0,0 +1,107 @@
+package com.auction.managers;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads one record written by ByteWriter. Malformed input surfaces as
+ * an IOException rather than a runtime exception.
+ */
+class ByteReader {
+    private final ByteBuffer bytes;
+    
+    ByteReader(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+    
+    int getByte() throws IOException {
+        try {
+            return bytes.get() & 0xFF;
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+    
+    int getInt() throws IOException {
+        try {
+            return bytes.getInt();
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+    
+    long getLong() throws IOException {
+        try {
+            return bytes.getLong();
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+    
+    long getVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = getByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+    
+    int getVarInt() throws IOException {
+        long value = getVarLong();
+        if (value > 0xFFFFFFFFL) {
+            throw new IOException("Varint out of int range: " + value);
+        }
+        return (int) value;
+    }
+    
+    /**
+     * A varint that must be a count or index in [0, Integer.MAX_VALUE]
+     */
+    int getCount() throws IOException {
+        int value = getVarInt();
+        if (value < 0) {
+            throw new IOException("Negative count: " + value);
+        }
+        return value;
+    }
+    
+    long getSignedVarLong() throws IOException {
+        long raw = getVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+    
+    String getString() throws IOException {
+        int length = getCount();
+        if (length == 0) {
+            return null;
+        }
+        return new String(take(length - 1), StandardCharsets.UTF_8);
+    }
+    
+    byte[] getBytes() throws IOException {
+        return take(getCount());
+    }
+    
+    boolean hasRemaining() {
+        return bytes.hasRemaining();
+    }
+    
+    private byte[] take(int length) throws IOException {
+        if (length > bytes.remaining()) {
+            throw truncated();
+        }
+        byte[] value = new byte[length];
+        bytes.get(value);
+        return value;
+    }
+    
+    private static IOException truncated() {
+        return new IOException("Record is truncated");
+    }
+}
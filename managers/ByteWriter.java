@@ -0,0 +1,122 @@
+package com.auction.managers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable buffer for encoding one record of a binary file.
+ * Integers are written as LEB128 varints; signed values and deltas are
+ * zigzag-encoded first so small negative numbers stay small.
+ */
+class ByteWriter {
+    private ByteBuffer bytes;
+    
+    ByteWriter(int initialCapacity) {
+        this.bytes = ByteBuffer.allocate(initialCapacity);
+    }
+    
+    ByteWriter putByte(int value) {
+        ensure(1);
+        bytes.put((byte) value);
+        return this;
+    }
+    
+    ByteWriter putInt(int value) {
+        ensure(Integer.BYTES);
+        bytes.putInt(value);
+        return this;
+    }
+    
+    ByteWriter putLong(long value) {
+        ensure(Long.BYTES);
+        bytes.putLong(value);
+        return this;
+    }
+    
+    /**
+     * Unsigned varint: 7 bits per byte, high bit set on all but the last
+     */
+    ByteWriter putVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        bytes.put((byte) value);
+        return this;
+    }
+    
+    ByteWriter putVarInt(int value) {
+        return putVarLong(value & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Signed varint (zigzag), e.g. for deltas
+     */
+    ByteWriter putSignedVarLong(long value) {
+        return putVarLong((value << 1) ^ (value >> 63));
+    }
+    
+    /**
+     * Length + 1 as a varint (0 for null) followed by UTF-8 bytes
+     */
+    ByteWriter putString(String value) {
+        if (value == null) {
+            return putVarInt(0);
+        }
+        return putBytes(value.getBytes(StandardCharsets.UTF_8), 1);
+    }
+    
+    /**
+     * Length as a varint followed by the bytes
+     */
+    ByteWriter putBytes(byte[] value) {
+        return putBytes(value, 0);
+    }
+    
+    private ByteWriter putBytes(byte[] value, int lengthBias) {
+        putVarInt(value.length + lengthBias);
+        ensure(value.length);
+        bytes.put(value);
+        return this;
+    }
+    
+    /**
+     * Raw bytes with no length prefix
+     */
+    ByteWriter putRaw(ByteBuffer source) {
+        ensure(source.remaining());
+        bytes.put(source);
+        return this;
+    }
+    
+    int size() {
+        return bytes.position();
+    }
+    
+    void clear() {
+        bytes.clear();
+    }
+    
+    /**
+     * The bytes written so far, ready to read; valid until the next write
+     */
+    ByteBuffer view() {
+        return bytes.duplicate().flip();
+    }
+    
+    byte[] toArray() {
+        byte[] copy = new byte[bytes.position()];
+        bytes.duplicate().flip().get(copy);
+        return copy;
+    }
+    
+    private void ensure(int extra) {
+        if (bytes.remaining() < extra) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(bytes.capacity() * 2, bytes.position() + extra));
+            bytes.flip();
+            grown.put(bytes);
+            bytes = grown;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.auction.managers;
+
+import com.auction.models.AuctionItem;
+import com.auction.models.BidHistory;
+import com.auction.models.Money;
+import com.auction.util.Clocks;
+import com.auction.util.Ids;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming CSV export of auctions and their bids, for reporting.
+ *
+ * Auctions are pulled one at a time from an iterator and their bids read
+ * through the history's primitive cursor. Rows are encoded straight into
+ * a large direct buffer that is written to the file channel when full,
+ * optionally through gzip. Only the auction being written is held, so
+ * memory stays flat however many rows are exported. Reads take no locks,
+ * so bidding carries on during an export.
+ *
+ * Large exports can be split into part files of a fixed number of
+ * auctions, cut from the same iterator and written in parallel.
+ */
+public class CsvExporter {
+    private static final int DEFAULT_BUFFER_BYTES = 1024 * 1024;
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+    private static final String AUCTION_HEADER = "ItemID,Title,Description,CurrentBid,ReservePrice,State,Category,Seller";
+    private static final String BID_HEADER = "ItemID,BidID,BidderID,Bidder,Amount,Timestamp";
+    private static final String CSV_SUFFIX = ".csv";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    
+    private final Path directory;
+    private final boolean gzip;
+    private final int bufferBytes;
+    
+    public CsvExporter(Path directory, boolean gzip) {
+        this(directory, gzip, DEFAULT_BUFFER_BYTES);
+    }
+    
+    public CsvExporter(Path directory, boolean gzip, int bufferBytes) {
+        if (bufferBytes < 1024) {
+            throw new IllegalArgumentException("Buffer must be at least 1 KB");
+        }
+        this.directory = directory;
+        this.gzip = gzip;
+        this.bufferBytes = bufferBytes;
+    }
+    
+    /**
+     * Files written by one export and what went into them
+     */
+    public static final class Result {
+        private final List<Path> files;
+        private final long rows;
+        private final long bytes;
+        private final long millis;
+        
+        Result(List<Path> files, long rows, long bytes, long millis) {
+            this.files = Collections.unmodifiableList(files);
+            this.rows = rows;
+            this.bytes = bytes;
+            this.millis = millis;
+        }
+        
+        public List<Path> getFiles() {
+            return files;
+        }
+        
+        /**
+         * Data rows, not counting headers
+         */
+        public long getRows() {
+            return rows;
+        }
+        
+        /**
+         * CSV bytes before compression
+         */
+        public long getBytes() {
+            return bytes;
+        }
+        
+        public long getMillis() {
+            return millis;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d rows in %d file(s), %d bytes, %d ms", rows, files.size(), bytes, millis);
+        }
+    }
+    
+    /**
+     * Writes the rows for one auction; returns how many
+     */
+    private interface RowWriter {
+        long write(AuctionItem item, CsvOutput out) throws IOException;
+    }
+    
+    private static final RowWriter AUCTION_ROWS = (item, out) -> {
+        out.text(item.getItemId());
+        out.text(item.getTitle());
+        out.text(item.getDescription());
+        out.money(item.getCurrentBid());
+        out.money(item.getReservePrice());
+        out.text(item.getState().name());
+        out.text(item.getCategory().name());
+        out.text(item.getSellerUsername());
+        out.endRow();
+        return 1;
+    };
+    
+    private static final RowWriter BID_ROWS = (item, out) -> {
+        BidHistory.Cursor cursor = item.getBidCursor();
+        long rows = 0;
+        while (cursor.next()) {
+            out.text(item.getItemId());
+            out.text(Ids.toText(cursor.bidId()));
+            out.text(cursor.bidderId());
+            out.text(cursor.bidderUsername());
+            out.money(cursor.amount());
+            out.timestamp(cursor.timestampMillis());
+            out.endRow();
+            rows++;
+        }
+        return rows;
+    };
+    
+    // ==================== EXPORTS ====================
+    
+    /**
+     * One row per auction, in iteration order
+     */
+    public Result exportAuctions(Iterator<AuctionItem> auctions, String fileName) throws IOException {
+        return exportFile(auctions, fileName, AUCTION_HEADER, AUCTION_ROWS);
+    }
+    
+    /**
+     * One row per bid, auction by auction and oldest bid first
+     */
+    public Result exportBids(Iterator<AuctionItem> auctions, String fileName) throws IOException {
+        return exportFile(auctions, fileName, BID_HEADER, BID_ROWS);
+    }
+    
+    /**
+     * Auctions split into part files of auctionsPerPart auctions, written by
+     * up to threads workers. Parts are cut from the iterator as it is read,
+     * so at most threads + 1 parts are held at once. An export that fits in
+     * one part is written to a single file under the given name.
+     */
+    public Result exportAuctions(Iterator<AuctionItem> auctions, String fileName, int auctionsPerPart,
+                                 int threads) throws IOException {
+        return exportParts(auctions, fileName, auctionsPerPart, threads, AUCTION_HEADER, AUCTION_ROWS);
+    }
+    
+    /**
+     * Bids split into part files by auction, as for exportAuctions
+     */
+    public Result exportBids(Iterator<AuctionItem> auctions, String fileName, int auctionsPerPart,
+                             int threads) throws IOException {
+        return exportParts(auctions, fileName, auctionsPerPart, threads, BID_HEADER, BID_ROWS);
+    }
+    
+    private Result exportFile(Iterator<AuctionItem> auctions, String fileName, String header,
+                              RowWriter rows) throws IOException {
+        long start = System.nanoTime();
+        Path file = directory.resolve(withCompression(fileName));
+        long[] written = writeFile(file, header, auctions, rows);
+        List<Path> files = new ArrayList<>();
+        files.add(file);
+        return new Result(files, written[0], written[1], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+    
+    private Result exportParts(Iterator<AuctionItem> auctions, String fileName, int auctionsPerPart, int threads,
+                               String header, RowWriter rows) throws IOException {
+        if (auctionsPerPart <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Parts and threads must be positive");
+        }
+        long start = System.nanoTime();
+        List<AuctionItem> part = nextPart(auctions, auctionsPerPart);
+        if (!auctions.hasNext()) {
+            return exportFile(part.iterator(), fileName, header, rows);
+        }
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "csv-export-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Path> files = new ArrayList<>();
+            Deque<Future<long[]>> pending = new ArrayDeque<>();
+            long[] totals = new long[2];
+            while (!part.isEmpty()) {
+                if (pending.size() == threads) {
+                    // Wait for the oldest part before reading another
+                    add(totals, pending.removeFirst().get());
+                }
+                Path file = directory.resolve(withCompression(partName(fileName, files.size() + 1)));
+                files.add(file);
+                List<AuctionItem> items = part;
+                pending.add(workers.submit(() -> writeFile(file, header, items.iterator(), rows)));
+                part = nextPart(auctions, auctionsPerPart);
+            }
+            for (Future<long[]> result : pending) {
+                add(totals, result.get());
+            }
+            return new Result(files, totals[0], totals[1], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Export failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+    
+    /**
+     * Up to count auctions from the iterator; empty once it is exhausted
+     */
+    private static List<AuctionItem> nextPart(Iterator<AuctionItem> auctions, int count) {
+        List<AuctionItem> part = new ArrayList<>(Math.min(count, 1024));
+        while (part.size() < count && auctions.hasNext()) {
+            part.add(auctions.next());
+        }
+        return part;
+    }
+    
+    private static void add(long[] totals, long[] written) {
+        totals[0] += written[0];
+        totals[1] += written[1];
+    }
+    
+    /**
+     * Write one CSV file; returns {rows, bytes}
+     */
+    private long[] writeFile(Path file, String header, Iterator<AuctionItem> auctions,
+                             RowWriter rows) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (WritableByteChannel channel = open(file)) {
+            CsvOutput out = new CsvOutput(channel, bufferBytes);
+            out.raw(header);
+            out.endRow();
+            long count = 0;
+            while (auctions.hasNext()) {
+                count += rows.write(auctions.next(), out);
+            }
+            out.flush();
+            return new long[] {count, out.bytesWritten()};
+        }
+    }
+    
+    private WritableByteChannel open(Path file) throws IOException {
+        if (gzip) {
+            return Channels.newChannel(new GZIPOutputStream(Files.newOutputStream(file), GZIP_BUFFER_BYTES));
+        }
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+    
+    private String withCompression(String fileName) {
+        return gzip && !fileName.endsWith(GZIP_SUFFIX) ? fileName + GZIP_SUFFIX : fileName;
+    }
+    
+    /**
+     * "bids.csv" becomes "bids-part-00001.csv"
+     */
+    private static String partName(String fileName, int part) {
+        String name = fileName.endsWith(GZIP_SUFFIX)
+            ? fileName.substring(0, fileName.length() - GZIP_SUFFIX.length()) : fileName;
+        String base = name.endsWith(CSV_SUFFIX) ? name.substring(0, name.length() - CSV_SUFFIX.length()) : name;
+        return String.format("%s-part-%05d%s", base, part, CSV_SUFFIX);
+    }
+    
+    // ==================== ENCODING ====================
+    
+    /**
+     * Encodes CSV fields as UTF-8 directly into a buffer, quoting only
+     * fields that need it, and hands full buffers to the channel
+     */
+    private static final class CsvOutput {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+        private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final StringBuilder scratch = new StringBuilder(32); // amounts and timestamps
+        private long written;
+        private boolean rowStarted;
+        
+        CsvOutput(WritableByteChannel channel, int bufferBytes) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        }
+        
+        void text(String value) throws IOException {
+            separator();
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                encode(value, 0, value.length());
+                return;
+            }
+            put('"');
+            int from = 0;
+            for (int i = value.indexOf('"'); i >= 0; i = value.indexOf('"', i + 1)) {
+                encode(value, from, i + 1);
+                put('"'); // quotes inside a field are doubled
+                from = i + 1;
+            }
+            encode(value, from, value.length());
+            put('"');
+        }
+        
+        /**
+         * Cents as "1234.56", like Money.formatPlain
+         */
+        void money(long cents) throws IOException {
+            separator();
+            scratch.setLength(0);
+            encode(Money.appendPlain(scratch, cents), 0, scratch.length());
+        }
+        
+        /**
+         * Epoch millis as local time in the zone the UI shows, e.g. "2024-03-01 09:30:00.250"
+         */
+        void timestamp(long epochMillis) throws IOException {
+            separator();
+            scratch.setLength(0);
+            TIMESTAMP.formatTo(Clocks.toLocalDateTime(epochMillis), scratch);
+            encode(scratch, 0, scratch.length());
+        }
+        
+        /**
+         * Unquoted text, for the header
+         */
+        void raw(String value) throws IOException {
+            encode(value, 0, value.length());
+        }
+        
+        void endRow() throws IOException {
+            put('\n');
+            rowStarted = false;
+        }
+        
+        void flush() throws IOException {
+            buffer.flip();
+            written += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        
+        long bytesWritten() {
+            return written;
+        }
+        
+        private void separator() throws IOException {
+            if (rowStarted) {
+                put(',');
+            }
+            rowStarted = true;
+        }
+        
+        /**
+         * UTF-8 encode chars [from, to) into the buffer, writing it out as it
+         * fills; unpaired surrogates are replaced
+         */
+        private void encode(CharSequence chars, int from, int to) throws IOException {
+            CharBuffer in = CharBuffer.wrap(chars, from, to);
+            utf8.reset();
+            while (utf8.encode(in, buffer, true).isOverflow()) {
+                flush();
+            }
+            while (utf8.flush(buffer).isOverflow()) {
+                flush();
+            }
+        }
+        
+        private void put(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put((byte) b);
+        }
+    }
+}
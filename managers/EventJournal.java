@@ -0,0 +1,736 @@
+package com.auction.managers;
+
+import com.auction.enums.JournalEventType;
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.models.Bid;
+import com.auction.models.User;
+import com.auction.util.ClockSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of domain events: registrations, new auctions,
+ * accepted bids, proxy maximums, closes and removals.
+ *
+ * Callers encode their event on their own thread into a reused per-thread
+ * builder, claim the next sequence number with a CAS and copy the event
+ * into that sequence's slot of a pre-allocated ring; no lock is taken and
+ * nothing is allocated once the slot buffers have grown. A single writer
+ * thread takes every event published since its last pass, in sequence
+ * order, and writes them with one FileChannel write (group commit). fsync
+ * is batched too: the channel is forced once fsyncBatchSize events are
+ * unsynced or the oldest unsynced event is fsyncIntervalMillis old, so an
+ * accepted bid reaches the disk within about that interval. Use
+ * awaitDurable() when a caller must wait for it.
+ *
+ * Events go into segment files named by their first sequence number, as
+ * frames of [length][crc32c][sequence][type][payload]. A torn frame at the
+ * end of the last segment, left by a crash mid-write, is cut off on open.
+ */
+public class EventJournal implements AutoCloseable {
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 1;
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+    private static final int WRITE_BUFFER_BYTES = 1024 * 1024;
+    private static final int RING_SIZE = 65536; // must be a power of two
+    private static final long CLOSED = Long.MIN_VALUE; // flag bit in claimed
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final ThreadLocal<PayloadBuilder> ENCODER = ThreadLocal.withInitial(PayloadBuilder::new);
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    private final Path directory;
+    private final long fsyncIntervalNanos;
+    private final int fsyncBatchSize;
+    private final long segmentBytes;
+    private final ClockSource clock;
+    private final Thread writer;
+    
+    // Ring shared with callers: next sequence to claim (CLOSED bit set once
+    // closed or failed) and the first sequence whose slot is not yet released
+    private final Slot[] ring = new Slot[RING_SIZE];
+    private final AtomicLong claimed;
+    private volatile long consumed;
+    private volatile boolean writerParked;
+    private volatile IOException failure;
+    
+    // Durability waiters only
+    private final Object lock = new Object();
+    private volatile long durableSequence;
+    
+    // Writer thread only
+    private final ByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+    private FileChannel channel;
+    private long segmentPosition;
+    private long writtenSequence;
+    private int unsyncedCount;
+    private long oldestUnsyncedNanos;
+    
+    /**
+     * One reusable ring entry; its payload buffer only ever grows
+     */
+    private static final class Slot {
+        private volatile long published = -1;
+        private JournalEventType type;
+        private byte[] payload = new byte[0];
+        private int length;
+    }
+    
+    /**
+     * One event read back from the journal
+     */
+    public static final class Record {
+        private final long sequence;
+        private final JournalEventType type;
+        private final ByteBuffer payload;
+        
+        Record(long sequence, JournalEventType type, ByteBuffer payload) {
+            this.sequence = sequence;
+            this.type = type;
+            this.payload = payload;
+        }
+        
+        public long getSequence() {
+            return sequence;
+        }
+        
+        public JournalEventType getType() {
+            return type;
+        }
+        
+        /**
+         * The encoded event, valid only during the callback
+         */
+        public ByteBuffer getPayload() {
+            return payload;
+        }
+        
+        // Fields are read back in the order the event method wrote them
+        
+        public int readInt() {
+            return payload.getInt();
+        }
+        
+        public long readLong() {
+            return payload.getLong();
+        }
+        
+        public String readString() {
+            int length = payload.getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] encoded = new byte[length];
+            payload.get(encoded);
+            return new String(encoded, StandardCharsets.UTF_8);
+        }
+    }
+    
+    private EventJournal(Path directory, long nextSequence, long fsyncIntervalMillis,
+                         int fsyncBatchSize, long segmentBytes, ClockSource clock) throws IOException {
+        this.directory = directory;
+        this.clock = clock;
+        for (int i = 0; i < RING_SIZE; i++) {
+            ring[i] = new Slot();
+        }
+        this.claimed = new AtomicLong(nextSequence);
+        this.consumed = nextSequence;
+        this.durableSequence = nextSequence - 1;
+        this.writtenSequence = nextSequence - 1;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.segmentBytes = segmentBytes;
+        this.buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        openSegment(nextSequence);
+        this.writer = new Thread(this::writeLoop, "event-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    /**
+     * Open the journal in a directory, continuing after its last complete event
+     *
+     * @param fsyncIntervalMillis longest an event may wait to be forced to disk (0 forces every write)
+     * @param fsyncBatchSize force as soon as this many events are unsynced
+     * @param segmentBytes start a new segment file once the current one reaches this size
+     * @param clock stamps auction creation and close events
+     */
+    public static EventJournal open(Path directory, long fsyncIntervalMillis, int fsyncBatchSize,
+                                    long segmentBytes, ClockSource clock) throws IOException {
+        if (fsyncIntervalMillis < 0 || fsyncBatchSize <= 0 || segmentBytes < HEADER_BYTES) {
+            throw new IllegalArgumentException("Invalid journal settings");
+        }
+        Files.createDirectories(directory);
+        
+        long lastSequence = 0;
+        List<Path> segments = listSegments(directory);
+        if (!segments.isEmpty()) {
+            Path last = segments.get(segments.size() - 1);
+            SegmentScan scan = scanSegment(last, firstSequenceOf(last), Long.MAX_VALUE, null);
+            if (scan.validBytes < Files.size(last)) {
+                AuctionLogger.warn("⚠️  Journal: cutting torn tail of %s at byte %d", last.getFileName(), scan.validBytes);
+                try (FileChannel tail = FileChannel.open(last, StandardOpenOption.WRITE)) {
+                    tail.truncate(scan.validBytes);
+                    tail.force(true);
+                }
+            }
+            lastSequence = scan.lastSequence;
+        }
+        
+        EventJournal journal = new EventJournal(directory, lastSequence + 1, fsyncIntervalMillis,
+                                                fsyncBatchSize, segmentBytes, clock);
+        AuctionLogger.info("📒 Event journal opened at %s (next event #%d)", directory, lastSequence + 1);
+        return journal;
+    }
+    
+    // ==================== EVENTS ====================
+    
+    public long userRegistered(User user) {
+        return append(JournalEventType.USER_REGISTERED, encoder()
+            .putString(user.getUserId())
+            .putString(user.getUsername())
+            .putString(user.getEmail())
+            .putString(user.getRole().name())
+            .putString(user.getSalt())
+            .putString(user.getPasswordHash()));
+    }
+    
+    /**
+     * Record a new auction; call before it is visible to bidders so its
+     * bids always follow it in the journal
+     */
+    public long auctionCreated(AuctionItem item) {
+        return append(JournalEventType.AUCTION_CREATED, encoder()
+            .putString(item.getItemId())
+            .putString(item.getTitle())
+            .putString(item.getDescription())
+            .putLong(item.getStartingPrice())
+            .putLong(item.getReservePrice())
+            .putLong(item.getMinimumBidIncrement())
+            .putString(item.getSellerId())
+            .putString(item.getSellerUsername())
+            .putString(item.getCategory().name())
+            .putLong(clock.millis())
+            .putLong(item.getEndTimeMillis()));
+    }
+    
+    public long bidAccepted(AuctionItem item, int position, Bid bid) {
+        return append(JournalEventType.BID_ACCEPTED, encoder()
+            .putString(item.getItemId())
+            .putInt(position)
+            .putLong(bid.getBidId())
+            .putString(bid.getBidderId())
+            .putString(bid.getBidderUsername())
+            .putLong(bid.getAmount())
+            .putLong(bid.getTimestampMillis()));
+    }
+    
+    public long proxyMaximum(AuctionItem item, String leaderId, long maximum) {
+        return append(JournalEventType.PROXY_MAXIMUM, encoder()
+            .putString(item.getItemId())
+            .putString(leaderId)
+            .putLong(maximum));
+    }
+    
+    public long auctionClosed(AuctionItem item) {
+        return append(JournalEventType.AUCTION_CLOSED, encoder()
+            .putString(item.getItemId())
+            .putLong(clock.millis()));
+    }
+    
+    public long auctionRemoved(String itemId) {
+        return append(JournalEventType.AUCTION_REMOVED, encoder()
+            .putString(itemId));
+    }
+    
+    /**
+     * The calling thread's encoder, emptied for a new event
+     */
+    private static PayloadBuilder encoder() {
+        return ENCODER.get().reset();
+    }
+    
+    /**
+     * Claim the next sequence number, copy the encoded event into its ring
+     * slot and publish it. Returns the sequence number, or -1 if the journal
+     * is closed or has failed (the failure is logged once). Waits while the
+     * ring is full.
+     */
+    private long append(JournalEventType type, PayloadBuilder event) {
+        event.checkSize();
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence < 0) {
+                return -1;
+            }
+            if (sequence - consumed >= RING_SIZE) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return -1;
+                }
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        
+        Slot slot = ring[(int) (sequence & (RING_SIZE - 1))];
+        slot.type = type;
+        slot.length = event.copyTo(slot);
+        slot.published = sequence;
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        return sequence;
+    }
+    
+    // ==================== DURABILITY ====================
+    
+    /**
+     * Wait until the event with this sequence number has been forced to disk.
+     * Returns false on timeout; throws if the journal failed first.
+     */
+    public boolean awaitDurable(long sequence, long timeoutMillis) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (lock) {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new IOException("Journal write failed", failure);
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || (claimed.get() < 0 && !writer.isAlive())) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Highest sequence number known to be on disk
+     */
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+    
+    /**
+     * Highest sequence number handed out so far
+     */
+    public long getLastSequence() {
+        return (claimed.get() & ~CLOSED) - 1;
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Write and force everything queued, then stop the writer
+     */
+    @Override
+    public void close() {
+        if (!markClosed()) {
+            return;
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        AuctionLogger.info("📒 Event journal closed (last durable event #%d)", durableSequence);
+    }
+    
+    /**
+     * Stop handing out sequence numbers; returns false if already stopped
+     */
+    private boolean markClosed() {
+        while (true) {
+            long current = claimed.get();
+            if (current < 0) {
+                return false;
+            }
+            if (claimed.compareAndSet(current, current | CLOSED)) {
+                return true;
+            }
+        }
+    }
+    
+    // ==================== WRITER THREAD ====================
+    
+    private void writeLoop() {
+        long next = consumed;
+        while (true) {
+            long limit = claimed.get();
+            boolean closing = limit < 0;
+            limit &= ~CLOSED;
+            
+            try {
+                long first = next;
+                next = write(next, limit);
+                if (next > first) {
+                    // Frames are copied out, so callers may reuse the slots
+                    consumed = next;
+                }
+                boolean drained = next == limit;
+                if (unsyncedCount > 0 && ((closing && drained) || syncDue())) {
+                    sync();
+                }
+                if (closing && drained) {
+                    channel.close();
+                    return;
+                }
+                if (next == first) {
+                    waitForWork(next);
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Sleep until the slot for the next sequence is published, the journal
+     * closes, or the oldest unsynced event is due. Callers unpark the
+     * writer after publishing if it has announced it is parked.
+     */
+    private void waitForWork(long next) {
+        writerParked = true;
+        if (ring[(int) (next & (RING_SIZE - 1))].published != next && !syncDue()) {
+            long wait = IDLE_PARK_NANOS;
+            if (unsyncedCount > 0) {
+                wait = Math.min(wait, oldestUnsyncedNanos + fsyncIntervalNanos - System.nanoTime());
+            }
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+        writerParked = false;
+    }
+    
+    private boolean syncDue() {
+        return unsyncedCount >= fsyncBatchSize
+            || (unsyncedCount > 0 && System.nanoTime() - oldestUnsyncedNanos >= fsyncIntervalNanos);
+    }
+    
+    /**
+     * Write the published events from sequence next up to limit (exclusive)
+     * through the buffer, stopping at the first slot still being filled and
+     * rolling segments as they fill. Returns the first sequence not written.
+     */
+    private long write(long next, long limit) throws IOException {
+        long first = next;
+        for (; next < limit; next++) {
+            Slot slot = ring[(int) (next & (RING_SIZE - 1))];
+            if (slot.published != next) {
+                break;
+            }
+            int frameBytes = HEADER_BYTES + slot.length;
+            if (segmentPosition + buffer.position() > 0
+                    && segmentPosition + buffer.position() + frameBytes > segmentBytes) {
+                flush();
+                rollSegment(next);
+            }
+            if (frameBytes > buffer.capacity()) {
+                flush();
+                ByteBuffer large = ByteBuffer.allocate(frameBytes);
+                putFrame(large, next, slot);
+                large.flip();
+                writeFully(large);
+                continue;
+            }
+            if (buffer.remaining() < frameBytes) {
+                flush();
+            }
+            putFrame(buffer, next, slot);
+        }
+        if (next == first) {
+            return next;
+        }
+        flush();
+        
+        if (unsyncedCount == 0) {
+            oldestUnsyncedNanos = System.nanoTime();
+        }
+        unsyncedCount += (int) (next - first);
+        writtenSequence = next - 1;
+        return next;
+    }
+    
+    private void putFrame(ByteBuffer target, long sequence, Slot slot) {
+        int start = target.position();
+        target.putInt(slot.length);
+        target.putInt(0); // checksum, filled in below
+        target.putLong(sequence);
+        target.put(slot.type.getCode());
+        target.put(slot.payload, 0, slot.length);
+        
+        crc.reset();
+        crc.update(target.duplicate().position(start + 8).limit(target.position()));
+        target.putInt(start + 4, (int) crc.getValue());
+    }
+    
+    private void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+    
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            segmentPosition += channel.write(source);
+        }
+    }
+    
+    private void sync() throws IOException {
+        channel.force(false);
+        unsyncedCount = 0;
+        synchronized (lock) {
+            durableSequence = writtenSequence;
+            lock.notifyAll();
+        }
+    }
+    
+    private void rollSegment(long firstSequence) throws IOException {
+        channel.force(false);
+        channel.close();
+        openSegment(firstSequence);
+    }
+    
+    private void openSegment(long firstSequence) throws IOException {
+        // An existing file with this name holds no complete events, so it is safe to reuse
+        channel = FileChannel.open(segmentPath(directory, firstSequence), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        segmentPosition = 0;
+    }
+    
+    private void fail(IOException e) {
+        AuctionLogger.error("❌ Event journal write failed, events are no longer persisted: %s", e);
+        failure = e;
+        markClosed();
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already failed
+        }
+    }
+    
+    // ==================== READING ====================
+    
+    /**
+     * Read every complete event after the given sequence number, in order.
+     * Returns the last sequence number in the journal (0 if it is empty).
+     * Only the last segment may end in a torn frame; damage anywhere else
+     * is reported as an IOException.
+     */
+    public static long read(Path directory, long afterSequence, Consumer<Record> handler) throws IOException {
+        List<Path> segments = listSegments(directory);
+        long lastSequence = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            long first = firstSequenceOf(segment);
+            boolean lastSegment = i == segments.size() - 1;
+            if (!lastSegment && firstSequenceOf(segments.get(i + 1)) <= afterSequence + 1) {
+                // Every event in this segment is at or before afterSequence
+                lastSequence = firstSequenceOf(segments.get(i + 1)) - 1;
+                continue;
+            }
+            if (lastSequence != 0 && first != lastSequence + 1) {
+                throw new IOException("Journal gap before " + segment.getFileName());
+            }
+            SegmentScan scan = scanSegment(segment, first, afterSequence, handler);
+            if (!lastSegment && scan.validBytes < Files.size(segment)) {
+                throw new IOException("Corrupt journal segment " + segment.getFileName()
+                    + " at byte " + scan.validBytes);
+            }
+            lastSequence = scan.lastSequence;
+        }
+        return lastSequence;
+    }
+    
+    /**
+     * Result of walking one segment: where its valid frames end and the last sequence in them
+     */
+    private static final class SegmentScan {
+        private final long validBytes;
+        private final long lastSequence;
+        
+        SegmentScan(long validBytes, long lastSequence) {
+            this.validBytes = validBytes;
+            this.lastSequence = lastSequence;
+        }
+    }
+    
+    /**
+     * Walk a segment's frames through a read-only mapping, stopping at the
+     * first incomplete or damaged frame; events after afterSequence go to the handler
+     */
+    private static SegmentScan scanSegment(Path segment, long firstSequence, long afterSequence,
+                                           Consumer<Record> handler) throws IOException {
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Journal segment too large: " + segment.getFileName());
+            }
+            ByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C check = new CRC32C();
+            long expected = firstSequence;
+            
+            while (mapped.remaining() >= HEADER_BYTES) {
+                int start = mapped.position();
+                int length = mapped.getInt(start);
+                if (length < 0 || length > MAX_PAYLOAD_BYTES || mapped.remaining() < HEADER_BYTES + length) {
+                    break;
+                }
+                int end = start + HEADER_BYTES + length;
+                check.reset();
+                check.update(mapped.duplicate().position(start + 8).limit(end));
+                long sequence = mapped.getLong(start + 8);
+                JournalEventType type = JournalEventType.fromCode(mapped.get(start + 16));
+                if ((int) check.getValue() != mapped.getInt(start + 4) || sequence != expected || type == null) {
+                    break;
+                }
+                if (handler != null && sequence > afterSequence) {
+                    ByteBuffer payload = mapped.duplicate().position(start + HEADER_BYTES).limit(end).slice();
+                    handler.accept(new Record(sequence, type, payload.asReadOnlyBuffer()));
+                }
+                mapped.position(end);
+                expected++;
+            }
+            return new SegmentScan(mapped.position(), expected - 1);
+        }
+    }
+    
+    private static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            Path[] segments = files
+                .filter(p -> {
+                    String name = p.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .toArray(Path[]::new);
+            // Names are zero-padded, so name order is sequence order
+            Arrays.sort(segments);
+            return new ArrayList<>(Arrays.asList(segments));
+        }
+    }
+    
+    private static Path segmentPath(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+    
+    private static long firstSequenceOf(Path segment) throws IOException {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad journal segment name: " + name, e);
+        }
+    }
+    
+    // ==================== ENCODING ====================
+    
+    /**
+     * Growable big-endian buffer for one event, reused by its thread; strings
+     * are a length (-1 for null) followed by UTF-8 bytes
+     */
+    private static final class PayloadBuilder {
+        private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private ByteBuffer bytes = ByteBuffer.allocate(256);
+        
+        PayloadBuilder reset() {
+            if (bytes.capacity() > 64 * 1024) {
+                // Do not keep an unusually large event's buffer per thread
+                bytes = ByteBuffer.allocate(256);
+            }
+            bytes.clear();
+            return this;
+        }
+        
+        PayloadBuilder putString(String value) {
+            if (value == null) {
+                return putInt(-1);
+            }
+            int lengthAt = bytes.position();
+            putInt(0); // length, filled in below
+            ensure((int) Math.min(Integer.MAX_VALUE, value.length() * 3L));
+            utf8.reset();
+            utf8.encode(CharBuffer.wrap(value), bytes, true);
+            utf8.flush(bytes);
+            bytes.putInt(lengthAt, bytes.position() - lengthAt - Integer.BYTES);
+            return this;
+        }
+        
+        PayloadBuilder putInt(int value) {
+            ensure(Integer.BYTES);
+            bytes.putInt(value);
+            return this;
+        }
+        
+        PayloadBuilder putLong(long value) {
+            ensure(Long.BYTES);
+            bytes.putLong(value);
+            return this;
+        }
+        
+        void checkSize() {
+            if (bytes.position() > MAX_PAYLOAD_BYTES) {
+                throw new UncheckedIOException(new IOException("Journal event too large: " + bytes.position() + " bytes"));
+            }
+        }
+        
+        /**
+         * Copy the event into a ring slot, growing its buffer if needed; returns the length
+         */
+        int copyTo(Slot slot) {
+            int length = bytes.position();
+            if (slot.payload.length < length) {
+                slot.payload = new byte[Math.max(length, Math.min(Math.max(64, 2 * slot.payload.length), MAX_PAYLOAD_BYTES))];
+            }
+            System.arraycopy(bytes.array(), 0, slot.payload, 0, length);
+            return length;
+        }
+        
+        private void ensure(int extra) {
+            if (bytes.remaining() < extra) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(bytes.capacity() * 2, bytes.position() + extra));
+                bytes.flip();
+                grown.put(bytes);
+                bytes = grown;
+            }
+        }
+    }
+}
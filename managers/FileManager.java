@@ -2,88 +2,220 @@ package com.auction.managers;
 
 import com.auction.models.*;
 
+import com.auction.util.ClockSource;
+import com.auction.util.Clocks;
+
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
- * FileManager handles data persistence using Java serialization
+ * FileManager handles data persistence: binary state snapshots (see
+ * SnapshotCodec), the event journal that records changes as they happen,
+ * and conversion of the legacy Java-serialized .dat files
  */
 public class FileManager {
     private static final String USERS_FILE = "data/users.dat";
     private static final String AUCTIONS_FILE = "data/auctions.dat";
+    private static final String SNAPSHOT_FILE = "data/snapshot.bin";
+    private static final String JOURNAL_DIR = "data/journal";
+    private static final String ARCHIVE_DIR = "data/archive";
     
     /**
-     * Save all users to file
+     * Journal fsync batching; override with -Dauction.journal.fsyncMillis,
+     * -Dauction.journal.fsyncBatch and -Dauction.journal.segmentMB
      */
-    public static void saveUsers(Map<String, User> users) {
-        createDataDirectory();
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(USERS_FILE))) {
-            oos.writeObject(users);
-            System.out.println("✅ Users saved successfully to " + USERS_FILE);
+    private static final long DEFAULT_FSYNC_MILLIS = 20;
+    private static final int DEFAULT_FSYNC_BATCH = 1024;
+    private static final int DEFAULT_SEGMENT_MB = 64;
+    
+    /**
+     * Background snapshot period; override with -Dauction.snapshot.intervalSeconds (0 = off)
+     */
+    private static final long DEFAULT_SNAPSHOT_SECONDS = 60;
+    
+    /**
+     * Closed-auction archive; override with -Dauction.archive.graceMinutes,
+     * -Dauction.archive.cacheSize and -Dauction.archive.segmentMB
+     */
+    private static final long DEFAULT_ARCHIVE_GRACE_MINUTES = 24 * 60;
+    private static final int DEFAULT_ARCHIVE_CACHE_SIZE = 1024;
+    
+    /**
+     * Auctions per CSV part file; override with -Dauction.export.partAuctions
+     */
+    private static final int DEFAULT_EXPORT_PART_AUCTIONS = 100_000;
+    
+    public static Path getSnapshotPath() {
+        return Paths.get(SNAPSHOT_FILE);
+    }
+    
+    public static Path getJournalPath() {
+        return Paths.get(JOURNAL_DIR);
+    }
+    
+    /**
+     * Save a state snapshot, replacing the previous one atomically so a
+     * crash mid-save leaves the old snapshot intact
+     */
+    public static boolean saveSnapshot(StateSnapshot snapshot, Path file) {
+        try {
+            replaceAtomically(file, channel -> SnapshotCodec.write(snapshot, channel));
+            System.out.println("✅ Snapshot saved to " + file + " (" + snapshot + ")");
+            return true;
         } catch (IOException e) {
-            System.err.println("❌ Error saving users: " + e.getMessage());
+            System.err.println("❌ Error saving snapshot: " + e.getMessage());
+            return false;
         }
     }
     
     /**
-     * Load users from file
+     * Writes the contents of a file being replaced
+     */
+    interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+    
+    /**
+     * Write a sibling temp file, force it to disk and move it over the
+     * target, so readers see either the old file or the complete new one
      */
-    @SuppressWarnings("unchecked")
-    public static Map<String, User> loadUsers() {
-        File file = new File(USERS_FILE);
-        if (!file.exists()) {
-            System.out.println("No saved users file found. Starting fresh.");
-            return new HashMap<>();
+    static void replaceAtomically(Path file, ChannelWriter writer) throws IOException {
+        Path temp = temporaryFor(file);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writer.write(channel);
+            channel.force(true);
         }
-        
-        try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(USERS_FILE))) {
-            Map<String, User> users = (Map<String, User>) ois.readObject();
-            System.out.println("✅ Loaded " + users.size() + " users from file");
-            return users;
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("❌ Error loading users: " + e.getMessage());
-            return new HashMap<>();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Load a state snapshot; an empty snapshot if the file does not exist
+     */
+    public static StateSnapshot loadSnapshot(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return StateSnapshot.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return SnapshotCodec.read(channel);
         }
     }
     
     /**
-     * Save all auctions to file
+     * Sibling temp file for an atomic replace, creating the directory if needed
      */
-    public static void saveAuctions(Map<String, AuctionItem> auctions) {
-        createDataDirectory();
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(AUCTIONS_FILE))) {
-            oos.writeObject(auctions);
-            System.out.println("✅ Auctions saved successfully to " + AUCTIONS_FILE);
+    static Path temporaryFor(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        return parent.resolve(file.getFileName() + ".tmp");
+    }
+    
+    /**
+     * Convert the legacy data/users.dat and data/auctions.dat files into a
+     * binary snapshot. The snapshot covers no journal events, so the whole
+     * journal is replayed on top of it at the next start.
+     */
+    public static boolean convertLegacyFiles(Path snapshotFile) {
+        return convertLegacyFiles(Paths.get(USERS_FILE), Paths.get(AUCTIONS_FILE), snapshotFile);
+    }
+    
+    /**
+     * Convert the given legacy files (see LegacyDataReader) into a binary
+     * snapshot. Returns false, leaving any existing snapshot untouched, if
+     * there is nothing to convert or the files cannot be read.
+     */
+    public static boolean convertLegacyFiles(Path usersFile, Path auctionsFile, Path snapshotFile) {
+        if (!Files.exists(usersFile) && !Files.exists(auctionsFile)) {
+            System.out.println("No legacy .dat files found to convert.");
+            return false;
+        }
+        LegacyDataReader reader = new LegacyDataReader();
+        Map<String, AuctionItem> auctions;
+        Map<String, User> users;
+        try {
+            auctions = reader.readAuctions(auctionsFile);
+            users = reader.readUsers(usersFile);
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            System.err.println("❌ Error converting legacy files: " + e);
+            return false;
+        }
+        System.out.println("✅ Converted " + users.size() + " users and " + auctions.size()
+            + " auctions (" + reader.getBidCount() + " bids) from legacy files");
+        if (reader.getUnknownBidIds() > 0) {
+            System.out.println("⚠️  Dropped " + reader.getUnknownBidIds() + " user bid IDs that matched no bid");
+        }
+        return saveSnapshot(new StateSnapshot(0, Clocks.millis(), users.values(), auctions.values()), snapshotFile);
+    }
+    
+    /**
+     * Open the event journal in data/journal, continuing after its last event.
+     * An accepted bid is on disk at most about fsyncMillis after it is journaled.
+     * Creation and close events are stamped by the given clock.
+     * Returns null if the journal cannot be opened.
+     */
+    public static EventJournal openJournal(ClockSource clock) {
+        try {
+            EventJournal journal = EventJournal.open(Paths.get(JOURNAL_DIR),
+                Long.getLong("auction.journal.fsyncMillis", DEFAULT_FSYNC_MILLIS),
+                Integer.getInteger("auction.journal.fsyncBatch", DEFAULT_FSYNC_BATCH),
+                Integer.getInteger("auction.journal.segmentMB", DEFAULT_SEGMENT_MB) * 1024L * 1024L, clock);
+            System.out.println("✅ Event journal ready in " + JOURNAL_DIR);
+            return journal;
         } catch (IOException e) {
-            System.err.println("❌ Error saving auctions: " + e.getMessage());
+            System.err.println("❌ Error opening event journal: " + e.getMessage());
+            return null;
         }
     }
     
     /**
-     * Load auctions from file
+     * Start writing incremental snapshots of the manager to data/snapshot.bin
+     * in the background. Returns null if background snapshots are turned off.
      */
-    @SuppressWarnings("unchecked")
-    public static Map<String, AuctionItem> loadAuctions() {
-        File file = new File(AUCTIONS_FILE);
-        if (!file.exists()) {
-            System.out.println("No saved auctions file found. Starting fresh.");
-            return new HashMap<>();
+    public static SnapshotWriter startSnapshotWriter(AuctionManager manager) {
+        long seconds = Long.getLong("auction.snapshot.intervalSeconds", DEFAULT_SNAPSHOT_SECONDS);
+        if (seconds <= 0) {
+            return null;
         }
-        
-        try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(AUCTIONS_FILE))) {
-            Map<String, AuctionItem> auctions = (Map<String, AuctionItem>) ois.readObject();
-            System.out.println("✅ Loaded " + auctions.size() + " auctions from file");
-            return auctions;
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("❌ Error loading auctions: " + e.getMessage());
-            return new HashMap<>();
+        SnapshotWriter writer = new SnapshotWriter(manager, getSnapshotPath());
+        writer.start(TimeUnit.SECONDS.toMillis(seconds));
+        System.out.println("✅ Background snapshots every " + seconds + "s to " + SNAPSHOT_FILE);
+        return writer;
+    }
+    
+    /**
+     * Open the closed-auction archive in data/archive.
+     * Returns null if the archive cannot be opened.
+     */
+    public static AuctionArchive openArchive() {
+        try {
+            AuctionArchive archive = AuctionArchive.open(Paths.get(ARCHIVE_DIR),
+                Integer.getInteger("auction.archive.segmentMB", DEFAULT_SEGMENT_MB) * 1024L * 1024L,
+                Integer.getInteger("auction.archive.cacheSize", DEFAULT_ARCHIVE_CACHE_SIZE));
+            System.out.println("✅ Auction archive ready in " + ARCHIVE_DIR + " (" + archive.size() + " auctions)");
+            return archive;
+        } catch (IOException e) {
+            System.err.println("❌ Error opening auction archive: " + e.getMessage());
+            return null;
         }
     }
     
+    /**
+     * Start moving auctions to the archive once they have been closed for
+     * the grace period
+     */
+    public static void startArchiving(AuctionManager manager) {
+        long minutes = Long.getLong("auction.archive.graceMinutes", DEFAULT_ARCHIVE_GRACE_MINUTES);
+        manager.startArchiving(TimeUnit.MINUTES.toMillis(minutes));
+        System.out.println("✅ Closed auctions move to the archive after " + minutes + " minutes");
+    }
+    
     /**
      * Create data directory if it doesn't exist
      */
@@ -95,25 +227,34 @@ public class FileManager {
     }
     
     /**
-     * Export auction data to CSV (for reporting)
+     * Export auction data to CSV (for reporting), one row per auction as
+     * the iterator yields them; gzip-compressed if the name ends in .gz
+     */
+    public static void exportAuctionsToCSV(Iterator<AuctionItem> auctions, String filename) {
+        exportToCSV(auctions, filename, false);
+    }
+    
+    /**
+     * Export every bid of the iterated auctions to CSV, one row per bid;
+     * gzip-compressed if the name ends in .gz
+     */
+    public static void exportBidsToCSV(Iterator<AuctionItem> auctions, String filename) {
+        exportToCSV(auctions, filename, true);
+    }
+    
+    /**
+     * Stream the export through CsvExporter. Exports longer than one part
+     * are split into part files written in parallel.
      */
-    public static void exportAuctionsToCSV(List<AuctionItem> auctions, String filename) {
+    private static void exportToCSV(Iterator<AuctionItem> auctions, String filename, boolean bids) {
         createDataDirectory();
-        try (PrintWriter writer = new PrintWriter(new FileWriter("data/" + filename))) {
-            writer.println("ItemID,Title,Description,CurrentBid,ReservePrice,State,Category,Seller");
-            
-            for (AuctionItem item : auctions) {
-                writer.printf("%s,\"%s\",\"%s\",%.2f,%.2f,%s,%s,%s%n",
-                    item.getItemId(),
-                    item.getTitle().replace("\"", "\"\""),
-                    item.getDescription().replace("\"", "\"\""),
-                    item.getCurrentBid(),
-                    item.getReservePrice(),
-                    item.getState(),
-                    item.getCategory(),
-                    item.getSellerUsername());
-            }
-            System.out.println("✅ Exported " + auctions.size() + " auctions to data/" + filename);
+        CsvExporter exporter = new CsvExporter(Paths.get("data"), filename.endsWith(".gz"));
+        int partSize = Integer.getInteger("auction.export.partAuctions", DEFAULT_EXPORT_PART_AUCTIONS);
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            CsvExporter.Result result = bids ? exporter.exportBids(auctions, filename, partSize, threads)
+                                             : exporter.exportAuctions(auctions, filename, partSize, threads);
+            System.out.println("✅ Exported " + result + " to data/" + filename);
         } catch (IOException e) {
             System.err.println("❌ Error exporting to CSV: " + e.getMessage());
         }
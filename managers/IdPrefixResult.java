@@ -0,0 +1,43 @@
+package com.auction.managers;
+
+import com.auction.enums.PrefixMatch;
+import com.auction.models.AuctionItem;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of looking up an auction by ID prefix. Holds the match for a
+ * unique prefix and the first few candidates for an ambiguous one.
+ */
+public class IdPrefixResult {
+    private final PrefixMatch match;
+    private final List<AuctionItem> candidates;
+    
+    IdPrefixResult(PrefixMatch match, List<AuctionItem> candidates) {
+        this.match = match;
+        this.candidates = Collections.unmodifiableList(candidates);
+    }
+    
+    public PrefixMatch getMatch() {
+        return match;
+    }
+    
+    public boolean isUnique() {
+        return match == PrefixMatch.UNIQUE;
+    }
+    
+    /**
+     * The matching auction, or null unless the prefix is unique
+     */
+    public AuctionItem getItem() {
+        return isUnique() ? candidates.get(0) : null;
+    }
+    
+    /**
+     * Matching auctions in ID order (capped for ambiguous prefixes)
+     */
+    public List<AuctionItem> getCandidates() {
+        return candidates;
+    }
+}
@@ -0,0 +1,217 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.ItemCategory;
+import com.auction.enums.UserRole;
+import com.auction.models.AuctionItem;
+import com.auction.models.Money;
+import com.auction.models.User;
+import com.auction.util.Ids;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Reads the legacy users.dat and auctions.dat files written by Java
+ * serialization before the snapshot format. Those files hold the old field
+ * shapes (dollar doubles, UUID bid IDs, LocalDateTime times, List bid IDs),
+ * so their class descriptors are resolved to private mirror classes, which
+ * are then converted: dollars to cents, and each bid gets a new numeric ID
+ * that its bidder's bid list follows. Read auctions before users.
+ */
+class LegacyDataReader {
+    
+    /**
+     * Mirror class for each legacy model class name
+     */
+    private static final Map<String, Class<?>> LEGACY_CLASSES = new HashMap<>();
+    
+    static {
+        LEGACY_CLASSES.put("com.auction.models.User", LegacyUser.class);
+        LEGACY_CLASSES.put("com.auction.models.Admin", LegacyAdmin.class);
+        LEGACY_CLASSES.put("com.auction.models.AuctionItem", LegacyAuctionItem.class);
+        LEGACY_CLASSES.put("com.auction.models.Bid", LegacyBid.class);
+    }
+    
+    private final Map<String, Long> bidIds = new HashMap<>(); // legacy bid UUID -> new bid ID
+    private int bidCount;
+    private int unknownBidIds;
+    
+    /**
+     * Bids converted so far
+     */
+    int getBidCount() {
+        return bidCount;
+    }
+    
+    /**
+     * Bid IDs in users' lists that matched no converted bid, and were dropped
+     */
+    int getUnknownBidIds() {
+        return unknownBidIds;
+    }
+    
+    /**
+     * Read and convert auctions; an empty map if the file does not exist
+     */
+    Map<String, AuctionItem> readAuctions(Path file) throws IOException, ClassNotFoundException {
+        Map<String, AuctionItem> auctions = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : readMap(file).entrySet()) {
+            Object value = entry.getValue();
+            AuctionItem item = value instanceof LegacyAuctionItem
+                ? convert((LegacyAuctionItem) value) : (AuctionItem) value;
+            auctions.put(item.getItemId(), item);
+        }
+        return auctions;
+    }
+    
+    /**
+     * Read and convert users; an empty map if the file does not exist
+     */
+    Map<String, User> readUsers(Path file) throws IOException, ClassNotFoundException {
+        Map<String, User> users = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : readMap(file).entrySet()) {
+            Object value = entry.getValue();
+            User user = value instanceof LegacyUser ? convert((LegacyUser) value) : (User) value;
+            users.put(user.getUserId(), user);
+        }
+        return users;
+    }
+    
+    private static Map<?, ?> readMap(Path file) throws IOException, ClassNotFoundException {
+        if (!Files.exists(file)) {
+            return Collections.emptyMap();
+        }
+        try (ObjectInputStream in = new LegacyInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return (Map<?, ?>) in.readObject();
+        }
+    }
+    
+    private AuctionItem convert(LegacyAuctionItem legacy) {
+        AuctionItem item = AuctionItem.restore(legacy.itemId, legacy.title, legacy.description,
+            cents(legacy.startingPrice), cents(legacy.reservePrice), Math.max(1, cents(legacy.minimumBidIncrement)),
+            legacy.sellerId, legacy.sellerUsername, legacy.category, millis(legacy.startTime), millis(legacy.endTime));
+        List<LegacyBid> bids = legacy.bidHistory == null ? Collections.emptyList() : legacy.bidHistory;
+        for (int position = 0; position < bids.size(); position++) {
+            LegacyBid bid = bids.get(position);
+            long bidId = Ids.next();
+            bidIds.put(bid.bidId, bidId);
+            item.restoreBid(position, bidId, bid.bidderId, bid.bidderUsername, cents(bid.amount), millis(bid.timestamp));
+        }
+        bidCount += bids.size();
+        item.finishRestore(legacy.state, null);
+        return item;
+    }
+    
+    private User convert(LegacyUser legacy) {
+        User user = User.restore(legacy.userId, legacy.username, legacy.email, legacy.role,
+            legacy.salt, legacy.passwordHash);
+        if (legacy.myBidIds != null) {
+            for (String legacyId : legacy.myBidIds) {
+                Long bidId = bidIds.get(legacyId);
+                if (bidId == null) {
+                    unknownBidIds++;
+                } else {
+                    user.addBidId(bidId);
+                }
+            }
+        }
+        return user;
+    }
+    
+    private static long cents(double dollars) {
+        return Math.round(dollars * Money.CENTS_PER_DOLLAR);
+    }
+    
+    private static long millis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    /**
+     * Swaps a legacy model's class descriptor for its mirror's when the
+     * stream's fields have the legacy shape; anything else reads as usual
+     */
+    private static final class LegacyInputStream extends ObjectInputStream {
+        
+        LegacyInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+        
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            ObjectStreamClass desc = super.readClassDescriptor();
+            Class<?> legacy = LEGACY_CLASSES.get(desc.getName());
+            if (legacy == null) {
+                return desc;
+            }
+            ObjectStreamClass mirror = ObjectStreamClass.lookup(legacy);
+            return sameFields(desc, mirror) ? mirror : desc;
+        }
+        
+        private static boolean sameFields(ObjectStreamClass desc, ObjectStreamClass mirror) {
+            if (desc.getSerialVersionUID() != mirror.getSerialVersionUID()
+                    || desc.getFields().length != mirror.getFields().length) {
+                return false;
+            }
+            for (ObjectStreamField field : desc.getFields()) {
+                ObjectStreamField match = mirror.getField(field.getName());
+                if (match == null || match.getTypeCode() != field.getTypeCode()
+                        || !Objects.equals(match.getTypeString(), field.getTypeString())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    
+    private static class LegacyUser implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private String userId;
+        private String username;
+        private String passwordHash;
+        private String salt;
+        private String email;
+        private UserRole role;
+        private List<String> myBidIds;
+    }
+    
+    private static final class LegacyAdmin extends LegacyUser {
+        private static final long serialVersionUID = 1L;
+    }
+    
+    private static final class LegacyAuctionItem implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private String itemId;
+        private String title;
+        private String description;
+        private double startingPrice;
+        private double reservePrice;
+        private double currentBid;
+        private double minimumBidIncrement;
+        private String sellerId;
+        private String sellerUsername;
+        private ItemCategory category;
+        private AuctionState state;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private List<LegacyBid> bidHistory;
+        private String currentHighestBidderId;
+    }
+    
+    private static final class LegacyBid implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private String bidId;
+        private String bidderId;
+        private String bidderUsername;
+        private double amount;
+        private LocalDateTime timestamp;
+        private String auctionItemId;
+    }
+}
@@ -0,0 +1,295 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.ItemCategory;
+import com.auction.enums.UserRole;
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.models.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds the AuctionManager after a restart: load the latest snapshot,
+ * replay only the journal events after it, finish each auction's bid state,
+ * re-register bidders as observers, rebuild the indexes, and re-arm close
+ * timers from the persisted end times.
+ *
+ * Replay is idempotent: a user, auction or bid position that is already
+ * present is skipped, so a snapshot that saw a few events past its sequence
+ * is harmless. Auctions found in the manager's archive stay there and are
+ * not restored into memory. Each phase is timed and reported.
+ */
+public class RecoveryManager {
+    
+    private RecoveryManager() {
+    }
+    
+    /**
+     * What recovery did and how long each phase took
+     */
+    public static final class Report {
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        private long snapshotSequence;
+        private long lastSequence;
+        private long eventsReplayed;
+        private long bidsReplayed;
+        private long eventsSkipped;
+        private int users;
+        private int auctions;
+        private int archived;
+        private int timersArmed;
+        
+        private void phase(String name, long startNanos) {
+            phaseNanos.put(name, System.nanoTime() - startNanos);
+        }
+        
+        /**
+         * Phase names and durations in milliseconds, in the order they ran
+         */
+        public Map<String, Long> getPhaseMillis() {
+            Map<String, Long> millis = new LinkedHashMap<>();
+            phaseNanos.forEach((name, nanos) -> millis.put(name, TimeUnit.NANOSECONDS.toMillis(nanos)));
+            return millis;
+        }
+        
+        public long getTotalMillis() {
+            long total = 0;
+            for (long nanos : phaseNanos.values()) {
+                total += nanos;
+            }
+            return TimeUnit.NANOSECONDS.toMillis(total);
+        }
+        
+        public long getSnapshotSequence() {
+            return snapshotSequence;
+        }
+        
+        public long getLastSequence() {
+            return lastSequence;
+        }
+        
+        public long getEventsReplayed() {
+            return eventsReplayed;
+        }
+        
+        public long getBidsReplayed() {
+            return bidsReplayed;
+        }
+        
+        public int getUserCount() {
+            return users;
+        }
+        
+        public int getAuctionCount() {
+            return auctions;
+        }
+        
+        /**
+         * Auctions left in the archive instead of being restored
+         */
+        public int getArchivedCount() {
+            return archived;
+        }
+        
+        public int getTimersArmed() {
+            return timersArmed;
+        }
+        
+        public void print() {
+            System.out.println("\n=== RECOVERY ===");
+            System.out.printf("Snapshot at event #%d, journal replayed to #%d (%d events, %d bids, %d skipped)\n",
+                snapshotSequence, lastSequence, eventsReplayed, bidsReplayed, eventsSkipped);
+            System.out.printf("Restored %d users and %d auctions (%d archived), %d close timers armed\n",
+                users, auctions, archived, timersArmed);
+            getPhaseMillis().forEach((name, millis) -> System.out.printf("  %-16s %6d ms\n", name, millis));
+            System.out.printf("  %-16s %6d ms\n", "total", getTotalMillis());
+        }
+    }
+    
+    /**
+     * Journal-only state gathered per auction during replay
+     */
+    private static final class ReplayState {
+        private boolean closed;
+        private Map<String, Long> proxyMaximums;
+    }
+    
+    /**
+     * Recover into an empty manager. A missing snapshot or journal counts
+     * as empty, so a first start recovers nothing.
+     */
+    public static Report recover(AuctionManager manager, Path snapshotFile, Path journalDirectory) throws IOException {
+        Report report = new Report();
+        
+        // Phase 1: snapshot
+        long start = System.nanoTime();
+        StateSnapshot snapshot = FileManager.loadSnapshot(snapshotFile);
+        Map<String, User> users = new LinkedHashMap<>();
+        for (User user : snapshot.getUsers()) {
+            users.put(user.getUserId(), user);
+        }
+        Map<String, AuctionItem> auctions = new LinkedHashMap<>();
+        for (AuctionItem item : snapshot.getAuctions()) {
+            auctions.put(item.getItemId(), item);
+        }
+        report.snapshotSequence = snapshot.getJournalSequence();
+        report.phase("load snapshot", start);
+        
+        // Phase 2: journal tail
+        start = System.nanoTime();
+        Map<String, ReplayState> replayed = new HashMap<>();
+        AuctionArchive archive = manager.getArchive();
+        report.lastSequence = EventJournal.read(journalDirectory, snapshot.getJournalSequence(), record -> {
+            report.eventsReplayed++;
+            if (!apply(record, users, auctions, replayed, archive, report)) {
+                report.eventsSkipped++;
+            }
+        });
+        report.phase("replay journal", start);
+        
+        // Auctions moved to the archive after the snapshot was taken stay there
+        if (archive != null) {
+            start = System.nanoTime();
+            auctions.keySet().removeIf(archive::contains);
+            replayed.keySet().removeIf(archive::contains);
+            report.archived = archive.size();
+            report.phase("skip archived", start);
+        }
+        
+        // Phase 3: derive each replayed auction's current bid, leader and state,
+        // and re-attach every auction's bidders as observers
+        start = System.nanoTime();
+        auctions.forEach((itemId, item) -> {
+            ReplayState state = replayed.get(itemId);
+            AuctionState current = item.getState();
+            if (state == null) {
+                item.finishRestore(current, null, users);
+                return;
+            }
+            AuctionState restored = state.closed || current == AuctionState.CLOSED
+                ? AuctionState.CLOSED : AuctionState.ACTIVE;
+            item.finishRestore(restored, state.proxyMaximums, users);
+        });
+        report.phase("finish auctions", start);
+        
+        // Phase 4: indexes, statistics and per-user bid positions
+        start = System.nanoTime();
+        manager.restoreState(users.values(), auctions.values());
+        report.users = users.size();
+        report.auctions = auctions.size();
+        report.phase("rebuild indexes", start);
+        
+        // Phase 5: close timers
+        start = System.nanoTime();
+        report.timersArmed = manager.armCloseTimers();
+        report.phase("arm timers", start);
+        
+        AuctionLogger.info("✅ Recovery complete: %d users, %d auctions, %d events replayed in %d ms",
+            report.users, report.auctions, report.eventsReplayed, report.getTotalMillis());
+        return report;
+    }
+    
+    /**
+     * Apply one journal event; returns false if it was already reflected or refers to nothing
+     */
+    private static boolean apply(EventJournal.Record record, Map<String, User> users,
+                                 Map<String, AuctionItem> auctions, Map<String, ReplayState> replayed,
+                                 AuctionArchive archive, Report report) {
+        switch (record.getType()) {
+            case USER_REGISTERED: {
+                String userId = record.readString();
+                if (users.containsKey(userId)) {
+                    return false;
+                }
+                String username = record.readString();
+                String email = record.readString();
+                UserRole role = UserRole.valueOf(record.readString());
+                String salt = record.readString();
+                String passwordHash = record.readString();
+                users.put(userId, User.restore(userId, username, email, role, salt, passwordHash));
+                return true;
+            }
+            case AUCTION_CREATED: {
+                String itemId = record.readString();
+                if (auctions.containsKey(itemId)) {
+                    return false;
+                }
+                String title = record.readString();
+                String description = record.readString();
+                long startingPrice = record.readLong();
+                long reservePrice = record.readLong();
+                long increment = record.readLong();
+                String sellerId = record.readString();
+                String sellerUsername = record.readString();
+                ItemCategory category = ItemCategory.valueOf(record.readString());
+                long createdAt = record.readLong();
+                long endTime = record.readLong();
+                auctions.put(itemId, AuctionItem.restore(itemId, title, description, startingPrice, reservePrice,
+                    increment, sellerId, sellerUsername, category, createdAt, endTime));
+                replayed.computeIfAbsent(itemId, k -> new ReplayState());
+                return true;
+            }
+            case BID_ACCEPTED: {
+                String itemId = record.readString();
+                AuctionItem item = auctions.get(itemId);
+                if (item == null) {
+                    return false;
+                }
+                int position = record.readInt();
+                long bidId = record.readLong();
+                String bidderId = record.readString();
+                String bidderUsername = record.readString();
+                long amount = record.readLong();
+                long timestamp = record.readLong();
+                if (!item.restoreBid(position, bidId, bidderId, bidderUsername, amount, timestamp)) {
+                    return false;
+                }
+                replayed.computeIfAbsent(itemId, k -> new ReplayState());
+                report.bidsReplayed++;
+                return true;
+            }
+            case PROXY_MAXIMUM: {
+                String itemId = record.readString();
+                if (!auctions.containsKey(itemId)) {
+                    return false;
+                }
+                String leaderId = record.readString();
+                long maximum = record.readLong();
+                // Events from concurrent bids may be journaled out of order; a bidder's maximum only grows
+                ReplayState state = replayed.computeIfAbsent(itemId, k -> new ReplayState());
+                if (state.proxyMaximums == null) {
+                    state.proxyMaximums = new HashMap<>();
+                }
+                state.proxyMaximums.merge(leaderId, maximum, Math::max);
+                return true;
+            }
+            case AUCTION_CLOSED: {
+                String itemId = record.readString();
+                if (!auctions.containsKey(itemId)) {
+                    return false;
+                }
+                replayed.computeIfAbsent(itemId, k -> new ReplayState()).closed = true;
+                return true;
+            }
+            case AUCTION_REMOVED: {
+                String itemId = record.readString();
+                replayed.remove(itemId);
+                if (auctions.remove(itemId) != null) {
+                    return true;
+                }
+                try {
+                    return archive != null && archive.remove(itemId);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.auction.managers;
+
+import com.auction.models.AuctionItem;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Inverted index over auction titles and descriptions.
+ * Terms are lower-cased runs of letters and digits. Queries AND their terms,
+ * treat the last term (or any term ending in '*') as a prefix, and rank hits
+ * by tf-idf with title matches weighted above description matches.
+ */
+class SearchIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    
+    // Sorted so a prefix term is a range scan
+    private final ConcurrentSkipListMap<String, Map<AuctionItem, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<AuctionItem, Set<String>> termsByItem = new ConcurrentHashMap<>();
+    private final AtomicInteger documentCount = new AtomicInteger();
+    
+    /**
+     * Index the title and description of a new auction
+     */
+    void add(AuctionItem item) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(item.getTitle(), term -> weights.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(item.getDescription(), term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        
+        if (termsByItem.putIfAbsent(item, weights.keySet()) != null) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            postings.compute(entry.getKey(), (term, items) -> {
+                Map<AuctionItem, Integer> termItems = items != null ? items : new ConcurrentHashMap<>();
+                termItems.put(item, entry.getValue());
+                return termItems;
+            });
+        }
+        documentCount.incrementAndGet();
+    }
+    
+    /**
+     * Drop a removed auction from the index
+     */
+    void remove(AuctionItem item) {
+        Set<String> terms = termsByItem.remove(item);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            postings.computeIfPresent(term, (t, items) -> {
+                items.remove(item);
+                return items.isEmpty() ? null : items;
+            });
+        }
+        documentCount.decrementAndGet();
+    }
+    
+    /**
+     * Every auction matching all query terms, most relevant first
+     */
+    List<AuctionItem> search(String query) {
+        return rank(score(query), Integer.MAX_VALUE);
+    }
+    
+    /**
+     * One page of the ranked results
+     */
+    SearchPage search(String query, int pageNumber, int pageSize) {
+        Map<AuctionItem, Double> scores = score(query);
+        long end = (long) (pageNumber + 1) * pageSize;
+        List<AuctionItem> top = rank(scores, (int) Math.min(end, Integer.MAX_VALUE));
+        int from = Math.min(pageNumber * pageSize, top.size());
+        return new SearchPage(new ArrayList<>(top.subList(from, top.size())), scores.size(), pageNumber, pageSize);
+    }
+    
+    /**
+     * Score every auction that matches all terms of the query
+     */
+    private Map<AuctionItem, Double> score(String query) {
+        List<String> terms = new ArrayList<>();
+        List<Boolean> prefixes = new ArrayList<>();
+        parseQuery(query, terms, prefixes);
+        if (terms.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        // Look up each term's candidates, then intersect starting from the rarest
+        List<Map<AuctionItem, Double>> matches = new ArrayList<>(terms.size());
+        int documents = Math.max(1, documentCount.get());
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean prefix = prefixes.get(i);
+            Map<AuctionItem, Double> termScores = new HashMap<>();
+            Map<String, Map<AuctionItem, Integer>> expanded = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : singleTerm(term);
+            for (Map<AuctionItem, Integer> items : expanded.values()) {
+                double idf = Math.log(1.0 + (double) documents / items.size());
+                for (Map.Entry<AuctionItem, Integer> posting : items.entrySet()) {
+                    termScores.merge(posting.getKey(), posting.getValue() * idf, Double::sum);
+                }
+            }
+            if (termScores.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            matches.add(termScores);
+        }
+        matches.sort(Comparator.comparingInt(Map::size));
+        
+        Map<AuctionItem, Double> result = new HashMap<>(matches.get(0));
+        for (int i = 1; i < matches.size() && !result.isEmpty(); i++) {
+            Map<AuctionItem, Double> termScores = matches.get(i);
+            Iterator<Map.Entry<AuctionItem, Double>> it = result.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<AuctionItem, Double> entry = it.next();
+                Double termScore = termScores.get(entry.getKey());
+                if (termScore == null) {
+                    it.remove();
+                } else {
+                    entry.setValue(entry.getValue() + termScore);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Split a query into terms; a term is a prefix if it ends in '*' or
+     * is the last thing typed (no trailing separator)
+     */
+    private static void parseQuery(String query, List<String> terms, List<Boolean> prefixes) {
+        StringBuilder token = new StringBuilder(16);
+        for (int i = 0; i <= query.length(); i++) {
+            char c = i < query.length() ? query.charAt(i) : ' ';
+            if (i < query.length() && Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                terms.add(token.toString());
+                prefixes.add(c == '*' || i == query.length());
+                token.setLength(0);
+            }
+        }
+    }
+    
+    private Map<String, Map<AuctionItem, Integer>> singleTerm(String term) {
+        Map<AuctionItem, Integer> items = postings.get(term);
+        return items == null ? Collections.emptyMap() : Collections.singletonMap(term, items);
+    }
+    
+    /**
+     * The best limit hits, ordered by score then by item ID
+     */
+    private static List<AuctionItem> rank(Map<AuctionItem, Double> scores, int limit) {
+        Comparator<Map.Entry<AuctionItem, Double>> order =
+            Map.Entry.<AuctionItem, Double>comparingByValue().reversed()
+                .thenComparing(entry -> entry.getKey().getItemId());
+        
+        List<Map.Entry<AuctionItem, Double>> hits;
+        if (limit >= scores.size()) {
+            hits = new ArrayList<>(scores.entrySet());
+            hits.sort(order);
+        } else {
+            // Keep only the best limit entries in a bounded heap (worst at the head)
+            PriorityQueue<Map.Entry<AuctionItem, Double>> heap = new PriorityQueue<>(limit + 1, order.reversed());
+            for (Map.Entry<AuctionItem, Double> entry : scores.entrySet()) {
+                heap.offer(entry);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            hits = new ArrayList<>(heap);
+            hits.sort(order);
+        }
+        
+        List<AuctionItem> items = new ArrayList<>(hits.size());
+        for (Map.Entry<AuctionItem, Double> hit : hits) {
+            items.add(hit.getKey());
+        }
+        return items;
+    }
+    
+    /**
+     * Split text into lower-cased letter/digit runs without copying the whole text
+     */
+    private static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder(16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                sink.accept(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            sink.accept(token.toString());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.auction.managers;
+
+import com.auction.models.AuctionItem;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of search results, most relevant first
+ */
+public class SearchPage {
+    private final List<AuctionItem> items;
+    private final int totalHits;
+    private final int pageNumber;
+    private final int pageSize;
+    
+    SearchPage(List<AuctionItem> items, int totalHits, int pageNumber, int pageSize) {
+        this.items = Collections.unmodifiableList(items);
+        this.totalHits = totalHits;
+        this.pageNumber = pageNumber;
+        this.pageSize = pageSize;
+    }
+    
+    public List<AuctionItem> getItems() {
+        return items;
+    }
+    
+    /**
+     * Number of auctions matching the query across all pages
+     */
+    public int getTotalHits() {
+        return totalHits;
+    }
+    
+    /**
+     * Zero-based page number
+     */
+    public int getPageNumber() {
+        return pageNumber;
+    }
+    
+    public boolean hasMore() {
+        return (long) (pageNumber + 1) * pageSize < totalHits;
+    }
+}
@@ -0,0 +1,542 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.ItemCategory;
+import com.auction.enums.UserRole;
+import com.auction.models.AuctionItem;
+import com.auction.models.BidHistory;
+import com.auction.models.User;
+import com.auction.util.Ids;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ * Schema-versioned binary format for state snapshots, replacing Java
+ * serialization of whole maps.
+ *
+ * Layout: magic "AUCS", format version, a header record (journal sequence,
+ * capture time, and the names of every enum constant used, so records store
+ * small indexes that survive enum reordering), the user records, the auction
+ * records, then a CRC32C of everything before it. Every record is
+ * length-prefixed, so a reader can skip or hand off records without decoding
+ * them. Numbers are varints; IDs in the standard 13-character form are
+ * stored as their 64-bit value; salts and hashes as raw bytes.
+ *
+ * Each auction record carries its own bidder dictionary (ID and username
+ * once per distinct bidder), and each bid stores a dictionary index plus
+ * zigzag deltas of bid ID, amount and timestamp from the previous bid.
+ * Records do not depend on each other, so an auction's encoding can be
+ * cached and reused while the auction is unchanged.
+ *
+ * Encoding and decoding stream through a fixed NIO buffer, so memory use
+ * does not grow with the file.
+ */
+public final class SnapshotCodec {
+    public static final int FORMAT_VERSION = 1;
+    
+    private static final byte[] MAGIC = "AUCS".getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_BYTES = 1024 * 1024;
+    private static final int MAX_RECORD_BYTES = Integer.MAX_VALUE - 8;
+    
+    // Tags for values with a compact and a fallback form
+    private static final int ID_NUMERIC = 1;
+    private static final int ID_TEXT = 2;
+    private static final int BASE64_RAW = 1;
+    private static final int BASE64_TEXT = 2;
+    
+    private SnapshotCodec() {
+    }
+    
+    // ==================== WRITING ====================
+    
+    /**
+     * Stream a snapshot to a channel; the channel is not closed
+     */
+    public static void write(StateSnapshot snapshot, WritableByteChannel channel) throws IOException {
+        write(snapshot.getJournalSequence(), snapshot.getTakenAtMillis(), snapshot.getUsers().size(),
+              snapshot.getUsers(), encodedAuctions(snapshot.getAuctions()), channel);
+    }
+    
+    /**
+     * Stream a snapshot whose auction records are already encoded, e.g.
+     * cached encodings of unchanged auctions
+     */
+    static void write(long journalSequence, long takenAtMillis, int userCount, Iterable<User> users,
+                      Collection<byte[]> auctionRecords, WritableByteChannel channel) throws IOException {
+        Output out = new Output(channel);
+        out.writeRaw(ByteBuffer.wrap(MAGIC));
+        ByteWriter record = new ByteWriter(4096);
+        record.putVarInt(FORMAT_VERSION);
+        out.writeRaw(record.view());
+        
+        record.clear();
+        record.putVarLong(journalSequence).putVarLong(takenAtMillis);
+        putNames(record, UserRole.values());
+        putNames(record, ItemCategory.values());
+        putNames(record, AuctionState.values());
+        out.writeRecord(record.view());
+        
+        out.writeCount(userCount);
+        for (User user : users) {
+            record.clear();
+            encodeUser(user, record);
+            out.writeRecord(record.view());
+        }
+        
+        out.writeCount(auctionRecords.size());
+        for (byte[] auction : auctionRecords) {
+            out.writeRecord(ByteBuffer.wrap(auction));
+        }
+        out.finish();
+    }
+    
+    private static Collection<byte[]> encodedAuctions(List<AuctionItem> auctions) {
+        // Encode lazily so only one auction's bytes are held at a time
+        return new AbstractCollection<byte[]>() {
+            @Override
+            public Iterator<byte[]> iterator() {
+                Iterator<AuctionItem> items = auctions.iterator();
+                ByteWriter record = new ByteWriter(4096);
+                return new Iterator<byte[]>() {
+                    @Override
+                    public boolean hasNext() {
+                        return items.hasNext();
+                    }
+                    
+                    @Override
+                    public byte[] next() {
+                        record.clear();
+                        encodeAuction(items.next(), record);
+                        return record.toArray();
+                    }
+                };
+            }
+            
+            @Override
+            public int size() {
+                return auctions.size();
+            }
+        };
+    }
+    
+    /**
+     * Enum constant names in ordinal order, so readers map ordinals by name
+     */
+    static void putNames(ByteWriter record, Enum<?>[] constants) {
+        record.putVarInt(constants.length);
+        for (Enum<?> constant : constants) {
+            record.putString(constant.name());
+        }
+    }
+    
+    static void encodeUser(User user, ByteWriter record) {
+        putId(record, user.getUserId());
+        record.putString(user.getUsername());
+        record.putString(user.getEmail());
+        record.putVarInt(user.getRole().ordinal());
+        putBase64(record, user.getSalt());
+        putBase64(record, user.getPasswordHash());
+        
+        long[] bidIds = user.getMyBidIds();
+        record.putVarInt(bidIds.length);
+        long previous = 0;
+        for (long bidId : bidIds) {
+            record.putSignedVarLong(bidId - previous);
+            previous = bidId;
+        }
+    }
+    
+    /**
+     * Encode an auction and the bids visible right now
+     */
+    static void encodeAuction(AuctionItem item, ByteWriter record) {
+        putId(record, item.getItemId());
+        record.putString(item.getTitle());
+        record.putString(item.getDescription());
+        record.putVarLong(item.getStartingPrice());
+        record.putVarLong(item.getReservePrice());
+        record.putVarLong(item.getMinimumBidIncrement());
+        putId(record, item.getSellerId());
+        record.putString(item.getSellerUsername());
+        record.putVarInt(item.getCategory().ordinal());
+        record.putVarInt(item.getState().ordinal());
+        long startTime = item.getStartTimeMillis();
+        record.putVarLong(startTime);
+        record.putSignedVarLong(item.getEndTimeMillis() - startTime);
+        
+        // Bidder dictionary first, so bids can refer to it by index
+        BidHistory.Cursor cursor = item.getBidCursor();
+        Map<String, Integer> bidderIndex = new LinkedHashMap<>();
+        List<String> bidderNames = new ArrayList<>();
+        int[] bidders = new int[16];
+        int count = 0;
+        String lastBidder = null;
+        while (cursor.next()) {
+            String bidderId = cursor.bidderId();
+            Integer index = bidderIndex.get(bidderId);
+            if (index == null) {
+                index = bidderIndex.size();
+                bidderIndex.put(bidderId, index);
+                bidderNames.add(cursor.bidderUsername());
+            }
+            if (count == bidders.length) {
+                bidders = Arrays.copyOf(bidders, count * 2);
+            }
+            bidders[count++] = index;
+            lastBidder = bidderId;
+        }
+        
+        record.putVarInt(bidderIndex.size());
+        int i = 0;
+        for (String bidderId : bidderIndex.keySet()) {
+            putId(record, bidderId);
+            record.putString(bidderNames.get(i++));
+        }
+        
+        // Then the bids, as deltas from the previous one; the cursor re-reads only the first count bids
+        record.putVarInt(count);
+        BidHistory.Cursor bids = item.getBidCursor();
+        long previousId = 0;
+        long previousAmount = item.getStartingPrice();
+        long previousTime = startTime;
+        for (int position = 0; position < count && bids.next(); position++) {
+            record.putVarInt(bidders[position]);
+            record.putSignedVarLong(bids.bidId() - previousId);
+            record.putSignedVarLong(bids.amount() - previousAmount);
+            record.putSignedVarLong(bids.timestampMillis() - previousTime);
+            previousId = bids.bidId();
+            previousAmount = bids.amount();
+            previousTime = bids.timestampMillis();
+        }
+        
+        // The leader's hidden proxy maximum above the current bid, if any
+        long currentBid = count == 0 ? item.getStartingPrice() : previousAmount;
+        record.putVarLong(Math.max(0, item.getLeaderMaximum(lastBidder) - currentBid));
+    }
+    
+    /**
+     * Standard IDs as their numeric value, anything else (e.g. legacy UUIDs) as text
+     */
+    private static void putId(ByteWriter record, String id) {
+        if (id != null && id.length() == Ids.TEXT_LENGTH) {
+            try {
+                long value = Ids.fromText(id);
+                if (Ids.toText(value).equals(id)) {
+                    record.putByte(ID_NUMERIC).putLong(value);
+                    return;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not a standard ID; store the text
+            }
+        }
+        record.putByte(ID_TEXT).putString(id);
+    }
+    
+    private static void putBase64(ByteWriter record, String text) {
+        if (text != null) {
+            try {
+                byte[] raw = Base64.getDecoder().decode(text);
+                if (Base64.getEncoder().encodeToString(raw).equals(text)) {
+                    record.putByte(BASE64_RAW).putBytes(raw);
+                    return;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not canonical base64; store the text
+            }
+        }
+        record.putByte(BASE64_TEXT).putString(text);
+    }
+    
+    // ==================== READING ====================
+    
+    /**
+     * Stream a snapshot from a channel, checking its version and checksum
+     */
+    public static StateSnapshot read(ReadableByteChannel channel) throws IOException {
+        Input in = new Input(channel);
+        ByteBuffer magic = in.take(MAGIC.length);
+        for (byte b : MAGIC) {
+            if (magic.get() != b) {
+                throw new IOException("Not a snapshot file");
+            }
+        }
+        int version = in.readCount();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version
+                + " (this build reads version " + FORMAT_VERSION + ")");
+        }
+        
+        ByteReader header = in.readRecord();
+        long journalSequence = header.getVarLong();
+        long takenAt = header.getVarLong();
+        UserRole[] roles = getNames(header, UserRole.class);
+        ItemCategory[] categories = getNames(header, ItemCategory.class);
+        AuctionState[] states = getNames(header, AuctionState.class);
+        
+        int userCount = in.readCount();
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(decodeUser(in.readRecord(), roles));
+        }
+        
+        int auctionCount = in.readCount();
+        List<AuctionItem> auctions = new ArrayList<>(auctionCount);
+        for (int i = 0; i < auctionCount; i++) {
+            auctions.add(decodeAuction(in.readRecord(), categories, states));
+        }
+        
+        in.verifyChecksum();
+        return new StateSnapshot(journalSequence, takenAt, users, auctions);
+    }
+    
+    static <E extends Enum<E>> E[] getNames(ByteReader record, Class<E> type) throws IOException {
+        int count = record.getCount();
+        E[] constants = Arrays.copyOf(type.getEnumConstants(), count);
+        for (int i = 0; i < count; i++) {
+            String name = record.getString();
+            try {
+                constants[i] = Enum.valueOf(type, name);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IOException("Unknown " + type.getSimpleName() + " '" + name + "' in snapshot");
+            }
+        }
+        return constants;
+    }
+    
+    private static <E> E lookup(E[] table, int index) throws IOException {
+        if (index >= table.length) {
+            throw new IOException("Bad enum index " + index);
+        }
+        return table[index];
+    }
+    
+    private static User decodeUser(ByteReader record, UserRole[] roles) throws IOException {
+        String userId = getId(record);
+        String username = record.getString();
+        String email = record.getString();
+        UserRole role = lookup(roles, record.getCount());
+        String salt = getBase64(record);
+        String passwordHash = getBase64(record);
+        User user = User.restore(userId, username, email, role, salt, passwordHash);
+        
+        int bidCount = record.getCount();
+        long bidId = 0;
+        for (int i = 0; i < bidCount; i++) {
+            bidId += record.getSignedVarLong();
+            user.addBidId(bidId);
+        }
+        return user;
+    }
+    
+    static AuctionItem decodeAuction(ByteReader record, ItemCategory[] categories,
+                                     AuctionState[] states) throws IOException {
+        String itemId = getId(record);
+        String title = record.getString();
+        String description = record.getString();
+        long startingPrice = record.getVarLong();
+        long reservePrice = record.getVarLong();
+        long increment = record.getVarLong();
+        String sellerId = getId(record);
+        String sellerUsername = record.getString();
+        ItemCategory category = lookup(categories, record.getCount());
+        AuctionState state = lookup(states, record.getCount());
+        long startTime = record.getVarLong();
+        long endTime = startTime + record.getSignedVarLong();
+        AuctionItem item = AuctionItem.restore(itemId, title, description, startingPrice, reservePrice,
+            increment, sellerId, sellerUsername, category, startTime, endTime);
+        
+        int bidderCount = record.getCount();
+        String[] bidderIds = new String[bidderCount];
+        String[] bidderNames = new String[bidderCount];
+        for (int i = 0; i < bidderCount; i++) {
+            bidderIds[i] = getId(record);
+            bidderNames[i] = record.getString();
+        }
+        
+        int bidCount = record.getCount();
+        long bidId = 0;
+        long amount = startingPrice;
+        long timestamp = startTime;
+        String leaderId = null;
+        for (int position = 0; position < bidCount; position++) {
+            int bidder = record.getCount();
+            if (bidder >= bidderCount) {
+                throw new IOException("Bad bidder index " + bidder + " in auction " + itemId);
+            }
+            bidId += record.getSignedVarLong();
+            amount += record.getSignedVarLong();
+            timestamp += record.getSignedVarLong();
+            item.restoreBid(position, bidId, bidderIds[bidder], bidderNames[bidder], amount, timestamp);
+            leaderId = bidderIds[bidder];
+        }
+        
+        long hiddenAbove = record.getVarLong();
+        item.finishRestore(state, leaderId == null || hiddenAbove == 0
+            ? null : Collections.singletonMap(leaderId, amount + hiddenAbove));
+        return item;
+    }
+    
+    private static String getId(ByteReader record) throws IOException {
+        int tag = record.getByte();
+        if (tag == ID_NUMERIC) {
+            return Ids.toText(record.getLong());
+        }
+        if (tag == ID_TEXT) {
+            return record.getString();
+        }
+        throw new IOException("Bad ID tag " + tag);
+    }
+    
+    private static String getBase64(ByteReader record) throws IOException {
+        int tag = record.getByte();
+        if (tag == BASE64_RAW) {
+            return Base64.getEncoder().encodeToString(record.getBytes());
+        }
+        if (tag == BASE64_TEXT) {
+            return record.getString();
+        }
+        throw new IOException("Bad encoding tag " + tag);
+    }
+    
+    // ==================== STREAMS ====================
+    
+    /**
+     * Buffered, checksummed writer of length-prefixed records to a channel
+     */
+    private static final class Output {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final ByteWriter prefix = new ByteWriter(16);
+        private final CRC32C crc = new CRC32C();
+        
+        Output(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+        
+        void writeCount(int count) throws IOException {
+            prefix.clear();
+            prefix.putVarInt(count);
+            writeRaw(prefix.view());
+        }
+        
+        void writeRecord(ByteBuffer record) throws IOException {
+            writeCount(record.remaining());
+            writeRaw(record);
+        }
+        
+        void writeRaw(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int n = Math.min(buffer.remaining(), source.remaining());
+                ByteBuffer part = source.duplicate();
+                part.limit(part.position() + n);
+                buffer.put(part);
+                source.position(source.position() + n);
+            }
+        }
+        
+        void finish() throws IOException {
+            flush();
+            buffer.putInt((int) crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+    
+    /**
+     * Buffered, checksummed reader of length-prefixed records from a channel
+     */
+    private static final class Input {
+        private final ReadableByteChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final CRC32C crc = new CRC32C();
+        
+        Input(ReadableByteChannel channel) {
+            this.channel = channel;
+            buffer.limit(0);
+        }
+        
+        int readCount() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = take(1).get() & 0xFF;
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value < 0) {
+                        break;
+                    }
+                    return value;
+                }
+            }
+            throw new IOException("Malformed length in snapshot");
+        }
+        
+        ByteReader readRecord() throws IOException {
+            int length = readCount();
+            if (length > MAX_RECORD_BYTES) {
+                throw new IOException("Record too large: " + length);
+            }
+            return new ByteReader(take(length));
+        }
+        
+        void verifyChecksum() throws IOException {
+            int expected = (int) crc.getValue();
+            ensure(Integer.BYTES);
+            if (buffer.getInt() != expected) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+        }
+        
+        /**
+         * The next n bytes, counted in the checksum; valid until the next call
+         */
+        ByteBuffer take(int n) throws IOException {
+            ensure(n);
+            ByteBuffer slice = buffer.slice();
+            slice.limit(n);
+            buffer.position(buffer.position() + n);
+            crc.update(slice.duplicate());
+            return slice;
+        }
+        
+        private void ensure(int n) throws IOException {
+            if (buffer.remaining() >= n) {
+                return;
+            }
+            if (buffer.capacity() < n) {
+                // A record larger than the buffer: grow to fit it
+                ByteBuffer grown = ByteBuffer.allocateDirect(n);
+                grown.put(buffer);
+                buffer = grown;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < n) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Snapshot is truncated");
+                }
+            }
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.auction.managers;
+
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.models.User;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes incremental snapshots in the background while bidding continues.
+ *
+ * Nothing is locked: an auction's bid state is an immutable value swapped
+ * by CAS and its history only grows, so the writer reads them while bids
+ * land. Each auction is encoded optimistically - its version stamp is read
+ * before and after, and a record whose stamp moved is written but not
+ * cached. Records of auctions whose stamp and bid count are unchanged since
+ * the last snapshot are reused as-is, so only dirty auctions are encoded.
+ *
+ * The journal sequence is read before anything else. Every event after it
+ * is replayed on recovery and replay skips what the snapshot already has,
+ * so snapshot plus journal always rebuild one point in time. An auction
+ * journals a bid only after the bid is published in its history, and its
+ * close only after every earlier bid is, so any event at or before the
+ * sequence is already visible when the auction is encoded. The file is
+ * replaced atomically.
+ */
+public class SnapshotWriter implements AutoCloseable {
+    private final AuctionManager manager;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+    
+    // Guarded by this
+    private Map<String, CachedAuction> cache = new HashMap<>();
+    private long lastSequence = -1;
+    
+    /**
+     * An auction's encoded record and the stamp it was encoded at
+     */
+    private static final class CachedAuction {
+        private final long version;
+        private final int bidCount;
+        private final byte[] record;
+        
+        CachedAuction(long version, int bidCount, byte[] record) {
+            this.version = version;
+            this.bidCount = bidCount;
+            this.record = record;
+        }
+        
+        boolean isCurrent(AuctionItem item) {
+            return item.getVersion() == version && item.getBidCount() == bidCount;
+        }
+    }
+    
+    /**
+     * What one snapshot cost
+     */
+    public static final class Result {
+        private final long journalSequence;
+        private final int auctions;
+        private final int encoded;
+        private final long millis;
+        
+        Result(long journalSequence, int auctions, int encoded, long millis) {
+            this.journalSequence = journalSequence;
+            this.auctions = auctions;
+            this.encoded = encoded;
+            this.millis = millis;
+        }
+        
+        public long getJournalSequence() {
+            return journalSequence;
+        }
+        
+        public int getAuctionCount() {
+            return auctions;
+        }
+        
+        /**
+         * Auctions encoded this time; the rest reused their cached record
+         */
+        public int getEncodedCount() {
+            return encoded;
+        }
+        
+        public long getMillis() {
+            return millis;
+        }
+        
+        @Override
+        public String toString() {
+            return "Snapshot[#" + journalSequence + ": " + auctions + " auctions, " + encoded
+                + " re-encoded, " + millis + " ms]";
+        }
+    }
+    
+    public SnapshotWriter(AuctionManager manager, Path file) {
+        this.manager = manager;
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "auction-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    
+    /**
+     * Take a snapshot every intervalMillis on the background thread
+     */
+    public void start(long intervalMillis) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                writeSnapshot();
+            } catch (IOException | RuntimeException e) {
+                AuctionLogger.error("❌ Background snapshot failed: %s", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Write a snapshot now on the calling thread. Returns null if nothing
+     * was journaled since the last one, so the file is already current.
+     */
+    public synchronized Result writeSnapshot() throws IOException {
+        long start = System.nanoTime();
+        EventJournal journal = manager.getJournal();
+        long sequence = journal == null ? 0 : journal.getLastSequence();
+        if (journal != null && sequence == lastSequence) {
+            return null;
+        }
+        long takenAt = manager.getClockSource().millis();
+        List<User> users = manager.getAllUsers();
+        List<AuctionItem> auctions = manager.getLiveAuctions();
+        
+        Map<String, CachedAuction> next = new HashMap<>(auctions.size() * 2);
+        List<byte[]> records = new ArrayList<>(auctions.size());
+        ByteWriter record = new ByteWriter(4096);
+        int encoded = 0;
+        for (AuctionItem item : auctions) {
+            CachedAuction cached = cache.get(item.getItemId());
+            if (cached == null || !cached.isCurrent(item)) {
+                long version = item.getVersion();
+                int bidCount = item.getBidCount();
+                record.clear();
+                SnapshotCodec.encodeAuction(item, record);
+                encoded++;
+                CachedAuction fresh = new CachedAuction(version, bidCount, record.toArray());
+                // Changed while encoding: write it, but encode it again next time
+                cached = fresh.isCurrent(item) ? fresh : new CachedAuction(-1, -1, fresh.record);
+            }
+            next.put(item.getItemId(), cached);
+            records.add(cached.record);
+        }
+        
+        FileManager.replaceAtomically(file, channel ->
+            SnapshotCodec.write(sequence, takenAt, users.size(), users, records, channel));
+        cache = next;
+        lastSequence = sequence;
+        
+        Result result = new Result(sequence, auctions.size(), encoded,
+                                   TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        AuctionLogger.info("💾 %s written to %s", result, file);
+        return result;
+    }
+    
+    /**
+     * Stop the background schedule; a snapshot in progress finishes first
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.auction.managers;
+
+import com.auction.models.AuctionItem;
+import com.auction.models.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Users and auctions as of one point in the event journal. Recovery loads
+ * the snapshot and replays only the journal events after its sequence.
+ */
+public class StateSnapshot {
+    private final long journalSequence;
+    private final long takenAtMillis;
+    private final List<User> users;
+    private final List<AuctionItem> auctions;
+    
+    /**
+     * @param journalSequence every journal event up to this one is reflected in the snapshot
+     */
+    public StateSnapshot(long journalSequence, long takenAtMillis,
+                         Collection<User> users, Collection<AuctionItem> auctions) {
+        this.journalSequence = journalSequence;
+        this.takenAtMillis = takenAtMillis;
+        this.users = Collections.unmodifiableList(new ArrayList<>(users));
+        this.auctions = Collections.unmodifiableList(new ArrayList<>(auctions));
+    }
+    
+    /**
+     * A snapshot of nothing, for a first start
+     */
+    public static StateSnapshot empty() {
+        return new StateSnapshot(0, 0, Collections.emptyList(), Collections.emptyList());
+    }
+    
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+    
+    public long getTakenAtMillis() {
+        return takenAtMillis;
+    }
+    
+    public List<User> getUsers() {
+        return users;
+    }
+    
+    public List<AuctionItem> getAuctions() {
+        return auctions;
+    }
+    
+    @Override
+    public String toString() {
+        return "StateSnapshot[#" + journalSequence + ": " + users.size() + " users, "
+            + auctions.size() + " auctions]";
+    }
+}
@@ -0,0 +1,372 @@
+package com.auction.managers;
+
+import com.auction.logging.AuctionLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed hierarchical timing wheel for auction deadlines.
+ *
+ * One ticker thread owns the wheel: LEVELS levels of 64 slots, each slot an
+ * intrusive doubly linked list, so placing and unlinking a timeout is O(1).
+ * Other threads never touch the wheel directly; schedule(), cancel() and
+ * reschedule() push onto lock-free queues that the ticker drains every tick. Entries in higher
+ * levels cascade down as the wheel turns, and a deadline beyond the top level
+ * simply cascades again. Expired timeouts are handed to the given executor
+ * in batches so a burst of closes does not stall the ticker.
+ *
+ * Deadlines fire at most one tick late; the tick length is the accuracy.
+ */
+class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int BATCH_SIZE = 256;
+    
+    // Timeout states besides pending, where the state is the deadline tick
+    private static final long EXPIRED = -1;
+    private static final long CANCELLED = -2;
+    
+    private final long tickNanos;
+    private final long startNanos;
+    private final Slot[][] wheel;
+    private final ConcurrentLinkedQueue<Timeout> inserts;
+    private final ConcurrentLinkedQueue<Timeout> cancels;
+    private final AtomicInteger pendingCount;
+    private final Executor workers;
+    private final Thread ticker;
+    private volatile boolean running;
+    
+    // Ticker thread only
+    private long currentTick;
+    private final List<Timeout> expired;
+    
+    /**
+     * Handle for a scheduled task; cancel() and reschedule() are safe from
+     * any thread
+     */
+    static final class Timeout {
+        private final Runnable task;
+        private final AtomicLong state; // deadline tick while pending, else EXPIRED or CANCELLED
+        private final TimingWheel owner;
+        
+        // Intrusive list links, ticker thread only
+        private Timeout prev;
+        private Timeout next;
+        private Slot slot;
+        
+        Timeout(TimingWheel owner, Runnable task, long deadlineTick) {
+            this.owner = owner;
+            this.task = task;
+            this.state = new AtomicLong(deadlineTick);
+        }
+        
+        /**
+         * Cancel the task; returns false if it already ran or was cancelled
+         */
+        boolean cancel() {
+            long deadline;
+            do {
+                deadline = state.get();
+                if (deadline < 0) {
+                    return false;
+                }
+            } while (!state.compareAndSet(deadline, CANCELLED));
+            owner.pendingCount.decrementAndGet();
+            owner.cancels.offer(this);
+            return true;
+        }
+        
+        /**
+         * Move the task to a new delay from now, or run it once more after
+         * the delay if it already ran (the task may re-arm itself). The node
+         * is re-linked through the insert queue, so nothing is allocated; an
+         * expiry already handed to the workers for the old deadline is
+         * skipped. Returns false if the task was cancelled.
+         */
+        boolean reschedule(long delayMillis) {
+            long deadlineTick = owner.deadlineTick(delayMillis);
+            long deadline;
+            do {
+                deadline = state.get();
+                if (deadline == CANCELLED) {
+                    return false;
+                }
+            } while (!state.compareAndSet(deadline, deadlineTick));
+            if (deadline == EXPIRED) {
+                owner.pendingCount.incrementAndGet();
+            }
+            owner.inserts.offer(this);
+            return true;
+        }
+        
+        boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+        
+        private boolean isPending() {
+            return state.get() >= 0;
+        }
+        
+        /**
+         * Claim the task for a run if its deadline is still at or before
+         * the tick it was dispatched at
+         */
+        private boolean expire(long dueTick) {
+            long deadline;
+            do {
+                deadline = state.get();
+                if (deadline < 0 || deadline > dueTick) {
+                    return false;
+                }
+            } while (!state.compareAndSet(deadline, EXPIRED));
+            return true;
+        }
+    }
+    
+    /**
+     * Sentinel-headed intrusive list of timeouts
+     */
+    private static final class Slot {
+        private final Timeout head = new Timeout(null, null, 0);
+        
+        Slot() {
+            head.prev = head;
+            head.next = head;
+        }
+        
+        void add(Timeout timeout) {
+            timeout.prev = head.prev;
+            timeout.next = head;
+            head.prev.next = timeout;
+            head.prev = timeout;
+            timeout.slot = this;
+        }
+        
+        static void unlink(Timeout timeout) {
+            timeout.prev.next = timeout.next;
+            timeout.next.prev = timeout.prev;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.slot = null;
+        }
+        
+        /**
+         * Detach and return every entry as a singly linked chain (via next)
+         */
+        Timeout drain() {
+            if (head.next == head) {
+                return null;
+            }
+            Timeout first = head.next;
+            head.prev.next = null;
+            head.next = head;
+            head.prev = head;
+            return first;
+        }
+    }
+    
+    /**
+     * @param workers runs expired tasks; owned and shut down by the caller
+     */
+    TimingWheel(long tickMillis, Executor workers, String threadName) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.startNanos = System.nanoTime();
+        this.wheel = new Slot[LEVELS][SLOTS];
+        for (Slot[] level : wheel) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Slot();
+            }
+        }
+        this.inserts = new ConcurrentLinkedQueue<>();
+        this.cancels = new ConcurrentLinkedQueue<>();
+        this.pendingCount = new AtomicInteger();
+        this.expired = new ArrayList<>();
+        this.workers = workers;
+        this.running = true;
+        this.ticker = new Thread(this::run, threadName);
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+    
+    /**
+     * Run the task after the delay (rounded up to whole ticks)
+     */
+    Timeout schedule(Runnable task, long delayMillis) {
+        Timeout timeout = new Timeout(this, task, deadlineTick(delayMillis));
+        pendingCount.incrementAndGet();
+        inserts.offer(timeout);
+        return timeout;
+    }
+    
+    private long deadlineTick(long delayMillis) {
+        long elapsed = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        return (elapsed + tickNanos - 1) / tickNanos;
+    }
+    
+    /**
+     * Number of timeouts waiting to fire
+     */
+    int size() {
+        return pendingCount.get();
+    }
+    
+    /**
+     * Stop the ticker; pending timeouts are dropped
+     */
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+    
+    // ==================== TICKER THREAD ====================
+    
+    private void run() {
+        while (running) {
+            long nextTickNanos = startNanos + (currentTick + 1) * tickNanos;
+            long wait = nextTickNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            // Process every tick that has passed, catching up after a stall
+            currentTick++;
+            drainInserts();
+            drainCancels();
+            cascade();
+            expireSlot(wheel[0][(int) (currentTick & SLOT_MASK)]);
+            dispatchExpired();
+        }
+    }
+    
+    /**
+     * Place new timeouts and re-place rescheduled ones at their new deadline
+     */
+    private void drainInserts() {
+        Timeout timeout;
+        while ((timeout = inserts.poll()) != null) {
+            if (timeout.isPending()) {
+                if (timeout.slot != null) {
+                    Slot.unlink(timeout);
+                }
+                place(timeout);
+            }
+        }
+    }
+    
+    private void drainCancels() {
+        Timeout timeout;
+        while ((timeout = cancels.poll()) != null) {
+            if (timeout.slot != null) {
+                Slot.unlink(timeout);
+            }
+        }
+    }
+    
+    /**
+     * Put a timeout in the lowest level whose span covers its deadline
+     */
+    private void place(Timeout timeout) {
+        long deadlineTick = timeout.state.get();
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            expired.add(timeout);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if (delta < (1L << (shift + SLOT_BITS))) {
+                wheel[level][(int) ((deadlineTick >>> shift) & SLOT_MASK)].add(timeout);
+                return;
+            }
+        }
+        // Beyond the top level: park in the farthest top-level slot and cascade again later
+        int shift = SLOT_BITS * (LEVELS - 1);
+        wheel[LEVELS - 1][(int) (((currentTick >>> shift) - 1) & SLOT_MASK)].add(timeout);
+    }
+    
+    /**
+     * When a lower level wraps, redistribute the next slot of the level above
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            Timeout chain = wheel[level][(int) ((currentTick >>> shift) & SLOT_MASK)].drain();
+            while (chain != null) {
+                Timeout next = chain.next;
+                chain.prev = null;
+                chain.next = null;
+                chain.slot = null;
+                if (chain.isPending()) {
+                    place(chain);
+                }
+                chain = next;
+            }
+        }
+    }
+    
+    /**
+     * Everything in the current level-0 slot is due; place() sends it to the expired list
+     */
+    private void expireSlot(Slot slot) {
+        Timeout chain = slot.drain();
+        while (chain != null) {
+            Timeout next = chain.next;
+            chain.prev = null;
+            chain.next = null;
+            chain.slot = null;
+            if (chain.isPending()) {
+                place(chain);
+            }
+            chain = next;
+        }
+    }
+    
+    /**
+     * Hand this tick's expirations to the workers in batches
+     */
+    private void dispatchExpired() {
+        if (expired.isEmpty()) {
+            return;
+        }
+        long dueTick = currentTick;
+        for (int from = 0; from < expired.size(); from += BATCH_SIZE) {
+            List<Timeout> batch = new ArrayList<>(expired.subList(from, Math.min(from + BATCH_SIZE, expired.size())));
+            try {
+                workers.execute(() -> runBatch(batch, dueTick));
+            } catch (RejectedExecutionException e) {
+                runBatch(batch, dueTick);
+            }
+        }
+        expired.clear();
+    }
+    
+    private void runBatch(List<Timeout> batch, long dueTick) {
+        for (Timeout timeout : batch) {
+            if (!timeout.expire(dueTick)) {
+                continue;
+            }
+            pendingCount.decrementAndGet();
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                AuctionLogger.error("❌ Auction close task failed: %s", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.auction.managers;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index from user ID to the positions of that user's bids in each auction's
+ * bid history, filled in as bids are recorded. Lets "My Bids" views read a
+ * user's bids directly instead of scanning every auction's history.
+ * Auctions are held by ID, so entries stay valid after an auction is
+ * archived and do not keep the in-memory auction reachable.
+ */
+class UserBidIndex {
+    private final Map<String, UserBids> byUser = new ConcurrentHashMap<>();
+    
+    /**
+     * Note that the bid at the given history position belongs to the user
+     */
+    void record(String userId, String itemId, int position) {
+        byUser.computeIfAbsent(userId, k -> new UserBids()).add(itemId, position);
+    }
+    
+    /**
+     * A user's bid positions grouped by auction, in the order the user first
+     * bid on each auction; positions are ascending
+     */
+    Map<String, int[]> positionsOf(String userId) {
+        UserBids bids = byUser.get(userId);
+        return bids == null ? new LinkedHashMap<>() : bids.snapshot();
+    }
+    
+    /**
+     * Forget a user's bids on an auction that has been removed
+     */
+    void forget(String userId, String itemId) {
+        UserBids bids = byUser.get(userId);
+        if (bids != null) {
+            bids.remove(itemId);
+        }
+    }
+    
+    /**
+     * Bid positions of one user, grouped by auction
+     */
+    private static final class UserBids {
+        private final Map<String, Positions> byAuction = new LinkedHashMap<>();
+        
+        synchronized void add(String itemId, int position) {
+            byAuction.computeIfAbsent(itemId, k -> new Positions()).add(position);
+        }
+        
+        synchronized void remove(String itemId) {
+            byAuction.remove(itemId);
+        }
+        
+        synchronized Map<String, int[]> snapshot() {
+            Map<String, int[]> copy = new LinkedHashMap<>();
+            for (Map.Entry<String, Positions> entry : byAuction.entrySet()) {
+                copy.put(entry.getKey(), entry.getValue().toSortedArray());
+            }
+            return copy;
+        }
+    }
+    
+    /**
+     * Growable int array of history positions
+     */
+    private static final class Positions {
+        private int[] values = new int[4];
+        private int size;
+        
+        void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+        
+        int[] toSortedArray() {
+            // Concurrent bids by the same user can be recorded out of order
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -13,6 +13,13 @@ public class Admin extends User {
         super(username, password, email, UserRole.ADMIN);
     }
     
+    /**
+     * Rebuild a stored admin (see User.restore)
+     */
+    Admin(String userId, String username, String email, String salt, String passwordHash) {
+        super(userId, username, email, UserRole.ADMIN, salt, passwordHash);
+    }
+    
     /**
      * Remove an auction from the system
      */
@@ -52,8 +59,8 @@ public class Admin extends User {
             System.out.println("No auctions available.");
         } else {
             for (AuctionItem item : auctions) {
-                System.out.printf("%s | State: %s | Current Bid: $%.2f\n", 
-                    item.getTitle(), item.getState(), item.getCurrentBid());
+                System.out.printf("%s | State: %s | Current Bid: %s\n", 
+                    item.getTitle(), item.getState(), Money.format(item.getCurrentBid()));
             }
         }
         System.out.println("Total auctions: " + auctions.size());
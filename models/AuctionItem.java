@@ -1,190 +1,555 @@
 package com.auction.models;
 
 import com.auction.enums.AuctionState;
+import com.auction.enums.BidStatus;
 import com.auction.enums.ItemCategory;
+import com.auction.logging.AuctionLogger;
+import com.auction.observers.AuctionLifecycleListener;
+import com.auction.observers.BidEventDispatcher;
 import com.auction.observers.BidObserver;
+import com.auction.util.ClockSource;
+import com.auction.util.Clocks;
+import com.auction.util.Ids;
+import com.auction.util.SystemClockSource;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * AuctionItem class representing an item being auctioned
  * Implements Observer pattern to notify bidders of changes
+ *
+ * Bid acceptance is lock-free: the auction state, current bid and leading
+ * bidder are published together as one immutable BidState that is swapped
+ * by compare-and-set, so losing bids are rejected without taking a lock.
+ * All prices are long cents (see Money); times are epoch millis from the
+ * owning manager's ClockSource.
  */
 public class AuctionItem implements Serializable {
     private static final long serialVersionUID = 1L;
-    private static final double DEFAULT_INCREMENT_PERCENTAGE = 0.05; // 5%
+    private static final int DEFAULT_INCREMENT_PERCENTAGE = 5;
+    private static final ClockSource SYSTEM_CLOCK = new SystemClockSource();
     
     private String itemId;
     private String title;
     private String description;
-    private double startingPrice;
-    private double reservePrice;
-    private double currentBid;
-    private double minimumBidIncrement;
+    private long startingPrice;
+    private long reservePrice;
+    private long minimumBidIncrement;
     private String sellerId;
     private String sellerUsername;
     private ItemCategory category;
-    private AuctionState state;
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
-    private List<Bid> bidHistory;
-    private transient List<BidObserver> observers; // transient = not serialized
-    private String currentHighestBidderId;
-    
-    public AuctionItem(String title, String description, double startingPrice,
-                       double reservePrice, User seller, ItemCategory category,
-                       LocalDateTime endTime) {
-        this.itemId = UUID.randomUUID().toString();
+    private volatile long startTimeMillis;
+    private final long endTimeMillis;
+    private final AtomicReference<BidState> bidState;
+    private final BidHistory bidHistory;
+    private transient CopyOnWriteArrayList<BidObserver> observers; // transient = not serialized
+    private transient volatile AuctionLifecycleListener lifecycleListener;
+    private transient int restoredUpTo; // highest restored bid position + 1, during recovery only
+    private transient volatile ClockSource clock;
+    
+    public AuctionItem(String title, String description, long startingPrice,
+                       long reservePrice, User seller, ItemCategory category,
+                       long endTimeMillis, ClockSource clock) {
+        this(Ids.nextText(), title, description, startingPrice, reservePrice,
+             Math.max(1, Money.percentOf(startingPrice, DEFAULT_INCREMENT_PERCENTAGE)),
+             seller.getUserId(), seller.getUsername(), category, 0, endTimeMillis);
+        this.clock = clock;
+    }
+    
+    private AuctionItem(String itemId, String title, String description, long startingPrice,
+                        long reservePrice, long minimumBidIncrement, String sellerId,
+                        String sellerUsername, ItemCategory category, long startTimeMillis,
+                        long endTimeMillis) {
+        this.itemId = itemId;
         this.title = title;
         this.description = description;
         this.startingPrice = startingPrice;
         this.reservePrice = reservePrice;
-        this.currentBid = startingPrice;
-        this.minimumBidIncrement = startingPrice * DEFAULT_INCREMENT_PERCENTAGE;
-        this.sellerId = seller.getUserId();
-        this.sellerUsername = seller.getUsername();
+        this.minimumBidIncrement = minimumBidIncrement;
+        this.sellerId = sellerId;
+        this.sellerUsername = sellerUsername;
         this.category = category;
-        this.state = AuctionState.PENDING;
-        this.endTime = endTime;
-        this.bidHistory = new ArrayList<>();
-        this.observers = new ArrayList<>();
+        this.startTimeMillis = startTimeMillis;
+        this.endTimeMillis = endTimeMillis;
+        this.bidState = new AtomicReference<>(
+            new BidState(AuctionState.PENDING, startingPrice, null, null, startingPrice, 0, 0));
+        this.bidHistory = new BidHistory(itemId);
+        this.observers = new CopyOnWriteArrayList<>();
+        this.clock = SYSTEM_CLOCK;
     }
     
     /**
-     * Observer pattern: Add an observer to receive notifications
+     * Rebuild an auction from persisted fields. It stays PENDING with no
+     * bids until restoreBid and finishRestore have been called, and reads
+     * the system clock until an owner sets its own with setClockSource.
      */
-    public void addObserver(BidObserver observer) {
-        if (observers == null) {
-            observers = new ArrayList<>();
+    public static AuctionItem restore(String itemId, String title, String description, long startingPrice,
+                                      long reservePrice, long minimumBidIncrement, String sellerId,
+                                      String sellerUsername, ItemCategory category, long startTimeMillis,
+                                      long endTimeMillis) {
+        return new AuctionItem(itemId, title, description, startingPrice, reservePrice, minimumBidIncrement,
+                               sellerId, sellerUsername, category, startTimeMillis, endTimeMillis);
+    }
+    
+    /**
+     * Immutable snapshot of the mutable part of an auction.
+     * A new instance is published for every state change.
+     */
+    private static final class BidState implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private final AuctionState state;
+        private final long amount;
+        private final String leaderId;
+        private final String leaderName;
+        private final long leaderMax; // leader's hidden proxy maximum, equal to amount for plain bids
+        private final int bidCount;
+        private final long version; // bumped by every transition, so snapshots can spot changed auctions
+        
+        BidState(AuctionState state, long amount, String leaderId, String leaderName,
+                 long leaderMax, int bidCount, long version) {
+            this.state = state;
+            this.amount = amount;
+            this.leaderId = leaderId;
+            this.leaderName = leaderName;
+            this.leaderMax = leaderMax;
+            this.bidCount = bidCount;
+            this.version = version;
+        }
+        
+        BidState withState(AuctionState newState) {
+            return new BidState(newState, amount, leaderId, leaderName, leaderMax, bidCount, version + 1);
+        }
+        
+        /**
+         * Resolve a bid against the current leader in one step.
+         * A plain bid pays its amount outright; a proxy bid registers a hidden
+         * maximum and only pays one increment over the runner-up. When the
+         * leader's maximum beats the challenger, the challenger's bid and the
+         * leader's automatic reply are both recorded. Equal maximums go to
+         * the earlier bidder, with a single bid at that amount.
+         * A leader's proxy bid can only raise their maximum; a lower or equal
+         * one changes nothing and returns a transition to this same state.
+         * Returns null if the bid does not reach the minimum next bid.
+         */
+        Transition apply(String bidderId, String bidderName, long maximum, boolean proxy, long increment) {
+            if (bidderId.equals(leaderId)) {
+                if (proxy) {
+                    if (maximum <= leaderMax) {
+                        return new Transition(this, this, null, null, 0);
+                    }
+                    // Leader raises their hidden maximum; the visible price is unchanged
+                    BidState raised = new BidState(state, amount, leaderId, leaderName,
+                                                   maximum, bidCount, version + 1);
+                    return new Transition(this, raised, null, null, 0);
+                }
+                if (maximum < amount + increment) {
+                    return null;
+                }
+                return new Transition(this, new BidState(state, maximum, leaderId, leaderName,
+                                      Math.max(leaderMax, maximum), bidCount + 1, version + 1), null, null, 0);
+            }
+            
+            if (maximum < amount + increment) {
+                return null;
+            }
+            
+            if (leaderId == null || maximum > leaderMax) {
+                // Challenger takes the lead
+                long price = !proxy ? maximum
+                    : leaderId == null ? amount + increment
+                    : Math.min(maximum, leaderMax + increment);
+                if (leaderId != null && leaderMax > amount) {
+                    // The old leader's proxy bid up to its maximum before losing
+                    return new Transition(this, new BidState(state, price, bidderId, bidderName, maximum, bidCount + 2, version + 1),
+                                          leaderId, leaderName, leaderMax);
+                }
+                return new Transition(this, new BidState(state, price, bidderId, bidderName, maximum, bidCount + 1, version + 1),
+                                      null, null, 0);
+            }
+            
+            if (maximum == leaderMax) {
+                // Tie: the earlier bidder keeps the lead at the shared maximum
+                return new Transition(this, new BidState(state, leaderMax, leaderId, leaderName, leaderMax, bidCount + 1, version + 1),
+                                      null, null, 0);
+            }
+            
+            // Leader's maximum holds: record the challenger, then the automatic reply
+            long reply = Math.min(leaderMax, maximum + increment);
+            return new Transition(this, new BidState(state, reply, leaderId, leaderName, leaderMax, bidCount + 2, version + 1),
+                                  bidderId, bidderName, maximum);
+        }
+    }
+    
+    /**
+     * Result of applying one bid: the state before and after, plus the first
+     * of two bids to record when the outcome takes two bids
+     */
+    private static final class Transition {
+        private final BidState from;
+        private final BidState to;
+        private final String firstBidderId;
+        private final String firstBidderName;
+        private final long firstAmount;
+        
+        Transition(BidState from, BidState to, String firstBidderId, String firstBidderName, long firstAmount) {
+            this.from = from;
+            this.to = to;
+            this.firstBidderId = firstBidderId;
+            this.firstBidderName = firstBidderName;
+            this.firstAmount = firstAmount;
         }
-        if (!observers.contains(observer)) {
-            observers.add(observer);
+        
+        int recordedBids() {
+            return to.bidCount - from.bidCount;
         }
     }
     
+    /**
+     * Re-create transient fields after deserialization
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        observers = new CopyOnWriteArrayList<>();
+        clock = SYSTEM_CLOCK;
+    }
+    
+    /**
+     * Read end-time checks, bid timestamps and the start time from this clock
+     */
+    public void setClockSource(ClockSource clock) {
+        this.clock = clock;
+    }
+    
+    /**
+     * Observer pattern: Add an observer to receive notifications
+     */
+    public void addObserver(BidObserver observer) {
+        observers.addIfAbsent(observer);
+    }
+    
     /**
      * Observer pattern: Remove an observer
      */
     public void removeObserver(BidObserver observer) {
-        if (observers != null) {
-            observers.remove(observer);
-        }
+        observers.remove(observer);
     }
     
     /**
-     * Notify all observers that a bid was placed
+     * Notify all observers that a bid was placed (delivered asynchronously)
      */
     private void notifyBidPlaced(Bid bid) {
-        if (observers != null) {
-            for (BidObserver observer : observers) {
-                observer.onBidPlaced(this, bid);
-            }
-        }
+        BidEventDispatcher.getInstance().bidPlaced(this, bid, observers);
     }
     
     /**
-     * Notify a specific user they were outbid
+     * Notify a specific user they were outbid (delivered asynchronously)
      */
     private void notifyOutbid(User previousBidder, Bid newBid) {
-        previousBidder.onOutbid(this, newBid);
+        BidEventDispatcher.getInstance().outbid(this, previousBidder, newBid);
     }
     
     /**
-     * Notify all observers that the auction ended
+     * Notify all observers that the auction ended (delivered asynchronously)
      */
     private void notifyAuctionEnded(User winner) {
-        if (observers != null) {
-            for (BidObserver observer : observers) {
-                observer.onAuctionEnded(this, winner);
+        BidEventDispatcher.getInstance().auctionEnded(this, winner, observers);
+    }
+    
+    /**
+     * Find a registered observer that is the user with the given ID
+     */
+    private User findObservingUser(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        for (BidObserver obs : observers) {
+            if (obs instanceof User) {
+                User user = (User) obs;
+                if (user.getUserId().equals(userId)) {
+                    return user;
+                }
             }
         }
+        return null;
     }
     
     /**
      * Place a bid on this auction item
-     * Returns true if bid was accepted, false otherwise
+     * Returns ACCEPTED if the bidder now leads, OUTBID_BY_PROXY if the bid was
+     * placed but another bidder's proxy maximum answered it, or why it was rejected
+     */
+    public BidStatus placeBid(User bidder, long amount) {
+        return submitBid(bidder, amount, false);
+    }
+    
+    /**
+     * Register a hidden maximum bid. The engine bids on the user's behalf,
+     * only ever one increment above the next-highest maximum, and resolves a
+     * bidding war against another proxy in a single state transition.
+     * Returns ACCEPTED if the user leads afterwards, OUTBID_BY_PROXY if an
+     * existing maximum was higher, or the reason the bid was rejected.
      */
-    public synchronized boolean placeBid(User bidder, double amount) {
+    public BidStatus placeProxyBid(User bidder, long maximum) {
+        return submitBid(bidder, maximum, true);
+    }
+    
+    private BidStatus submitBid(User bidder, long maximum, boolean proxy) {
+        BidState current = bidState.get();
+        
         // Validation 1: Check auction is active
-        if (state != AuctionState.ACTIVE) {
-            System.out.println("❌ Bid rejected: Auction is " + state.getDescription());
-            return false;
+        if (current.state != AuctionState.ACTIVE) {
+            AuctionLogger.warn("❌ Bid rejected: Auction is %s", current.state.getDescription());
+            return BidStatus.AUCTION_NOT_ACTIVE;
         }
         
         // Validation 2: Prevent seller from bidding on own item
         if (bidder.getUserId().equals(sellerId)) {
-            System.out.println("❌ Bid rejected: Seller cannot bid on their own item");
-            return false;
-        }
-        
-        // Validation 3: Check bid meets minimum increment
-        double minimumBid = currentBid + minimumBidIncrement;
-        if (amount < minimumBid) {
-            System.out.printf("❌ Bid rejected: Minimum bid is $%.2f (current bid + $%.2f increment)\n", 
-                minimumBid, minimumBidIncrement);
-            return false;
+            AuctionLogger.warn("❌ Bid rejected: Seller cannot bid on their own item");
+            return BidStatus.SELLER_CANNOT_BID;
         }
         
         // Validation 4: Check auction hasn't ended
-        if (LocalDateTime.now().isAfter(endTime)) {
+        if (clock.millis() > endTimeMillis) {
             endAuction();
-            System.out.println("❌ Bid rejected: Auction has already ended");
-            return false;
+            AuctionLogger.warn("❌ Bid rejected: Auction has already ended");
+            return BidStatus.AUCTION_ENDED;
         }
         
-        // Create and record the bid
-        Bid newBid = new Bid(bidder, amount, this.itemId);
-        bidHistory.add(newBid);
-        
-        // Get previous highest bidder for notification
-        User previousBidder = null;
-        if (currentHighestBidderId != null && !currentHighestBidderId.equals(bidder.getUserId())) {
-            // notify previous highest bidder if user object is available
-            if (observers != null) {
-                for (BidObserver obs : observers) {
-                    if (obs instanceof User) {
-                        User user = (User) obs;
-                        if (user.getUserId().equals(currentHighestBidderId)) {
-                            previousBidder = user;
-                            break;
-                        }
-                    }
+        // Publish the resolved state; retry only while the bid still qualifies
+        Transition transition;
+        while (true) {
+            // Validation 3: Check bid meets minimum increment
+            transition = current.apply(bidder.getUserId(), bidder.getUsername(), maximum, proxy, minimumBidIncrement);
+            if (transition == null) {
+                if (AuctionLogger.isWarnEnabled()) {
+                    AuctionLogger.warn("❌ Bid rejected: Minimum bid is %s (current bid + %s increment)", 
+                        Money.format(current.amount + minimumBidIncrement), Money.format(minimumBidIncrement));
                 }
+                return BidStatus.BELOW_MINIMUM;
+            }
+            if (transition.to == current) {
+                AuctionLogger.info("✅ %s already leads '%s' with a proxy maximum of at least %s",
+                    bidder.getUsername(), title, Money.format(maximum));
+                return BidStatus.ACCEPTED;
+            }
+            
+            if (bidState.compareAndSet(current, transition.to)) {
+                checkReserveMet(current, transition.to);
+                checkProxyMaximum(current, transition.to);
+                break;
+            }
+            
+            current = bidState.get();
+            if (current.state != AuctionState.ACTIVE) {
+                AuctionLogger.warn("❌ Bid rejected: Auction is %s", current.state.getDescription());
+                return BidStatus.AUCTION_NOT_ACTIVE;
             }
         }
         
-        // Notify previous bidder they've been outbid
-        if (previousBidder != null) {
-            notifyOutbid(previousBidder, newBid);
-        }
-        
-        // Update current bid and bidder
-        currentBid = amount;
-        currentHighestBidderId = bidder.getUserId();
-        bidder.addBidId(newBid.getBidId());
+        // Create and record the resulting bid(s) in acceptance order
+        Bid newBid = recordTransition(transition, bidder);
         
         // Add bidder as observer if not already added
         addObserver(bidder);
         
-        // Notify all observers
-        notifyBidPlaced(newBid);
+        boolean leading = bidder.getUserId().equals(transition.to.leaderId);
+        if (newBid != null) {
+            // Notify whoever is no longer leading, then all observers
+            Set<String> involved = new LinkedHashSet<>();
+            if (transition.from.leaderId != null) {
+                involved.add(transition.from.leaderId);
+            }
+            involved.add(bidder.getUserId());
+            notifyDisplaced(involved, transition.to.leaderId, newBid);
+            notifyBidPlaced(newBid);
+        }
         
-        System.out.printf("✅ Bid accepted: $%.2f by %s on '%s'\n", 
-            amount, bidder.getUsername(), title);
-        return true;
+        if (!leading) {
+            if (AuctionLogger.isInfoEnabled()) {
+                AuctionLogger.info("⚠️  Bid of %s by %s on '%s' was answered by a proxy bid - current bid %s",
+                    Money.format(maximum), bidder.getUsername(), title, Money.format(transition.to.amount));
+            }
+            return BidStatus.OUTBID_BY_PROXY;
+        }
+        if (!AuctionLogger.isInfoEnabled()) {
+            return BidStatus.ACCEPTED;
+        }
+        if (proxy) {
+            AuctionLogger.info("✅ Proxy bid up to %s by %s on '%s' - current bid %s",
+                Money.format(maximum), bidder.getUsername(), title, Money.format(transition.to.amount));
+        } else {
+            AuctionLogger.info("✅ Bid accepted: %s by %s on '%s'", 
+                Money.format(maximum), bidder.getUsername(), title);
+        }
+        return BidStatus.ACCEPTED;
+    }
+    
+    /**
+     * Apply a group of bids for this auction in arrival order with a single
+     * state swap. Bids are resolved one after another against the running
+     * state, so later bids in the group see earlier ones.
+     * Observers get one bid-placed event for the final high bid, and every
+     * involved bidder who is not leading afterwards gets one outbid event.
+     * Returns one status per request, in the same order.
+     */
+    public BidStatus[] placeBids(List<BidRequest> requests) {
+        BidStatus[] statuses = new BidStatus[requests.size()];
+        if (requests.isEmpty()) {
+            return statuses;
+        }
+        
+        BidState start = bidState.get();
+        BidState end;
+        List<Transition> transitions = new ArrayList<>(requests.size());
+        List<User> submitters = new ArrayList<>(requests.size());
+        while (true) {
+            if (start.state != AuctionState.ACTIVE) {
+                Arrays.fill(statuses, BidStatus.AUCTION_NOT_ACTIVE);
+                return statuses;
+            }
+            if (clock.millis() > endTimeMillis) {
+                endAuction();
+                Arrays.fill(statuses, BidStatus.AUCTION_ENDED);
+                return statuses;
+            }
+            
+            end = start;
+            transitions.clear();
+            submitters.clear();
+            for (int i = 0; i < statuses.length; i++) {
+                BidRequest request = requests.get(i);
+                User bidder = request.getBidder();
+                if (bidder.getUserId().equals(sellerId)) {
+                    statuses[i] = BidStatus.SELLER_CANNOT_BID;
+                    continue;
+                }
+                Transition transition = end.apply(bidder.getUserId(), bidder.getUsername(),
+                    request.getAmount(), request.isProxy(), minimumBidIncrement);
+                if (transition == null) {
+                    statuses[i] = BidStatus.BELOW_MINIMUM;
+                    continue;
+                }
+                transitions.add(transition);
+                submitters.add(bidder);
+                end = transition.to;
+                statuses[i] = bidder.getUserId().equals(end.leaderId)
+                    ? BidStatus.ACCEPTED : BidStatus.OUTBID_BY_PROXY;
+            }
+            
+            if (end == start) {
+                break;
+            }
+            if (bidState.compareAndSet(start, end)) {
+                checkReserveMet(start, end);
+                checkProxyMaximum(start, end);
+                break;
+            }
+            start = bidState.get();
+        }
+        
+        if (transitions.isEmpty()) {
+            AuctionLogger.debug("❌ %d bid(s) rejected on '%s'", statuses.length, title);
+            return statuses;
+        }
+        
+        // Record resulting bids at the positions reserved by the swap
+        Bid lastBid = null;
+        Set<String> involved = new LinkedHashSet<>();
+        if (start.leaderId != null) {
+            involved.add(start.leaderId);
+        }
+        for (int i = 0; i < transitions.size(); i++) {
+            User bidder = submitters.get(i);
+            Bid recorded = recordTransition(transitions.get(i), bidder);
+            if (recorded != null) {
+                lastBid = recorded;
+            }
+            addObserver(bidder);
+            involved.add(bidder.getUserId());
+        }
+        
+        if (lastBid != null) {
+            notifyDisplaced(involved, end.leaderId, lastBid);
+            notifyBidPlaced(lastBid);
+        }
+        
+        if (AuctionLogger.isInfoEnabled()) {
+            AuctionLogger.info("✅ %d bid(s) applied on '%s' - current bid %s by %s",
+                transitions.size(), title, Money.format(end.amount), end.leaderName);
+        }
+        return statuses;
+    }
+    
+    /**
+     * Record the bid(s) produced by a transition at the positions it reserved.
+     * Returns the last recorded bid, or null if the transition recorded none.
+     */
+    private Bid recordTransition(Transition transition, User submitter) {
+        int position = transition.from.bidCount;
+        if (transition.recordedBids() == 0) {
+            return null;
+        }
+        if (transition.recordedBids() == 2) {
+            recordBid(position++, transition.firstBidderId, transition.firstBidderName,
+                      transition.firstAmount, submitter);
+        }
+        return recordBid(position, transition.to.leaderId, transition.to.leaderName,
+                         transition.to.amount, submitter);
+    }
+    
+    private Bid recordBid(int position, String bidderId, String bidderName, long amount, User submitter) {
+        Bid bid = new Bid(Ids.next(), bidderId, bidderName, amount, clock.millis(), itemId);
+        bidHistory.record(position, bid);
+        User bidder = submitter.getUserId().equals(bidderId) ? submitter : findObservingUser(bidderId);
+        if (bidder != null) {
+            bidder.addBidId(bid.getBidId());
+        }
+        AuctionLifecycleListener listener = lifecycleListener;
+        if (listener != null) {
+            // Journal a bid only once it is published, so a snapshot whose
+            // journal sequence covers the bid also finds it in the history
+            awaitRecorded(position + 1);
+            listener.onBidRecorded(this, position, bid);
+        }
+        return bid;
+    }
+    
+    /**
+     * Send an outbid event to every involved bidder except the current leader
+     */
+    private void notifyDisplaced(Set<String> involved, String leaderId, Bid newBid) {
+        for (String userId : involved) {
+            if (userId.equals(leaderId)) {
+                continue;
+            }
+            User previousBidder = findObservingUser(userId);
+            if (previousBidder != null) {
+                notifyOutbid(previousBidder, newBid);
+            }
+        }
     }
     
     /**
      * Start the auction
      */
     public void startAuction() {
-        if (state == AuctionState.PENDING) {
-            state = AuctionState.ACTIVE;
-            startTime = LocalDateTime.now();
-            System.out.println("🔔 Auction started: " + title);
+        BidState current = bidState.get();
+        while (current.state == AuctionState.PENDING) {
+            if (bidState.compareAndSet(current, current.withState(AuctionState.ACTIVE))) {
+                startTimeMillis = clock.millis();
+                fireStateChanged(AuctionState.PENDING, AuctionState.ACTIVE);
+                AuctionLogger.info("🔔 Auction started: %s", title);
+                return;
+            }
+            current = bidState.get();
         }
     }
     
@@ -192,64 +557,237 @@ public class AuctionItem implements Serializable {
      * End the auction and determine winner
      */
     public void endAuction() {
-        if (state == AuctionState.ACTIVE) {
-            state = AuctionState.CLOSED;
-            
-            User winner = null;
-            
-            // Check if reserve price is met
-            if (currentBid >= reservePrice && currentHighestBidderId != null) {
-                System.out.printf("\n🎉 Auction ended: '%s' SOLD for $%.2f\n", title, currentBid);
-                System.out.println("   Winner ID: " + currentHighestBidderId);
-                
-                // Notify winner from observers list if available
-                if (observers != null) {
-                    for (BidObserver obs : observers) {
-                        if (obs instanceof User) {
-                            User user = (User) obs;
-                            if (user.getUserId().equals(currentHighestBidderId)) {
-                                winner = user;
-                                break;
-                            }
-                        }
-                    }
-                }
+        BidState current = bidState.get();
+        while (current.state == AuctionState.ACTIVE) {
+            BidState closed = current.withState(AuctionState.CLOSED);
+            if (bidState.compareAndSet(current, closed)) {
+                // The winning bid may still be between its state swap and its history slot
+                awaitRecorded(closed.bidCount);
+                fireStateChanged(AuctionState.ACTIVE, AuctionState.CLOSED);
+                announceEnd(closed);
+                return;
+            }
+            current = bidState.get();
+        }
+    }
+    
+    /**
+     * Wait until every bid accepted before a state swap has been recorded.
+     * Bidders record right after their swap, so this is a short spin.
+     */
+    private void awaitRecorded(int bidCount) {
+        for (int spins = 0; bidHistory.size() < bidCount; spins++) {
+            if (spins < 100) {
+                Thread.onSpinWait();
             } else {
-                System.out.printf("\n⚠️  Auction ended: '%s' - Reserve price NOT met (needed $%.2f)\n", 
-                    title, reservePrice);
+                Thread.yield();
+            }
+        }
+    }
+    
+    // ==================== RECOVERY ====================
+    
+    /**
+     * Put a persisted bid back at its history position during recovery.
+     * Positions may arrive in any order; one already present is skipped.
+     * Returns whether the bid was added.
+     */
+    public boolean restoreBid(int position, long bidId, String bidderId, String bidderUsername,
+                              long amount, long timestampMillis) {
+        if (position < bidHistory.size()) {
+            return false;
+        }
+        bidHistory.record(position, new Bid(bidId, bidderId, bidderUsername, amount, timestampMillis, itemId));
+        restoredUpTo = Math.max(restoredUpTo, position + 1);
+        return true;
+    }
+    
+    /**
+     * Finish recovery: derive the current bid and leader from the restored
+     * history and set the state. Bids after a gap in the history (their
+     * predecessors were lost) are dropped. proxyMaximums holds the highest
+     * hidden maximum seen per bidder; the leader's counts if it is above
+     * the current bid. Call before the auction is shared.
+     */
+    public void finishRestore(AuctionState state, Map<String, Long> proxyMaximums) {
+        finishRestore(state, proxyMaximums, null);
+    }
+    
+    /**
+     * Finish recovery as above, then re-register every restored bidder found
+     * in users as an observer, so they are told when outbid or when the
+     * auction ends, and credit the bids restored since the last finish to
+     * their bidders' bid ids.
+     */
+    public void finishRestore(AuctionState state, Map<String, Long> proxyMaximums, Map<String, User> users) {
+        int count = bidHistory.size();
+        if (restoredUpTo > count) {
+            AuctionLogger.warn("⚠️  Recovery: dropping %d bid(s) after a gap on '%s'", restoredUpTo - count, title);
+            bidHistory.discard(count, restoredUpTo);
+        }
+        restoredUpTo = 0;
+        
+        BidState current = bidState.get();
+        long amount = startingPrice;
+        String leaderId = null;
+        String leaderName = null;
+        if (count > 0) {
+            Bid last = bidHistory.all().get(count - 1);
+            amount = last.getAmount();
+            leaderId = last.getBidderId();
+            leaderName = last.getBidderUsername();
+        }
+        
+        long leaderMax = amount;
+        if (leaderId != null) {
+            if (leaderId.equals(current.leaderId)) {
+                // A maximum restored from a snapshot still applies to the same leader
+                leaderMax = Math.max(leaderMax, current.leaderMax);
+            }
+            Long journaled = proxyMaximums == null ? null : proxyMaximums.get(leaderId);
+            if (journaled != null) {
+                leaderMax = Math.max(leaderMax, journaled);
+            }
+        }
+        bidState.set(new BidState(state, amount, leaderId, leaderName, leaderMax, count, current.version + 1));
+        
+        if (users != null) {
+            restoreBidders(users, current.bidCount, count);
+        }
+    }
+    
+    /**
+     * Observe every bidder in the history; add bid ids for positions from firstNew on
+     */
+    private void restoreBidders(Map<String, User> users, int firstNew, int count) {
+        List<Bid> bids = bidHistory.all();
+        Map<String, User> bidders = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            Bid bid = bids.get(i);
+            User bidder = users.get(bid.getBidderId());
+            if (bidder == null) {
+                continue;
+            }
+            bidders.putIfAbsent(bidder.getUserId(), bidder);
+            if (i >= firstNew) {
+                bidder.addBidId(bid.getBidId());
+            }
+        }
+        observers.addAllAbsent(bidders.values());
+    }
+    
+    /**
+     * Set the system listener told about state transitions (null to detach)
+     */
+    public void setLifecycleListener(AuctionLifecycleListener listener) {
+        this.lifecycleListener = listener;
+    }
+    
+    /**
+     * Tell the listener if this state change took the bid to the reserve
+     */
+    private void checkReserveMet(BidState from, BidState to) {
+        if (from.amount < reservePrice && to.amount >= reservePrice) {
+            AuctionLifecycleListener listener = lifecycleListener;
+            if (listener != null) {
+                listener.onReserveMet(this);
             }
+        }
+    }
+    
+    /**
+     * Tell the listener if this state change set or moved the leader's hidden maximum
+     */
+    private void checkProxyMaximum(BidState from, BidState to) {
+        if (to.leaderMax > to.amount
+                && (to.leaderMax != from.leaderMax || !to.leaderId.equals(from.leaderId))) {
+            AuctionLifecycleListener listener = lifecycleListener;
+            if (listener != null) {
+                listener.onProxyMaximum(this, to.leaderId, to.leaderMax);
+            }
+        }
+    }
+    
+    private void fireStateChanged(AuctionState from, AuctionState to) {
+        AuctionLifecycleListener listener = lifecycleListener;
+        if (listener != null) {
+            listener.onStateChanged(this, from, to);
+        }
+    }
+    
+    /**
+     * Report the outcome of an auction that was just closed
+     */
+    private void announceEnd(BidState closed) {
+        User winner = null;
+        
+        // Check if reserve price is met
+        if (closed.amount >= reservePrice && closed.leaderId != null) {
+            AuctionLogger.info("\n🎉 Auction ended: '%s' SOLD for %s%n   Winner ID: %s",
+                title, Money.format(closed.amount), closed.leaderId);
             
-            // Notify all observers
-            notifyAuctionEnded(winner);
+            // Notify winner from observers list if available
+            winner = findObservingUser(closed.leaderId);
+        } else {
+            AuctionLogger.info("\n⚠️  Auction ended: '%s' - Reserve price NOT met (needed %s)", 
+                title, Money.format(reservePrice));
         }
+        
+        // Notify all observers
+        notifyAuctionEnded(winner);
     }
     
     /**
      * Check if reserve price has been met
      */
     public boolean isReserveMet() {
-        return currentBid >= reservePrice;
+        return bidState.get().amount >= reservePrice;
     }
     
     /**
-     * Get bid history (defensive copy)
+     * Get bid history as an immutable view, oldest first (no copy)
      */
     public List<Bid> getBidHistory() {
-        return new ArrayList<>(bidHistory);
+        return bidHistory.all();
+    }
+    
+    /**
+     * Get the most recent bids, oldest first (no copy)
+     */
+    public List<Bid> getRecentBids(int count) {
+        return bidHistory.latest(count);
+    }
+    
+    /**
+     * Number of bids recorded on this auction
+     */
+    public int getBidCount() {
+        return bidHistory.size();
+    }
+    
+    /**
+     * Whether the given user has bid on this auction
+     */
+    public boolean hasBidFrom(String userId) {
+        return bidHistory.containsBidder(userId);
+    }
+    
+    /**
+     * Primitive cursor over the bids recorded so far, for bulk reads
+     */
+    public BidHistory.Cursor getBidCursor() {
+        return bidHistory.cursor();
     }
     
     /**
      * Get time remaining in minutes
      */
     public long getTimeRemainingMinutes() {
-        if (state != AuctionState.ACTIVE) {
-            return 0;
-        }
-        LocalDateTime now = LocalDateTime.now();
-        if (now.isAfter(endTime)) {
+        if (bidState.get().state != AuctionState.ACTIVE) {
             return 0;
         }
-        return java.time.Duration.between(now, endTime).toMinutes();
+        long remaining = endTimeMillis - clock.millis();
+        return remaining > 0 ? remaining / 60_000 : 0;
     }
     
     // Getters
@@ -265,32 +803,56 @@ public class AuctionItem implements Serializable {
         return description;
     }
     
-    public double getCurrentBid() {
-        return currentBid;
+    /**
+     * Current highest bid in cents
+     */
+    public long getCurrentBid() {
+        return bidState.get().amount;
     }
     
-    public double getReservePrice() {
+    /**
+     * Smallest amount in cents the next bid must reach
+     */
+    public long getMinimumNextBid() {
+        return bidState.get().amount + minimumBidIncrement;
+    }
+    
+    public long getReservePrice() {
         return reservePrice;
     }
     
-    public double getStartingPrice() {
+    public long getStartingPrice() {
         return startingPrice;
     }
     
-    public double getMinimumBidIncrement() {
+    public long getMinimumBidIncrement() {
         return minimumBidIncrement;
     }
     
     public AuctionState getState() {
-        return state;
+        return bidState.get().state;
+    }
+    
+    public long getEndTimeMillis() {
+        return endTimeMillis;
+    }
+    
+    public long getStartTimeMillis() {
+        return startTimeMillis;
     }
     
+    /**
+     * End time as local date-time, for display
+     */
     public LocalDateTime getEndTime() {
-        return endTime;
+        return Clocks.toLocalDateTime(endTimeMillis);
     }
     
+    /**
+     * Start time as local date-time for display, or null if not started
+     */
     public LocalDateTime getStartTime() {
-        return startTime;
+        return startTimeMillis == 0 ? null : Clocks.toLocalDateTime(startTimeMillis);
     }
     
     public String getSellerId() {
@@ -306,13 +868,33 @@ public class AuctionItem implements Serializable {
     }
     
     public String getCurrentHighestBidderId() {
-        return currentHighestBidderId;
+        return bidState.get().leaderId;
+    }
+    
+    /**
+     * The leader's hidden proxy maximum if leaderId still leads, else 0.
+     * For persistence - internal use only.
+     */
+    public long getLeaderMaximum(String leaderId) {
+        BidState current = bidState.get();
+        return leaderId != null && leaderId.equals(current.leaderId) ? current.leaderMax : 0;
+    }
+    
+    /**
+     * Stamp that changes with every bid, proxy update and state change.
+     * With getBidCount it tells whether the auction changed since it was
+     * last saved.
+     */
+    public long getVersion() {
+        return bidState.get().version;
     }
     
     @Override
     public String toString() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        return String.format("Auction[%s | Current: $%.2f | Reserve: $%.2f | State: %s | Ends: %s]",
-            title, currentBid, reservePrice, state, endTime.format(formatter));
+        BidState current = bidState.get();
+        return String.format("Auction[%s | Current: %s | Reserve: %s | State: %s | Ends: %s]",
+            title, Money.format(current.amount), Money.format(reservePrice), current.state,
+            getEndTime().format(formatter));
     }
 }
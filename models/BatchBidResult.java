@@ -0,0 +1,59 @@
+package com.auction.models;
+
+import com.auction.enums.BidStatus;
+
+import java.util.List;
+
+/**
+ * Per-request outcomes of a batch bid submission, in submission order
+ */
+public final class BatchBidResult {
+    private final List<BidRequest> requests;
+    private final BidStatus[] statuses;
+    private final int acceptedCount;
+    
+    public BatchBidResult(List<BidRequest> requests, BidStatus[] statuses) {
+        if (requests.size() != statuses.length) {
+            throw new IllegalArgumentException("One status is required per request");
+        }
+        this.requests = List.copyOf(requests);
+        this.statuses = statuses.clone();
+        int accepted = 0;
+        for (BidStatus status : statuses) {
+            if (status == BidStatus.ACCEPTED) {
+                accepted++;
+            }
+        }
+        this.acceptedCount = accepted;
+    }
+    
+    public int size() {
+        return statuses.length;
+    }
+    
+    public BidRequest getRequest(int index) {
+        return requests.get(index);
+    }
+    
+    public BidStatus getStatus(int index) {
+        return statuses[index];
+    }
+    
+    public boolean isAccepted(int index) {
+        return statuses[index] == BidStatus.ACCEPTED;
+    }
+    
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+    
+    public int getRejectedCount() {
+        return statuses.length - acceptedCount;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("BatchBidResult[%d submitted, %d accepted, %d rejected]",
+            size(), acceptedCount, getRejectedCount());
+    }
+}
@@ -1,34 +1,54 @@
 package com.auction.models;
 
+import com.auction.util.ClockSource;
+import com.auction.util.Clocks;
+import com.auction.util.Ids;
+
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
 
 /**
  * Immutable class representing a bid in an auction
+ * Amount is in cents (see Money)
  */
 public class Bid implements Comparable<Bid>, Serializable {
     private static final long serialVersionUID = 1L;
     
-    private final String bidId;
+    private final long bidId;
     private final String bidderId;
     private final String bidderUsername;
-    private final double amount;
-    private final LocalDateTime timestamp;
+    private final long amount;
+    private final long timestampMillis;
     private final String auctionItemId;
     
-    public Bid(User bidder, double amount, String auctionItemId) {
-        this.bidId = UUID.randomUUID().toString();
+    /**
+     * A new bid stamped with the clock's current time
+     */
+    public Bid(User bidder, long amount, String auctionItemId, ClockSource clock) {
+        this.bidId = Ids.next();
         this.bidderId = bidder.getUserId();
         this.bidderUsername = bidder.getUsername();
         this.amount = amount;
         this.auctionItemId = auctionItemId;
-        this.timestamp = LocalDateTime.now();
+        this.timestampMillis = clock.millis();
+    }
+    
+    /**
+     * Rebuild a bid from stored columns (see BidHistory)
+     */
+    Bid(long bidId, String bidderId, String bidderUsername, long amount,
+        long timestampMillis, String auctionItemId) {
+        this.bidId = bidId;
+        this.bidderId = bidderId;
+        this.bidderUsername = bidderUsername;
+        this.amount = amount;
+        this.timestampMillis = timestampMillis;
+        this.auctionItemId = auctionItemId;
     }
     
     // Getters
-    public String getBidId() {
+    public long getBidId() {
         return bidId;
     }
     
@@ -40,12 +60,16 @@ public class Bid implements Comparable<Bid>, Serializable {
         return bidderUsername;
     }
     
-    public double getAmount() {
+    public long getAmount() {
         return amount;
     }
     
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return Clocks.toLocalDateTime(timestampMillis);
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
     }
     
     public String getAuctionItemId() {
@@ -54,13 +78,13 @@ public class Bid implements Comparable<Bid>, Serializable {
     
     @Override
     public int compareTo(Bid other) {
-        return Double.compare(this.amount, other.amount);
+        return Long.compare(this.amount, other.amount);
     }
     
     @Override
     public String toString() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return String.format("Bid[%s: $%.2f by %s at %s]", 
-            bidId.substring(0, 8), amount, bidderUsername, timestamp.format(formatter));
+        return String.format("Bid[%s: %s by %s at %s]", 
+            Ids.toText(bidId), Money.format(amount), bidderUsername, getTimestamp().format(formatter));
     }
 }
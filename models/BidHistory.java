@@ -0,0 +1,337 @@
+package com.auction.models;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Append-only, columnar store for one auction's bids.
+ *
+ * Bids are kept in chunks of parallel primitive arrays (amount, epoch-millis
+ * timestamp, interned bidder index) instead of one object per bid. The first
+ * chunk holds 16 bids and each next one doubles up to 1024, so an auction
+ * with a handful of bids stays small. Writers fill the slot for their
+ * acceptance position and the published size only advances over a gap-free
+ * prefix, so readers never see holes.
+ * Reads are immutable views over [from, to) that materialize a Bid only when
+ * an element is accessed; nothing is copied.
+ */
+public class BidHistory implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int FIRST_CHUNK_SHIFT = 4;
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // Chunks 0..GROWING_CHUNKS-1 double from 16 bids; together they hold GROWING_BIDS
+    private static final int GROWING_CHUNKS = CHUNK_SHIFT - FIRST_CHUNK_SHIFT;
+    private static final int GROWING_BIDS = CHUNK_SIZE - (1 << FIRST_CHUNK_SHIFT);
+    
+    private final String auctionItemId;
+    private volatile Chunk[] chunks;
+    private final AtomicInteger published;
+    
+    // Bidder dictionary: each distinct bidder is stored once per auction
+    private final ConcurrentHashMap<String, Integer> bidderIndex;
+    private volatile String[] bidderIds;
+    private volatile String[] bidderUsernames;
+    
+    public BidHistory(String auctionItemId) {
+        this.auctionItemId = auctionItemId;
+        this.chunks = new Chunk[0];
+        this.published = new AtomicInteger();
+        this.bidderIndex = new ConcurrentHashMap<>();
+        this.bidderIds = new String[4];
+        this.bidderUsernames = new String[4];
+    }
+    
+    /**
+     * One block of bids stored column by column
+     */
+    private static final class Chunk implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private final long[] bidIds;
+        private final long[] amounts;
+        private final long[] timestamps;
+        private final int[] bidders;
+        private final AtomicIntegerArray written;
+        
+        Chunk(int capacity) {
+            bidIds = new long[capacity];
+            amounts = new long[capacity];
+            timestamps = new long[capacity];
+            bidders = new int[capacity];
+            written = new AtomicIntegerArray(capacity);
+        }
+    }
+    
+    // ==================== ADDRESSING ====================
+    
+    /**
+     * Index of the chunk holding a position
+     */
+    private static int chunkIndex(int position) {
+        if (position < GROWING_BIDS) {
+            return 31 - Integer.numberOfLeadingZeros((position >>> FIRST_CHUNK_SHIFT) + 1);
+        }
+        return GROWING_CHUNKS + ((position - GROWING_BIDS) >>> CHUNK_SHIFT);
+    }
+    
+    /**
+     * Slot of a position within its chunk
+     */
+    private static int offset(int position) {
+        if (position < GROWING_BIDS) {
+            // Growing chunk k starts at position 16 * (2^k - 1)
+            return position + (1 << FIRST_CHUNK_SHIFT) - chunkCapacity(chunkIndex(position));
+        }
+        return (position - GROWING_BIDS) & CHUNK_MASK;
+    }
+    
+    private static int chunkCapacity(int chunkIndex) {
+        return chunkIndex < GROWING_CHUNKS ? 1 << (FIRST_CHUNK_SHIFT + chunkIndex) : CHUNK_SIZE;
+    }
+    
+    // ==================== WRITING ====================
+    
+    /**
+     * Store a bid at its acceptance position (0-based).
+     * Each position must be recorded exactly once; positions may arrive out of order.
+     */
+    public void record(int position, Bid bid) {
+        Chunk chunk = chunkFor(position);
+        int offset = offset(position);
+        chunk.bidIds[offset] = bid.getBidId();
+        chunk.amounts[offset] = bid.getAmount();
+        chunk.timestamps[offset] = bid.getTimestampMillis();
+        chunk.bidders[offset] = internBidder(bid.getBidderId(), bid.getBidderUsername());
+        chunk.written.set(offset, 1);
+        advancePublished();
+    }
+    
+    /**
+     * Move the published size forward over every contiguously written slot.
+     * Any writer may complete the work of a slower one.
+     */
+    private void advancePublished() {
+        while (true) {
+            int size = published.get();
+            Chunk[] current = chunks;
+            int chunkIndex = chunkIndex(size);
+            if (chunkIndex >= current.length || current[chunkIndex] == null
+                    || current[chunkIndex].written.get(offset(size)) == 0) {
+                return;
+            }
+            published.compareAndSet(size, size + 1);
+        }
+    }
+    
+    /**
+     * Clear slots in [from, to) that were written past a gap, so the
+     * positions can be recorded again. Only safe before the history is
+     * shared with other threads (recovery).
+     */
+    void discard(int from, int to) {
+        for (int position = Math.max(from, size()); position < to; position++) {
+            int chunkIndex = chunkIndex(position);
+            if (chunkIndex < chunks.length && chunks[chunkIndex] != null) {
+                chunks[chunkIndex].written.set(offset(position), 0);
+            }
+        }
+    }
+    
+    private Chunk chunkFor(int position) {
+        int chunkIndex = chunkIndex(position);
+        Chunk[] current = chunks;
+        if (chunkIndex < current.length && current[chunkIndex] != null) {
+            return current[chunkIndex];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (chunkIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(chunkIndex + 1, current.length * 2));
+            } else if (current[chunkIndex] == null) {
+                current = current.clone();
+            } else {
+                return current[chunkIndex];
+            }
+            current[chunkIndex] = new Chunk(chunkCapacity(chunkIndex));
+            chunks = current;
+            return current[chunkIndex];
+        }
+    }
+    
+    private int internBidder(String bidderId, String username) {
+        Integer index = bidderIndex.get(bidderId);
+        if (index != null) {
+            return index;
+        }
+        synchronized (bidderIndex) {
+            index = bidderIndex.get(bidderId);
+            if (index != null) {
+                return index;
+            }
+            int next = bidderIndex.size();
+            String[] ids = bidderIds;
+            String[] names = bidderUsernames;
+            if (next == ids.length) {
+                ids = Arrays.copyOf(ids, next * 2);
+                names = Arrays.copyOf(names, next * 2);
+            }
+            ids[next] = bidderId;
+            names[next] = username;
+            bidderUsernames = names;
+            bidderIds = ids;
+            bidderIndex.put(bidderId, next);
+            return next;
+        }
+    }
+    
+    // ==================== READING ====================
+    
+    /**
+     * Number of bids visible to readers
+     */
+    public int size() {
+        return published.get();
+    }
+    
+    /**
+     * Whether the given user has placed any bid on this auction
+     */
+    public boolean containsBidder(String bidderId) {
+        return bidderIndex.containsKey(bidderId);
+    }
+    
+    /**
+     * View of every bid recorded so far, oldest first
+     */
+    public List<Bid> all() {
+        return new View(0, size());
+    }
+    
+    /**
+     * View of the most recent n bids, oldest first
+     */
+    public List<Bid> latest(int n) {
+        int to = size();
+        return new View(Math.max(0, to - n), to);
+    }
+    
+    /**
+     * View of bids at positions [from, to)
+     */
+    public List<Bid> range(int from, int to) {
+        int size = size();
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + size);
+        }
+        return new View(from, to);
+    }
+    
+    /**
+     * Primitive cursor over the bids visible right now, oldest first
+     */
+    public Cursor cursor() {
+        return new Cursor(size());
+    }
+    
+    private Chunk chunkAt(int position) {
+        return chunks[chunkIndex(position)];
+    }
+    
+    private Bid materialize(int position) {
+        Chunk chunk = chunkAt(position);
+        int offset = offset(position);
+        int bidder = chunk.bidders[offset];
+        return new Bid(chunk.bidIds[offset], bidderIds[bidder], bidderUsernames[bidder],
+                       chunk.amounts[offset], chunk.timestamps[offset], auctionItemId);
+    }
+    
+    /**
+     * Immutable, copy-free list over a fixed range of the store
+     */
+    private final class View extends AbstractList<Bid> implements RandomAccess {
+        private final int from;
+        private final int to;
+        
+        View(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        public Bid get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + (to - from));
+            }
+            return materialize(from + index);
+        }
+        
+        @Override
+        public int size() {
+            return to - from;
+        }
+        
+        @Override
+        public List<Bid> subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ")");
+            }
+            return new View(from + fromIndex, from + toIndex);
+        }
+    }
+    
+    /**
+     * Forward-only cursor that reads columns without creating Bid objects
+     */
+    public final class Cursor {
+        private final int end;
+        private int position = -1;
+        
+        private Cursor(int end) {
+            this.end = end;
+        }
+        
+        public boolean next() {
+            if (position + 1 >= end) {
+                return false;
+            }
+            position++;
+            return true;
+        }
+        
+        public int position() {
+            return position;
+        }
+        
+        public long amount() {
+            return chunkAt(position).amounts[offset(position)];
+        }
+        
+        public long timestampMillis() {
+            return chunkAt(position).timestamps[offset(position)];
+        }
+        
+        public long bidId() {
+            return chunkAt(position).bidIds[offset(position)];
+        }
+        
+        public String bidderId() {
+            return bidderIds[chunkAt(position).bidders[offset(position)]];
+        }
+        
+        public String bidderUsername() {
+            return bidderUsernames[chunkAt(position).bidders[offset(position)]];
+        }
+        
+        public Bid bid() {
+            return materialize(position);
+        }
+    }
+}
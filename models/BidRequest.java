@@ -0,0 +1,57 @@
+package com.auction.models;
+
+import java.util.Objects;
+
+/**
+ * Immutable request to place one bid, used for batch submission.
+ * For a proxy request the amount is the bidder's hidden maximum.
+ */
+public final class BidRequest {
+    private final String auctionId;
+    private final User bidder;
+    private final long amount;
+    private final boolean proxy;
+    
+    /**
+     * @param amount bid amount in cents
+     */
+    public BidRequest(String auctionId, User bidder, long amount) {
+        this(auctionId, bidder, amount, false);
+    }
+    
+    private BidRequest(String auctionId, User bidder, long amount, boolean proxy) {
+        this.auctionId = Objects.requireNonNull(auctionId);
+        this.bidder = Objects.requireNonNull(bidder);
+        this.amount = amount;
+        this.proxy = proxy;
+    }
+    
+    /**
+     * Request a proxy bid with the given hidden maximum in cents
+     */
+    public static BidRequest proxy(String auctionId, User bidder, long maximum) {
+        return new BidRequest(auctionId, bidder, maximum, true);
+    }
+    
+    public String getAuctionId() {
+        return auctionId;
+    }
+    
+    public User getBidder() {
+        return bidder;
+    }
+    
+    public long getAmount() {
+        return amount;
+    }
+    
+    public boolean isProxy() {
+        return proxy;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("BidRequest[%s: %s%s by %s]", auctionId, proxy ? "max " : "",
+            Money.format(amount), bidder.getUsername());
+    }
+}
@@ -0,0 +1,111 @@
+package com.auction.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers. All amounts in the system are long cents,
+ * so comparisons are exact integer math.
+ * Formatting goes through a small direct-mapped cache so repeatedly
+ * rendered amounts (table refreshes, log lines) do not allocate.
+ */
+public final class Money {
+    public static final long CENTS_PER_DOLLAR = 100;
+    
+    private static final int CACHE_SIZE = 4096; // must be a power of two
+    private static final CacheEntry[] FORMAT_CACHE = new CacheEntry[CACHE_SIZE];
+    
+    private Money() {
+    }
+    
+    private static final class CacheEntry {
+        private final long cents;
+        private final String text;
+        private final String plain;
+        
+        CacheEntry(long cents, String text) {
+            this.cents = cents;
+            this.text = text;
+            this.plain = text.substring(1);
+        }
+    }
+    
+    /**
+     * Convert whole dollars to cents
+     */
+    public static long ofDollars(long dollars) {
+        return Math.multiplyExact(dollars, CENTS_PER_DOLLAR);
+    }
+    
+    /**
+     * Parse a user-entered amount such as "12", "12.5" or "$1,012.50" into cents.
+     * Throws NumberFormatException for malformed input or more than two decimals.
+     */
+    public static long parse(String text) {
+        String cleaned = text.trim().replace(",", "");
+        if (cleaned.startsWith("$")) {
+            cleaned = cleaned.substring(1);
+        }
+        try {
+            return new BigDecimal(cleaned)
+                .setScale(2, RoundingMode.UNNECESSARY)
+                .movePointRight(2)
+                .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+    }
+    
+    /**
+     * Percentage of an amount, rounded half up to the nearest cent
+     */
+    public static long percentOf(long cents, int percent) {
+        return (cents * percent + 50) / 100;
+    }
+    
+    /**
+     * Format cents as "$1234.56" (cached)
+     */
+    public static String format(long cents) {
+        return cached(cents).text;
+    }
+    
+    /**
+     * Format cents as "1234.56" without a currency sign (cached)
+     */
+    public static String formatPlain(long cents) {
+        return cached(cents).plain;
+    }
+    
+    /**
+     * Both renderings of an amount are built once per cache miss
+     */
+    private static CacheEntry cached(long cents) {
+        int slot = (int) (cents ^ (cents >>> 32)) & (CACHE_SIZE - 1);
+        CacheEntry entry = FORMAT_CACHE[slot];
+        if (entry != null && entry.cents == cents) {
+            return entry;
+        }
+        StringBuilder sb = new StringBuilder(16).append('$');
+        appendPlain(sb, cents);
+        entry = new CacheEntry(cents, sb.toString());
+        FORMAT_CACHE[slot] = entry;
+        return entry;
+    }
+    
+    /**
+     * Append cents as "1234.56" to an existing builder without allocating
+     */
+    public static StringBuilder appendPlain(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % CENTS_PER_DOLLAR;
+        sb.append(cents / CENTS_PER_DOLLAR).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+}
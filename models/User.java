@@ -2,6 +2,7 @@ package com.auction.models;
 
 import com.auction.enums.UserRole;
 import com.auction.observers.BidObserver;
+import com.auction.util.Ids;
 
 import java.io.Serializable;
 import java.security.MessageDigest;
@@ -22,20 +23,46 @@ public class User implements BidObserver, Serializable {
     private String salt;
     private String email;
     private UserRole role;
-    private List<String> myBidIds;
+    private long[] myBidIds;
+    private int myBidCount;
     
     public User(String username, String password, String email, UserRole role) {
-        this.userId = UUID.randomUUID().toString();
+        this.userId = Ids.nextText();
         this.username = username;
         this.email = email;
         this.role = role;
-        this.myBidIds = new ArrayList<>();
+        this.myBidIds = new long[8];
         
         // Generate salt and hash password
         this.salt = generateSalt();
         this.passwordHash = hashPassword(password, this.salt);
     }
     
+    /**
+     * Rebuild a stored user without rehashing the password
+     */
+    protected User(String userId, String username, String email, UserRole role,
+                   String salt, String passwordHash) {
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+        this.salt = salt;
+        this.passwordHash = passwordHash;
+        this.myBidIds = new long[8];
+    }
+    
+    /**
+     * Rebuild a user from persisted fields (journal or snapshot);
+     * ADMIN users come back as Admin
+     */
+    public static User restore(String userId, String username, String email, UserRole role,
+                               String salt, String passwordHash) {
+        return role == UserRole.ADMIN
+            ? new Admin(userId, username, email, salt, passwordHash)
+            : new User(userId, username, email, role, salt, passwordHash);
+    }
+    
     /**
      * Generate a random salt for password hashing
      */
@@ -71,14 +98,17 @@ public class User implements BidObserver, Serializable {
     /**
      * Add a bid ID to the user's bid history
      */
-    public void addBidId(String bidId) {
-        myBidIds.add(bidId);
+    public synchronized void addBidId(long bidId) {
+        if (myBidCount == myBidIds.length) {
+            myBidIds = Arrays.copyOf(myBidIds, myBidCount * 2);
+        }
+        myBidIds[myBidCount++] = bidId;
     }
     
     // Observer pattern implementation
     @Override
     public void onBidPlaced(AuctionItem item, Bid newBid) {
-        System.out.println("[NOTIFICATION] New bid of $" + String.format("%.2f", newBid.getAmount()) + 
+        System.out.println("[NOTIFICATION] New bid of " + Money.format(newBid.getAmount()) + 
                          " placed on: " + item.getTitle());
     }
     
@@ -86,9 +116,8 @@ public class User implements BidObserver, Serializable {
     public void onAuctionEnded(AuctionItem item, User winner) {
         if (winner != null && winner.getUserId().equals(this.userId)) {
             System.out.println("\n*** CONGRATULATIONS! You won the auction: " + item.getTitle() + 
-                             " for $" + String.format("%.2f", item.getCurrentBid()) + " ***\n");
-        } else if (myBidIds.stream().anyMatch(bidId -> 
-                    item.getBidHistory().stream().anyMatch(b -> b.getBidId().equals(bidId)))) {
+                             " for " + Money.format(item.getCurrentBid()) + " ***\n");
+        } else if (item.hasBidFrom(userId)) {
             System.out.println("[NOTIFICATION] Auction ended for: " + item.getTitle());
         }
     }
@@ -96,7 +125,7 @@ public class User implements BidObserver, Serializable {
     @Override
     public void onOutbid(AuctionItem item, Bid newBid) {
         System.out.println("\n[ALERT] You have been outbid on: " + item.getTitle() + 
-                         " | New bid: $" + String.format("%.2f", newBid.getAmount()) + "\n");
+                         " | New bid: " + Money.format(newBid.getAmount()) + "\n");
     }
     
     // Getters
@@ -116,16 +145,20 @@ public class User implements BidObserver, Serializable {
         return email;
     }
     
-    public List<String> getMyBidIds() {
-        return new ArrayList<>(myBidIds);
+    public synchronized long[] getMyBidIds() {
+        return Arrays.copyOf(myBidIds, myBidCount);
+    }
+    
+    public synchronized int getMyBidCount() {
+        return myBidCount;
     }
     
-    // For persistence - internal use only
-    protected String getSalt() {
+    // For persistence (event journal, snapshots) - internal use only
+    public String getSalt() {
         return salt;
     }
     
-    protected String getPasswordHash() {
+    public String getPasswordHash() {
         return passwordHash;
     }
     
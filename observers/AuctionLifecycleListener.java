@@ -0,0 +1,35 @@
+package com.auction.observers;
+
+import com.auction.enums.AuctionState;
+import com.auction.models.AuctionItem;
+import com.auction.models.Bid;
+
+/**
+ * Internal listener for auction lifecycle changes, used by the system
+ * (indexes, timers) rather than by users
+ */
+public interface AuctionLifecycleListener {
+    /**
+     * Called after an auction has moved from one state to another
+     */
+    void onStateChanged(AuctionItem item, AuctionState from, AuctionState to);
+    
+    /**
+     * Called after a bid has been written at the given bid history position
+     */
+    default void onBidRecorded(AuctionItem item, int position, Bid bid) {
+    }
+    
+    /**
+     * Called once when the current bid first reaches the reserve price
+     */
+    default void onReserveMet(AuctionItem item) {
+    }
+    
+    /**
+     * Called when a state change leaves the leader with a hidden proxy
+     * maximum above the current bid, or changes that maximum
+     */
+    default void onProxyMaximum(AuctionItem item, String leaderId, long maximum) {
+    }
+}
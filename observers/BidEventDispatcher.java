@@ -0,0 +1,340 @@
+package com.auction.observers;
+
+import com.auction.enums.OverflowPolicy;
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.models.Bid;
+import com.auction.models.User;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers auction events to observers on a background executor so that
+ * slow observers never hold up the bidding thread.
+ *
+ * Each auction has an unbounded serial queue that fans events out in the
+ * order they happened; each observer has a bounded queue whose overflow
+ * behaviour is set by an OverflowPolicy.
+ *
+ * Fan-out and delivery run on separate executors. A fan-out thread held up
+ * by a full BLOCK queue only delays further fan-out, while the delivery
+ * threads keep draining observer queues and free the space it waits for.
+ */
+public class BidEventDispatcher {
+    private static final int DEFAULT_QUEUE_CAPACITY = 256;
+    private static final int DRAIN_BATCH_SIZE = 64;
+    private static volatile BidEventDispatcher instance;
+    
+    private final ExecutorService fanOutExecutor;
+    private final ExecutorService deliveryExecutor;
+    private final Map<AuctionItem, Topic> topics;
+    private final Map<BidObserver, Mailbox> mailboxes;
+    private final Map<BidObserver, QueueSettings> settings;
+    private final LongAdder droppedEvents;
+    private volatile QueueSettings defaultSettings;
+    
+    private BidEventDispatcher() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        fanOutExecutor = newPool(threads, "bid-events-fanout-");
+        deliveryExecutor = newPool(threads, "bid-events-");
+        topics = new ConcurrentHashMap<>();
+        mailboxes = new ConcurrentHashMap<>();
+        settings = new ConcurrentHashMap<>();
+        droppedEvents = new LongAdder();
+        defaultSettings = new QueueSettings(DEFAULT_QUEUE_CAPACITY, OverflowPolicy.COALESCE);
+    }
+    
+    private static ExecutorService newPool(int threads, String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, namePrefix + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    
+    /**
+     * Get the singleton instance
+     */
+    public static BidEventDispatcher getInstance() {
+        if (instance == null) {
+            synchronized (BidEventDispatcher.class) {
+                if (instance == null) {
+                    instance = new BidEventDispatcher();
+                }
+            }
+        }
+        return instance;
+    }
+    
+    // ==================== CONFIGURATION ====================
+    
+    /**
+     * Set queue capacity and overflow policy for observers without their own settings
+     */
+    public void setDefaults(int capacity, OverflowPolicy policy) {
+        defaultSettings = new QueueSettings(capacity, policy);
+    }
+    
+    /**
+     * Set queue capacity and overflow policy for one observer.
+     * Takes effect the next time the observer's queue is created.
+     */
+    public void configure(BidObserver observer, int capacity, OverflowPolicy policy) {
+        settings.put(observer, new QueueSettings(capacity, policy));
+    }
+    
+    /**
+     * Forget an observer's queue; pending events for it are discarded
+     */
+    public void unregister(BidObserver observer) {
+        settings.remove(observer);
+        Mailbox mailbox = mailboxes.remove(observer);
+        if (mailbox != null) {
+            mailbox.queue.clear();
+        }
+    }
+    
+    /**
+     * Number of events discarded because an observer queue was full
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.sum();
+    }
+    
+    // ==================== PUBLISHING ====================
+    
+    /**
+     * Queue a bid-placed event for every observer of the item
+     */
+    public void bidPlaced(AuctionItem item, Bid bid, List<BidObserver> observers) {
+        publish(item, new BidEvent(EventType.BID_PLACED, item, bid, null, observers));
+    }
+    
+    /**
+     * Queue an outbid event for the previous highest bidder only
+     */
+    public void outbid(AuctionItem item, User previousBidder, Bid newBid) {
+        publish(item, new BidEvent(EventType.OUTBID, item, newBid, null, List.of(previousBidder)));
+    }
+    
+    /**
+     * Queue an auction-ended event for every observer of the item
+     */
+    public void auctionEnded(AuctionItem item, User winner, List<BidObserver> observers) {
+        publish(item, new BidEvent(EventType.AUCTION_ENDED, item, null, winner, observers));
+    }
+    
+    private void publish(AuctionItem item, BidEvent event) {
+        topics.computeIfAbsent(item, Topic::new).add(event);
+    }
+    
+    private void submit(ExecutorService executor, Runnable drain) {
+        try {
+            executor.execute(drain);
+        } catch (RejectedExecutionException e) {
+            // Dispatcher has been shut down - deliver on the calling thread
+            drain.run();
+        }
+    }
+    
+    /**
+     * Wait for queued events to be delivered, then stop the worker threads
+     */
+    public void shutdown() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline && !isIdle()) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        fanOutExecutor.shutdown();
+        deliveryExecutor.shutdown();
+    }
+    
+    private boolean isIdle() {
+        for (Topic topic : topics.values()) {
+            if (topic.scheduled.get()) {
+                return false;
+            }
+        }
+        for (Mailbox mailbox : mailboxes.values()) {
+            if (mailbox.scheduled.get()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // ==================== INTERNALS ====================
+    
+    private enum EventType {
+        BID_PLACED, OUTBID, AUCTION_ENDED
+    }
+    
+    /**
+     * Immutable event handed from the bidding thread to the dispatcher
+     */
+    private static final class BidEvent {
+        private final EventType type;
+        private final AuctionItem item;
+        private final Bid bid;
+        private final User winner;
+        private final List<BidObserver> recipients;
+        
+        BidEvent(EventType type, AuctionItem item, Bid bid, User winner, List<BidObserver> recipients) {
+            this.type = type;
+            this.item = item;
+            this.bid = bid;
+            this.winner = winner;
+            this.recipients = recipients;
+        }
+        
+        void deliverTo(BidObserver observer) {
+            switch (type) {
+                case BID_PLACED -> observer.onBidPlaced(item, bid);
+                case OUTBID -> observer.onOutbid(item, bid);
+                case AUCTION_ENDED -> observer.onAuctionEnded(item, winner);
+            }
+        }
+    }
+    
+    private static final class QueueSettings {
+        private final int capacity;
+        private final OverflowPolicy policy;
+        
+        QueueSettings(int capacity, OverflowPolicy policy) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Queue capacity must be positive");
+            }
+            this.capacity = capacity;
+            this.policy = Objects.requireNonNull(policy);
+        }
+    }
+    
+    /**
+     * Per-auction queue that fans events out to observer mailboxes one at a time,
+     * so every observer sees an auction's events in the order they happened
+     */
+    private final class Topic implements Runnable {
+        private final AuctionItem item;
+        private final Queue<BidEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        
+        Topic(AuctionItem item) {
+            this.item = item;
+        }
+        
+        void add(BidEvent event) {
+            queue.add(event);
+            if (scheduled.compareAndSet(false, true)) {
+                submit(fanOutExecutor, this);
+            }
+        }
+        
+        @Override
+        public void run() {
+            BidEvent event;
+            while ((event = queue.poll()) != null) {
+                for (BidObserver observer : event.recipients) {
+                    mailboxes.computeIfAbsent(observer, Mailbox::new).offer(event);
+                }
+                if (event.type == EventType.AUCTION_ENDED) {
+                    // No further events can follow a close
+                    topics.remove(item, this);
+                }
+            }
+            scheduled.set(false);
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                submit(fanOutExecutor, this);
+            }
+        }
+    }
+    
+    /**
+     * Bounded per-observer queue drained on the delivery executor
+     */
+    private final class Mailbox implements Runnable {
+        private final BidObserver observer;
+        private final BlockingQueue<BidEvent> queue;
+        private final OverflowPolicy policy;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        
+        Mailbox(BidObserver observer) {
+            QueueSettings queueSettings = settings.getOrDefault(observer, defaultSettings);
+            this.observer = observer;
+            this.queue = new ArrayBlockingQueue<>(queueSettings.capacity);
+            this.policy = queueSettings.policy;
+        }
+        
+        void offer(BidEvent event) {
+            if (!queue.offer(event) && !handleOverflow(event)) {
+                droppedEvents.increment();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                submit(deliveryExecutor, this);
+            }
+        }
+        
+        private boolean handleOverflow(BidEvent event) {
+            switch (policy) {
+                case BLOCK:
+                    // Runs on a fan-out thread; delivery threads drain the queue meanwhile
+                    try {
+                        queue.put(event);
+                        return true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                case COALESCE:
+                    // Make room by dropping an older bid-placed event, preferring the same auction
+                    if (removePendingBid(event.item) || removePendingBid(null)) {
+                        return queue.offer(event);
+                    }
+                    return false;
+                default:
+                    return false;
+            }
+        }
+        
+        private boolean removePendingBid(AuctionItem item) {
+            for (Iterator<BidEvent> it = queue.iterator(); it.hasNext(); ) {
+                BidEvent pending = it.next();
+                if (pending.type == EventType.BID_PLACED && (item == null || pending.item == item)) {
+                    it.remove();
+                    droppedEvents.increment();
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        @Override
+        public void run() {
+            for (int i = 0; i < DRAIN_BATCH_SIZE; i++) {
+                BidEvent event = queue.poll();
+                if (event == null) {
+                    break;
+                }
+                try {
+                    event.deliverTo(observer);
+                } catch (RuntimeException e) {
+                    AuctionLogger.error("❌ Observer failed handling %s: %s", event.type, e.getMessage());
+                }
+            }
+            scheduled.set(false);
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                submit(deliveryExecutor, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.BidStatus;
+import com.auction.enums.ItemCategory;
+import com.auction.enums.LogLevel;
+import com.auction.enums.UserRole;
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.models.User;
+import com.auction.util.Checks;
+import com.auction.util.ClockSource;
+import com.auction.util.Ids;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a manager from a hand-set clock, far from the real time, and
+ * checks that end times, bid times, statistics and snapshot stamps, archive
+ * ages and close timers all follow it. Exits 1 if any check fails.
+ */
+public class AuctionManagerClockTest {
+    
+    private static final long START = 1_900_000_000_000L;
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    
+    private static final Checks checks = new Checks("AuctionManagerClockTest");
+    
+    /**
+     * Clock that only moves when told to
+     */
+    private static final class ManualClock implements ClockSource {
+        private volatile long now;
+        
+        ManualClock(long now) {
+            this.now = now;
+        }
+        
+        void advance(long millis) {
+            now += millis;
+        }
+        
+        @Override
+        public long millis() {
+            return now;
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        AuctionLogger.setLevel(LogLevel.WARN);
+        ManualClock clock = new ManualClock(START);
+        AuctionManager manager = new AuctionManager(clock, 2, 10);
+        manager.attachArchive(AuctionArchive.open(Files.createTempDirectory("clock-test"), 1 << 20, 16));
+        
+        manager.registerUser("seller", "pw", "seller@example.com", UserRole.USER);
+        User seller = manager.getUserByUsername("seller");
+        String itemId = manager.createAuction("clock", "", 1_000, 0, seller, ItemCategory.values()[0], 60);
+        AuctionItem item = manager.getAuction(itemId);
+        checks.that(item.getEndTimeMillis() == START + 60 * MINUTE, "end time is an hour after the manager's now");
+        checks.that(manager.getStatistics().getTakenAtMillis() == START, "statistics stamped with the manager's now");
+        checks.that(manager.captureSnapshot().getTakenAtMillis() == START, "snapshot stamped with the manager's now");
+        checks.that(item.getTimeRemainingMinutes() == 60, "an hour left by the manager's clock");
+        
+        // Bids are stamped, and refused after the end, by the manager's clock
+        manager.registerUser("bidder", "pw", "bidder@example.com", UserRole.USER);
+        User bidder = manager.getUserByUsername("bidder");
+        AuctionItem late = manager.getAuction(manager.createAuction("late", "", 1_000, 0, seller,
+            ItemCategory.values()[0], 60));
+        clock.advance(MINUTE);
+        checks.that(manager.placeBid(late.getItemId(), bidder, 1_500) == BidStatus.ACCEPTED, "bid before the end");
+        checks.that(late.getBidHistory().get(0).getTimestampMillis() == START + MINUTE, "bid stamped with the manager's now");
+        clock.advance(60 * MINUTE);
+        checks.that(manager.placeBid(late.getItemId(), bidder, 2_000) == BidStatus.AUCTION_ENDED,
+            "bid refused once the manager's clock passes the end");
+        checks.that(late.getState() == AuctionState.CLOSED, "refused bid closes the auction");
+        
+        // Archive age is measured from the manager's clock; both auctions ended an hour after START
+        item.endAuction();
+        clock.advance(29 * MINUTE - MINUTE);
+        checks.that(manager.archiveClosedAuctions(30 * MINUTE) == 0, "not archived 29 minutes after its end");
+        clock.advance(2 * MINUTE);
+        checks.that(manager.archiveClosedAuctions(30 * MINUTE) == 2, "archived 31 minutes after their end");
+        
+        // Re-arming moves a pending close timer to the clock's new now
+        AuctionItem moved = manager.getAuction(manager.createAuction("moved", "", 1_000, 0, seller,
+            ItemCategory.values()[0], 60));
+        clock.advance(61 * MINUTE);
+        checks.that(manager.armCloseTimers() == 0, "no new timer for an auction that has one");
+        checks.that(awaitClosed(moved), "moved close timer fires once the clock passes the end");
+        
+        // In a fresh manager, a restored auction already past its end by the manager's
+        // clock closes at once, though by the real clock it ends decades from now
+        AuctionManager restored = new AuctionManager(clock, 1, 10);
+        AuctionItem due = AuctionItem.restore(Ids.nextText(), "due", "", 1_000, 0, 50, seller.getUserId(),
+            seller.getUsername(), ItemCategory.values()[0], START, clock.millis() - MINUTE);
+        due.finishRestore(AuctionState.ACTIVE, null);
+        restored.restoreState(Collections.emptyList(), Collections.singletonList(due));
+        checks.that(restored.armCloseTimers() == 1, "close timer armed");
+        checks.that(awaitClosed(due), "close timer follows the manager's clock");
+        
+        restored.shutdown();
+        manager.shutdown();
+        checks.finish();
+    }
+    
+    private static boolean awaitClosed(AuctionItem item) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (item.getState() != AuctionState.CLOSED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return item.getState() == AuctionState.CLOSED;
+    }
+}
@@ -0,0 +1,185 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.ItemCategory;
+import com.auction.enums.LogLevel;
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.util.Checks;
+import com.auction.util.Ids;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the column store's revenue totals and price trend against the
+ * auctions appended to it, and that scans skip segments outside the time
+ * range or auction asked for. Twelve monthly batches are appended, one
+ * segment each. Exits 1 if any check fails.
+ */
+public class BidColumnStoreTest {
+    
+    private static final long MONTH = TimeUnit.DAYS.toMillis(30);
+    private static final long START = 1_700_000_000_000L;
+    private static final int MONTHS = 12;
+    private static final int AUCTIONS_PER_MONTH = 200;
+    
+    private static final Checks checks = new Checks("BidColumnStoreTest");
+    
+    public static void main(String[] args) throws Exception {
+        AuctionLogger.setLevel(LogLevel.WARN);
+        Path dir = Files.createTempDirectory("bid-columns-test");
+        Random random = new Random(7);
+        List<AuctionItem> all = new ArrayList<>();
+        
+        try (BidColumnStore store = BidColumnStore.open(dir, 1 << 20)) {
+            for (int month = 0; month < MONTHS; month++) {
+                List<AuctionItem> batch = new ArrayList<>();
+                for (int i = 0; i < AUCTIONS_PER_MONTH; i++) {
+                    batch.add(closedAuction(START + month * MONTH, random));
+                }
+                store.append(batch);
+                all.addAll(batch);
+            }
+            checks.that(store.getSegmentCount() == MONTHS, "one segment per monthly batch");
+            
+            // Revenue over the year, one month, and a range cutting through a month
+            checks.that(store.revenue(START, START + MONTHS * MONTH) == expectedRevenue(all, START, START + MONTHS * MONTH),
+                "revenue over the year");
+            long monthFrom = START + 2 * MONTH;
+            checks.that(store.revenue(monthFrom, monthFrom + MONTH) == expectedRevenue(all, monthFrom, monthFrom + MONTH),
+                "revenue over one month");
+            long midFrom = START + 5 * MONTH + MONTH / 3;
+            long midTo = START + 7 * MONTH + MONTH / 2;
+            checks.that(store.revenue(midFrom, midTo) == expectedRevenue(all, midFrom, midTo), "revenue over a partial range");
+            checks.that(store.revenue(START - MONTH, START) == 0, "no revenue before the first bid");
+            
+            // A one-month scan reads one segment and skips the rest
+            BidColumnStore.Scan scan = store.scan(monthFrom, monthFrom + MONTH, null);
+            long rows = 0;
+            long total = 0;
+            while (scan.next()) {
+                rows++;
+                total += scan.amount();
+            }
+            checks.that(rows == expectedBids(all, monthFrom, monthFrom + MONTH, null)[0], "month scan finds every bid");
+            checks.that(total == expectedBids(all, monthFrom, monthFrom + MONTH, null)[1], "month scan amounts add up");
+            checks.that(scan.getSegmentsRead() == 1 && scan.getSegmentsSkipped() == MONTHS - 1,
+                "month scan reads 1 segment and skips " + (MONTHS - 1) + ": read " + scan.getSegmentsRead());
+            
+            // An auction scan over the whole year skips every segment but its own
+            AuctionItem target = all.get(9 * AUCTIONS_PER_MONTH + 17);
+            scan = store.scan(START, START + MONTHS * MONTH, target.getItemId());
+            rows = 0;
+            while (scan.next()) {
+                checks.that(scan.auctionId().equals(target.getItemId()), "auction scan stays on its auction");
+                rows++;
+            }
+            checks.that(rows == target.getBidCount(), "auction scan finds all its bids");
+            checks.that(scan.getSegmentsRead() == 1 && scan.getSegmentsSkipped() == MONTHS - 1,
+                "auction scan reads 1 segment: read " + scan.getSegmentsRead());
+            
+            // Weekly price trend over a month matches the bids it covers
+            long trendBids = 0;
+            long trendTotal = 0;
+            for (BidColumnStore.PricePoint point : store.priceTrend(monthFrom, monthFrom + MONTH,
+                    TimeUnit.DAYS.toMillis(7), null)) {
+                trendBids += point.getBidCount();
+                trendTotal += point.getAverageAmount() * point.getBidCount();
+                checks.that(point.getMinAmount() <= point.getAverageAmount()
+                    && point.getAverageAmount() <= point.getMaxAmount(), "bucket min <= avg <= max");
+            }
+            checks.that(trendBids == expectedBids(all, monthFrom, monthFrom + MONTH, null)[0], "trend counts every bid");
+            checks.that(Math.abs(trendTotal - total) <= trendBids, "trend averages add up");
+            
+            // Removed auctions drop out of revenue and scans
+            AuctionItem sold = firstSold(all, monthFrom, monthFrom + MONTH);
+            long before = store.revenue(monthFrom, monthFrom + MONTH);
+            checks.that(store.remove(sold.getItemId()), "remove stored auction");
+            checks.that(store.revenue(monthFrom, monthFrom + MONTH) == before - sold.getCurrentBid(),
+                "removed auction leaves revenue");
+        }
+        
+        // Reopening reads the footers back and answers the same
+        try (BidColumnStore store = BidColumnStore.open(dir, 1 << 20)) {
+            long monthFrom = START + 2 * MONTH;
+            AuctionItem sold = firstSold(all, monthFrom, monthFrom + MONTH);
+            checks.that(store.revenue(monthFrom, monthFrom + MONTH)
+                == expectedRevenue(all, monthFrom, monthFrom + MONTH) - sold.getCurrentBid(), "revenue after reopen");
+        }
+        
+        checks.finish();
+    }
+    
+    /**
+     * A closed auction with 1-20 rising bids spread over the month from monthStart;
+     * about a third keep a reserve the bids never reach
+     */
+    private static AuctionItem closedAuction(long monthStart, Random random) {
+        long reserve = random.nextInt(3) == 0 ? 1_000_000 : 0;
+        long first = monthStart + TimeUnit.MINUTES.toMillis(random.nextInt((int) TimeUnit.DAYS.toMinutes(25)));
+        AuctionItem item = AuctionItem.restore(Ids.nextText(), "item", "", 1_000, reserve, 50, "seller", "seller",
+            ItemCategory.values()[0], first, first + TimeUnit.DAYS.toMillis(5));
+        int bids = 1 + random.nextInt(20);
+        long amount = 1_000;
+        long time = first;
+        for (int position = 0; position < bids; position++) {
+            amount += 50 + random.nextInt(500);
+            time += random.nextInt((int) TimeUnit.HOURS.toMillis(5));
+            int bidder = random.nextInt(40);
+            item.restoreBid(position, Ids.next(), "u" + bidder, "user" + bidder, amount, time);
+        }
+        item.finishRestore(AuctionState.CLOSED, null);
+        return item;
+    }
+    
+    private static long lastBidTime(AuctionItem item) {
+        return item.getBidHistory().get(item.getBidCount() - 1).getTimestampMillis();
+    }
+    
+    private static boolean isSold(AuctionItem item) {
+        return item.isReserveMet() && item.getCurrentHighestBidderId() != null;
+    }
+    
+    private static long expectedRevenue(List<AuctionItem> items, long from, long to) {
+        long total = 0;
+        for (AuctionItem item : items) {
+            long last = lastBidTime(item);
+            if (isSold(item) && last >= from && last < to) {
+                total += item.getCurrentBid();
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * {bids, total amount} placed in [from, to), on one auction or all if itemId is null
+     */
+    private static long[] expectedBids(List<AuctionItem> items, long from, long to, String itemId) {
+        long[] result = new long[2];
+        for (AuctionItem item : items) {
+            if (itemId != null && !itemId.equals(item.getItemId())) {
+                continue;
+            }
+            item.getBidHistory().forEach(bid -> {
+                if (bid.getTimestampMillis() >= from && bid.getTimestampMillis() < to) {
+                    result[0]++;
+                    result[1] += bid.getAmount();
+                }
+            });
+        }
+        return result;
+    }
+    
+    private static AuctionItem firstSold(List<AuctionItem> items, long from, long to) {
+        for (AuctionItem item : items) {
+            long last = lastBidTime(item);
+            if (isSold(item) && last >= from && last < to) {
+                return item;
+            }
+        }
+        throw new IllegalStateException("No sold auction in range");
+    }
+}
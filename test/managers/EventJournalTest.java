@@ -0,0 +1,163 @@
+package com.auction.managers;
+
+import com.auction.enums.JournalEventType;
+import com.auction.enums.LogLevel;
+import com.auction.logging.AuctionLogger;
+import com.auction.util.Checks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Journal framing and recovery: events appended from several threads read
+ * back gap-free across segments; a torn last frame is cut off on open and
+ * the journal continues after the last complete event; a frame whose CRC
+ * does not match ends the last segment there, and fails the read anywhere
+ * else.
+ */
+public class EventJournalTest {
+    
+    private static final int THREADS = 4;
+    private static final int EVENTS_PER_THREAD = 1_000;
+    private static final int EVENTS = THREADS * EVENTS_PER_THREAD;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 1; // length, crc32c, sequence, type
+    private static final long SEGMENT_BYTES = 16 * 1024;
+    
+    private static final Checks checks = new Checks("EventJournalTest");
+    
+    public static void main(String[] args) throws Exception {
+        AuctionLogger.setLevel(LogLevel.ERROR);
+        Path dir = Files.createTempDirectory("journal-test");
+        
+        // Concurrent appends read back in sequence order, once each
+        try (EventJournal journal = open(dir)) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                        journal.auctionRemoved("item-" + thread + "-" + i);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            checks.that(journal.awaitDurable(EVENTS, 5_000), "every event forced to disk");
+        }
+        List<String> items = new ArrayList<>();
+        checks.equal((long) EVENTS, readAll(dir, items), "last sequence after concurrent appends");
+        checks.equal(EVENTS, new HashSet<>(items).size(), "each event read back once");
+        checks.that(segments(dir).size() > 2, "events span several segments");
+        
+        // A torn last frame is dropped; reopening cuts it and continues after it
+        Path last = lastSegment(dir);
+        long size = Files.size(last);
+        truncate(last, size - 5);
+        checks.equal((long) EVENTS - 1, readAll(dir, null), "torn frame is not read");
+        try (EventJournal journal = open(dir)) {
+            checks.equal((long) EVENTS - 1, journal.getLastSequence(), "reopened journal continues after the tear");
+            checks.equal((long) EVENTS, journal.auctionRemoved("after-tear"), "next event reuses the torn sequence");
+        }
+        items.clear();
+        checks.equal((long) EVENTS, readAll(dir, items), "appends after the tear read back");
+        checks.equal("after-tear", items.get(items.size() - 1), "last event is the one written after the tear");
+        
+        // A damaged frame ends the last segment at the frame before it
+        last = lastSegment(dir);
+        List<Long> offsets = frameOffsets(last);
+        long firstOfLast = EVENTS - offsets.size() + 1;
+        int damaged = offsets.size() / 2;
+        flipPayloadByte(last, offsets.get(damaged));
+        checks.equal(firstOfLast + damaged - 1, readAll(dir, null), "read stops before the damaged frame");
+        try (EventJournal journal = open(dir)) {
+            checks.equal(firstOfLast + damaged - 1, journal.getLastSequence(), "reopen cuts at the damaged frame");
+        }
+        checks.equal((long) offsets.get(damaged), Files.size(last), "damaged frame and everything after it are cut");
+        
+        // Damage in an earlier segment cannot be cut off and fails the read
+        Path first = segments(dir).get(0);
+        flipPayloadByte(first, frameOffsets(first).get(1));
+        try {
+            readAll(dir, null);
+            checks.that(false, "damaged earlier segment fails the read");
+        } catch (IOException expected) {
+            checks.that(expected.getMessage().contains("Corrupt journal segment"), "damage is reported: " + expected);
+        }
+        
+        checks.finish();
+    }
+    
+    private static EventJournal open(Path dir) throws IOException {
+        return EventJournal.open(dir, 5, 256, SEGMENT_BYTES, System::currentTimeMillis);
+    }
+    
+    /**
+     * Read every event, collecting the item IDs if a list is given; returns the last sequence
+     */
+    private static long readAll(Path dir, List<String> items) throws IOException {
+        long[] expected = {1};
+        long last = EventJournal.read(dir, 0, record -> {
+            checks.that(record.getSequence() == expected[0]++, "sequence " + record.getSequence() + " in order");
+            checks.that(record.getType() == JournalEventType.AUCTION_REMOVED, "event type survives");
+            String itemId = record.readString();
+            if (items != null) {
+                items.add(itemId);
+            }
+        });
+        checks.equal(last, expected[0] - 1, "read returns the last sequence it handed out");
+        return last;
+    }
+    
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+    
+    private static Path lastSegment(Path dir) throws IOException {
+        List<Path> segments = segments(dir);
+        return segments.get(segments.size() - 1);
+    }
+    
+    /**
+     * Start offset of each frame in a segment
+     */
+    private static List<Long> frameOffsets(Path segment) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<Long> offsets = new ArrayList<>();
+        while (bytes.remaining() >= HEADER_BYTES) {
+            offsets.add((long) bytes.position());
+            bytes.position(bytes.position() + HEADER_BYTES + bytes.getInt(bytes.position()));
+        }
+        return offsets;
+    }
+    
+    private static void flipPayloadByte(Path segment, long frameOffset) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long at = frameOffset + HEADER_BYTES + 4;
+            channel.read(one, at);
+            one.put(0, (byte) (one.get(0) ^ 0x20));
+            one.rewind();
+            channel.write(one, at);
+        }
+    }
+    
+    private static void truncate(Path segment, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.models.Admin;
+import com.auction.models.AuctionItem;
+import com.auction.models.Bid;
+import com.auction.models.User;
+import com.auction.util.Checks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Round-trip test for the legacy converter: converts users.dat and
+ * auctions.dat written by the pre-snapshot User/AuctionItem/Bid classes
+ * (in test/managers/legacy), reloads the snapshot and checks that prices
+ * became cents and that every user's bid IDs point at that user's bids.
+ * Pass the fixture directory as the first argument if not run from the
+ * repository root; exits 1 if any check fails.
+ */
+public class LegacyDataReaderTest {
+    
+    private static final Checks checks = new Checks("LegacyDataReaderTest");
+    
+    public static void main(String[] args) throws Exception {
+        Path fixtures = Paths.get(args.length > 0 ? args[0] : "test/managers/legacy");
+        Path dir = Files.createTempDirectory("legacy-test");
+        Path snapshotFile = dir.resolve("snapshot.bin");
+        
+        checks.that(FileManager.convertLegacyFiles(fixtures.resolve("users.dat"), fixtures.resolve("auctions.dat"),
+            snapshotFile), "legacy files convert");
+        StateSnapshot snapshot = FileManager.loadSnapshot(snapshotFile);
+        
+        Map<String, User> users = new HashMap<>();
+        for (User user : snapshot.getUsers()) {
+            users.put(user.getUsername(), user);
+        }
+        Map<String, AuctionItem> auctions = new HashMap<>();
+        for (AuctionItem item : snapshot.getAuctions()) {
+            auctions.put(item.getTitle(), item);
+        }
+        checks.that(users.size() == 4, "4 users");
+        checks.that(auctions.size() == 3, "3 auctions");
+        checks.that(users.get("admin") instanceof Admin, "admin comes back as Admin");
+        checks.that(users.get("alice").verifyPassword("pw"), "password hash and salt survive");
+        
+        AuctionItem watch = auctions.get("Watch");
+        checks.that(watch.getStartingPrice() == 10_025 && watch.getReservePrice() == 15_000, "watch prices in cents");
+        checks.that(watch.getMinimumBidIncrement() == 501, "watch increment rounds to the cent");
+        checks.that(watch.getState() == AuctionState.ACTIVE, "watch stays active");
+        checks.that(amounts(watch).equals(Arrays.asList(12_010L, 13_099L, 17_550L)), "watch bid amounts in cents");
+        checks.that(watch.getCurrentBid() == 17_550 && watch.getCurrentHighestBidderId().equals(users.get("bob").getUserId()),
+            "watch is led by bob at $175.50");
+        
+        AuctionItem lamp = auctions.get("Lamp");
+        checks.that(lamp.getState() == AuctionState.CLOSED && amounts(lamp).equals(Collections.singletonList(2_100L)),
+            "lamp closed at $21.00");
+        AuctionItem chair = auctions.get("Chair");
+        checks.that(chair.getBidCount() == 0 && chair.getCurrentBid() == 4_550, "chair has no bids at $45.50");
+        
+        for (User user : users.values()) {
+            checks.that(bidIdsOf(user, auctions.values()).equals(idSet(user.getMyBidIds())),
+                user.getUsername() + "'s bid IDs match the bids placed");
+        }
+        checks.that(users.get("bob").getMyBidIds().length == 2 && users.get("carol").getMyBidIds().length == 2,
+            "bob and carol keep two bids each");
+        
+        // A damaged file is reported, not thrown, and no snapshot is written
+        Path truncated = dir.resolve("auctions.dat");
+        byte[] bytes = Files.readAllBytes(fixtures.resolve("auctions.dat"));
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+        Path unwritten = dir.resolve("unwritten.bin");
+        checks.that(!FileManager.convertLegacyFiles(fixtures.resolve("users.dat"), truncated, unwritten),
+            "truncated file fails to convert");
+        checks.that(!Files.exists(unwritten), "no snapshot from a failed conversion");
+        
+        checks.finish();
+    }
+    
+    private static List<Long> amounts(AuctionItem item) {
+        List<Long> amounts = new ArrayList<>();
+        for (Bid bid : item.getBidHistory()) {
+            amounts.add(bid.getAmount());
+        }
+        return amounts;
+    }
+    
+    private static Set<Long> bidIdsOf(User user, Collection<AuctionItem> auctions) {
+        Set<Long> ids = new HashSet<>();
+        for (AuctionItem item : auctions) {
+            for (Bid bid : item.getBidHistory()) {
+                if (bid.getBidderId().equals(user.getUserId())) {
+                    ids.add(bid.getBidId());
+                }
+            }
+        }
+        return ids;
+    }
+    
+    private static Set<Long> idSet(long[] ids) {
+        Set<Long> set = new HashSet<>();
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+}
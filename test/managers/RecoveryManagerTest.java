@@ -0,0 +1,138 @@
+package com.auction.managers;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.BidStatus;
+import com.auction.enums.ItemCategory;
+import com.auction.enums.LogLevel;
+import com.auction.enums.UserRole;
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.models.Bid;
+import com.auction.models.User;
+import com.auction.util.Checks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Crash/recover test: a child process bids and halts without shutting
+ * down, then this process recovers from its snapshot and journal and checks
+ * that pre-crash bidders still get proxy replies, outbid alerts and winner
+ * notifications. Run with the compiled classes on the classpath; exits 1
+ * if any check fails.
+ */
+public class RecoveryManagerTest {
+    
+    private static final long WAIT_MILLIS = 5000;
+    
+    private static final Checks checks = new Checks("RecoveryManagerTest");
+    
+    public static void main(String[] args) throws Exception {
+        AuctionLogger.setLevel(LogLevel.WARN);
+        if (args.length == 2 && args[0].equals("crash")) {
+            writeAndCrash(Paths.get(args[1]));
+            return;
+        }
+        
+        Path dir = Files.createTempDirectory("recovery-test");
+        Process child = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path"), RecoveryManagerTest.class.getName(), "crash", dir.toString())
+            .inheritIO().start();
+        checks.that(child.waitFor() == 0, "crashing child exits cleanly");
+        
+        AuctionManager manager = AuctionManager.getInstance();
+        manager.attachJournal(EventJournal.open(dir.resolve("journal"), 5, 1024, 1 << 20, manager.getClockSource()));
+        RecoveryManager.recover(manager, dir.resolve("snap.bin"), dir.resolve("journal"));
+        
+        User alice = manager.getUserByUsername("alice");
+        User bob = manager.getUserByUsername("bob");
+        User carol = manager.getUserByUsername("carol");
+        AuctionItem snapshotOnly = manager.searchAuctions("snapshot lamp").get(0);
+        AuctionItem journaled = manager.searchAuctions("journal clock").get(0);
+        
+        // Bid ids come back from the snapshot and from the journal tail alike
+        checks.that(alice.getMyBidIds().length == bidsBy(alice, snapshotOnly) + bidsBy(alice, journaled),
+            "alice's bid ids match the restored bids");
+        checks.that(bob.getMyBidIds().length == bidsBy(bob, journaled), "bob's bid ids match the restored bids");
+        
+        PrintStream console = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8.name()));
+        try {
+            // Beating the proxy records its last bid for alice, then alerts alice as the only displaced bidder
+            int aliceBids = alice.getMyBidIds().length;
+            checks.that(manager.placeBid(journaled.getItemId(), carol, 50_000) == BidStatus.ACCEPTED,
+                "carol outbids alice's proxy");
+            checks.that(alice.getMyBidIds().length == aliceBids + 1, "proxy's final bid on journaled auction is alice's");
+            checks.that(awaitOutput(captured, "You have been outbid on: journal clock"), "alice is told of being outbid");
+            
+            // A proxy reply is credited to the pre-crash proxy bidder only if it observes the auction
+            checks.that(manager.placeBid(snapshotOnly.getItemId(), carol, 2_000) == BidStatus.OUTBID_BY_PROXY,
+                "snapshot-only auction answers with alice's proxy");
+            checks.that(alice.getMyBidIds().length == aliceBids + 2, "proxy reply on snapshot-only auction is alice's");
+            snapshotOnly.endAuction();
+            checks.that(snapshotOnly.getState() == AuctionState.CLOSED, "auction closes");
+            checks.that(awaitOutput(captured, "You won the auction: snapshot lamp"), "alice is told of winning");
+        } finally {
+            System.setOut(console);
+        }
+        
+        manager.shutdown();
+        checks.finish();
+    }
+    
+    /**
+     * Child process: bid on one auction before a snapshot and on another after it, then halt
+     */
+    private static void writeAndCrash(Path dir) throws Exception {
+        AuctionManager manager = AuctionManager.getInstance();
+        EventJournal journal = EventJournal.open(dir.resolve("journal"), 5, 1024, 1 << 20, manager.getClockSource());
+        manager.attachJournal(journal);
+        manager.registerUser("seller", "pw", "seller@example.com", UserRole.USER);
+        manager.registerUser("alice", "pw", "alice@example.com", UserRole.USER);
+        manager.registerUser("bob", "pw", "bob@example.com", UserRole.USER);
+        manager.registerUser("carol", "pw", "carol@example.com", UserRole.USER);
+        User seller = manager.getUserByUsername("seller");
+        User alice = manager.getUserByUsername("alice");
+        User bob = manager.getUserByUsername("bob");
+        
+        String lamp = manager.createAuction("snapshot lamp", "only in the snapshot", 1_000, 0,
+            seller, ItemCategory.values()[0], 60);
+        manager.placeProxyBid(lamp, alice, 5_000);
+        FileManager.saveSnapshot(manager.captureSnapshot(), dir.resolve("snap.bin"));
+        
+        String clock = manager.createAuction("journal clock", "only in the journal", 1_000, 0,
+            seller, ItemCategory.values()[0], 60);
+        manager.placeBid(clock, bob, 1_500);
+        manager.placeProxyBid(clock, alice, 10_000);
+        manager.placeBid(clock, bob, 3_000);
+        
+        journal.awaitDurable(journal.getLastSequence(), WAIT_MILLIS);
+        Runtime.getRuntime().halt(0);
+    }
+    
+    private static int bidsBy(User user, AuctionItem item) {
+        int count = 0;
+        for (Bid bid : item.getBidHistory()) {
+            if (bid.getBidderId().equals(user.getUserId())) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private static boolean awaitOutput(ByteArrayOutputStream captured, String text) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (new String(captured.toByteArray(), StandardCharsets.UTF_8).contains(text)) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,175 @@
+package com.auction.managers;
+
+import com.auction.enums.ItemCategory;
+import com.auction.enums.JournalEventType;
+import com.auction.enums.LogLevel;
+import com.auction.enums.UserRole;
+import com.auction.logging.AuctionLogger;
+import com.auction.models.AuctionItem;
+import com.auction.models.Bid;
+import com.auction.models.User;
+import com.auction.observers.BidEventDispatcher;
+import com.auction.util.Checks;
+import com.auction.util.ClockSource;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Takes incremental snapshots while bidder threads keep bidding. Each
+ * snapshot must hold every bid the journal had up to the snapshot's
+ * sequence, with histories that match the bid counts and prices, and
+ * recovering from any of them plus the journal tail must give back the
+ * final live state.
+ */
+public class SnapshotWriterTest {
+    
+    private static final int AUCTIONS = 20;
+    private static final int BIDDERS = 4;
+    private static final int SNAPSHOTS = 8;
+    
+    private static final Checks checks = new Checks("SnapshotWriterTest");
+    
+    public static void main(String[] args) throws Exception {
+        AuctionLogger.setLevel(LogLevel.ERROR);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // bid and outbid notices
+        
+        ClockSource clock = System::currentTimeMillis;
+        Path dir = Files.createTempDirectory("snapshot-test");
+        Path journalDir = dir.resolve("journal");
+        AuctionManager manager = new AuctionManager(clock, 2, 10);
+        EventJournal journal = EventJournal.open(journalDir, 5, 1024, 1 << 20, manager.getClockSource());
+        manager.attachJournal(journal);
+        
+        manager.registerUser("seller", "pw", "seller@example.com", UserRole.USER);
+        User seller = manager.getUserByUsername("seller");
+        List<String> itemIds = new ArrayList<>();
+        for (int i = 0; i < AUCTIONS; i++) {
+            itemIds.add(manager.createAuction("lot " + i, "", 1_000, 0, seller, ItemCategory.values()[0], 60));
+        }
+        
+        AtomicBoolean bidding = new AtomicBoolean(true);
+        List<Thread> bidders = new ArrayList<>();
+        for (int t = 0; t < BIDDERS; t++) {
+            String name = "bidder" + t;
+            manager.registerUser(name, "pw", name + "@example.com", UserRole.USER);
+            User bidder = manager.getUserByUsername(name);
+            Random random = new Random(t);
+            Thread thread = new Thread(() -> {
+                while (bidding.get()) {
+                    String itemId = itemIds.get(random.nextInt(AUCTIONS));
+                    long amount = manager.getAuction(itemId).getMinimumNextBid() + random.nextInt(500);
+                    if (random.nextInt(4) == 0) {
+                        manager.placeProxyBid(itemId, bidder, amount + 2_000);
+                    } else {
+                        manager.placeBid(itemId, bidder, amount);
+                    }
+                }
+            });
+            bidders.add(thread);
+            thread.start();
+        }
+        
+        // Snapshots taken mid-bidding, each kept with the sequence it covers
+        SnapshotWriter writer = new SnapshotWriter(manager, dir.resolve("snapshot.bin"));
+        List<Path> copies = new ArrayList<>();
+        List<Long> sequences = new ArrayList<>();
+        for (int k = 0; k < SNAPSHOTS; k++) {
+            Thread.sleep(100);
+            SnapshotWriter.Result result = writer.writeSnapshot();
+            if (result == null) {
+                continue;
+            }
+            Path copy = dir.resolve("snapshot-" + k + ".bin");
+            Files.copy(dir.resolve("snapshot.bin"), copy, StandardCopyOption.REPLACE_EXISTING);
+            copies.add(copy);
+            sequences.add(result.getJournalSequence());
+        }
+        bidding.set(false);
+        for (Thread thread : bidders) {
+            thread.join();
+        }
+        checks.that(journal.awaitDurable(journal.getLastSequence(), 5_000), "journal forced to disk");
+        checks.that(copies.size() > 1, "several snapshots taken while bidding");
+        
+        Map<String, String> live = new HashMap<>();
+        for (String itemId : itemIds) {
+            live.put(itemId, describe(manager.getAuction(itemId)));
+        }
+        
+        for (int k = 0; k < copies.size(); k++) {
+            String name = "snapshot " + k + " (#" + sequences.get(k) + ")";
+            StateSnapshot snapshot = FileManager.loadSnapshot(copies.get(k));
+            checks.equal(sequences.get(k), snapshot.getJournalSequence(), name + " records its sequence");
+            Map<String, Integer> covered = bidsCoveredBy(journalDir, snapshot.getJournalSequence());
+            for (AuctionItem item : snapshot.getAuctions()) {
+                checkHistory(item, name);
+                int journaled = covered.getOrDefault(item.getItemId(), 0);
+                checks.that(item.getBidCount() >= journaled, name + " holds all " + journaled
+                    + " journaled bids on " + item.getTitle() + ", has " + item.getBidCount());
+            }
+            
+            AuctionManager recovered = new AuctionManager(clock, 2, 10);
+            RecoveryManager.recover(recovered, copies.get(k), journalDir);
+            for (String itemId : itemIds) {
+                checks.equal(live.get(itemId), describe(recovered.getAuction(itemId)),
+                    name + " plus the journal tail recovers " + itemId);
+            }
+        }
+        
+        BidEventDispatcher.getInstance().shutdown();
+        System.setOut(console);
+        checks.finish();
+    }
+    
+    /**
+     * Bid count, price, leader and last bid of an auction, for comparison
+     */
+    private static String describe(AuctionItem item) {
+        if (item == null) {
+            return "missing";
+        }
+        List<Bid> history = item.getBidHistory();
+        Bid last = history.isEmpty() ? null : history.get(history.size() - 1);
+        return item.getBidCount() + " bids, " + item.getCurrentBid() + " by " + item.getCurrentHighestBidderId()
+            + ", last " + (last == null ? "none" : last.getBidId() + "=" + last.getAmount());
+    }
+    
+    private static void checkHistory(AuctionItem item, String name) {
+        List<Bid> history = item.getBidHistory();
+        checks.equal(item.getBidCount(), history.size(), name + ": history of " + item.getTitle() + " matches its count");
+        long previous = 0;
+        for (Bid bid : history) {
+            checks.that(bid.getAmount() > previous, name + ": bids on " + item.getTitle() + " rise");
+            previous = bid.getAmount();
+        }
+        if (!history.isEmpty()) {
+            checks.equal(previous, item.getCurrentBid(), name + ": price of " + item.getTitle() + " is its last bid");
+        }
+    }
+    
+    /**
+     * Per auction, the number of bids journaled at or before the sequence
+     */
+    private static Map<String, Integer> bidsCoveredBy(Path journalDir, long sequence) throws Exception {
+        Map<String, Integer> positions = new HashMap<>();
+        EventJournal.read(journalDir, 0, record -> {
+            if (record.getSequence() <= sequence && record.getType() == JournalEventType.BID_ACCEPTED) {
+                String itemId = record.readString();
+                int position = record.readInt();
+                positions.merge(itemId, position + 1, Math::max);
+            }
+        });
+        return positions;
+    }
+}
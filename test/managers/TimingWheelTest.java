@@ -0,0 +1,140 @@
+package com.auction.managers;
+
+import com.auction.util.Checks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timing wheel behaviour on a 1 ms tick: deadlines in each level fire on
+ * time after cascading down, cancelled timeouts never run, and a timeout
+ * moved later, earlier, after it ran, or from many threads at once runs
+ * exactly as often as it should.
+ */
+public class TimingWheelTest {
+    
+    private static final long TICK_MILLIS = 1;
+    private static final long LATE_MILLIS = 250; // scheduling slack on a busy machine
+    
+    private static final Checks checks = new Checks("TimingWheelTest");
+    
+    public static void main(String[] args) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, workers, "timing-wheel-test");
+        
+        // One deadline per level: 64 ticks per level-0 turn, 4096 per level-1 turn
+        List<Fired> levels = new ArrayList<>();
+        for (long delay : new long[] {5, 200, 4_500}) {
+            levels.add(Fired.schedule(wheel, delay));
+        }
+        
+        // Half of a batch cancelled before it is due
+        List<Fired> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(Fired.schedule(wheel, 100));
+        }
+        for (int i = 0; i < batch.size(); i += 2) {
+            checks.that(batch.get(i).timeout.cancel(), "pending timeout cancels");
+        }
+        checks.that(!batch.get(0).timeout.cancel(), "second cancel is refused");
+        
+        // Moved later, moved earlier out of a higher level, and refused after cancel
+        Fired later = Fired.schedule(wheel, 50);
+        checks.that(later.timeout.reschedule(600), "pending timeout moves later");
+        later.expectedMillis = 600;
+        Fired earlier = Fired.schedule(wheel, 3_000);
+        checks.that(earlier.timeout.reschedule(30), "pending timeout moves earlier");
+        earlier.expectedMillis = 30;
+        Fired cancelled = Fired.schedule(wheel, 100);
+        cancelled.timeout.cancel();
+        checks.that(!cancelled.timeout.reschedule(10), "cancelled timeout does not reschedule");
+        
+        // A task that re-arms itself once from inside its run
+        AtomicInteger rearmedRuns = new AtomicInteger();
+        TimingWheel.Timeout[] self = new TimingWheel.Timeout[1];
+        self[0] = wheel.schedule(() -> {
+            if (rearmedRuns.incrementAndGet() == 1) {
+                self[0].reschedule(20);
+            }
+        }, 20);
+        
+        // Many threads moving the same timeout still run it once
+        Fired contended = Fired.schedule(wheel, 5_000);
+        List<Thread> movers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread mover = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    contended.timeout.reschedule(50 + i % 7);
+                }
+            });
+            movers.add(mover);
+            mover.start();
+        }
+        for (Thread mover : movers) {
+            mover.join();
+        }
+        contended.expectedMillis = 50;
+        
+        Thread.sleep(4_500 + 2 * LATE_MILLIS);
+        
+        for (Fired fired : levels) {
+            fired.checkOnTime("level deadline " + fired.expectedMillis + " ms");
+        }
+        int batchRuns = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (i % 2 == 0) {
+                checks.equal(0, batch.get(i).runs.get(), "cancelled timeout " + i + " never runs");
+            } else {
+                batch.get(i).checkOnTime("uncancelled timeout " + i);
+                batchRuns += batch.get(i).runs.get();
+            }
+        }
+        checks.equal(batch.size() / 2, batchRuns, "every uncancelled timeout runs");
+        later.checkOnTime("timeout moved later");
+        earlier.checkOnTime("timeout moved earlier");
+        checks.equal(0, cancelled.runs.get(), "cancelled timeout never runs");
+        checks.equal(2, rearmedRuns.get(), "re-armed task runs twice");
+        contended.checkOnTime("timeout moved from many threads");
+        checks.equal(0, wheel.size(), "nothing left pending");
+        
+        wheel.shutdown();
+        workers.shutdown();
+        checks.finish();
+    }
+    
+    /**
+     * A scheduled task that records how often and how late it ran
+     */
+    private static final class Fired implements Runnable {
+        private final long scheduledNanos = System.nanoTime();
+        private final AtomicInteger runs = new AtomicInteger();
+        private final AtomicLong firedNanos = new AtomicLong();
+        private volatile long expectedMillis;
+        private TimingWheel.Timeout timeout;
+        
+        static Fired schedule(TimingWheel wheel, long delayMillis) {
+            Fired fired = new Fired();
+            fired.expectedMillis = delayMillis;
+            fired.timeout = wheel.schedule(fired, delayMillis);
+            return fired;
+        }
+        
+        @Override
+        public void run() {
+            firedNanos.set(System.nanoTime());
+            runs.incrementAndGet();
+        }
+        
+        void checkOnTime(String description) {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(firedNanos.get() - scheduledNanos);
+            checks.equal(1, runs.get(), description + " runs once");
+            checks.that(elapsed >= expectedMillis && elapsed <= expectedMillis + LATE_MILLIS,
+                description + " fires on time, after " + elapsed + " ms");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.auction.models;
+
+import com.auction.enums.BidStatus;
+import com.auction.enums.ItemCategory;
+import com.auction.enums.LogLevel;
+import com.auction.enums.UserRole;
+import com.auction.logging.AuctionLogger;
+import com.auction.observers.BidEventDispatcher;
+import com.auction.util.Checks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads race plain bids onto one auction through the lock-free
+ * compare-and-set path. Every accepted bid must be recorded exactly once,
+ * in acceptance order, each one at least an increment over the one before,
+ * and credited to its bidder; rejected bids must leave no trace.
+ */
+public class AuctionItemContentionTest {
+    
+    private static final int THREADS = 8;
+    private static final int BIDS_PER_THREAD = 5_000;
+    
+    private static final Checks checks = new Checks("AuctionItemContentionTest");
+    
+    public static void main(String[] args) throws Exception {
+        AuctionLogger.setLevel(LogLevel.ERROR);
+        User seller = new User("seller", "pw", "seller@example.com", UserRole.USER);
+        AuctionItem item = new AuctionItem("contended", "", 1_000, 0, seller, ItemCategory.values()[0],
+            System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1), System::currentTimeMillis);
+        item.startAuction();
+        
+        List<User> bidders = new ArrayList<>();
+        int[] accepted = new int[THREADS];
+        int[] belowMinimum = new int[THREADS];
+        CountDownLatch start = new CountDownLatch(1);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // bid and outbid notices
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            User bidder = new User("bidder" + t, "pw", "bidder" + t + "@example.com", UserRole.USER);
+            bidders.add(bidder);
+            int index = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(index);
+                awaitQuietly(start);
+                for (int i = 0; i < BIDS_PER_THREAD; i++) {
+                    // Bid just over the minimum seen a moment ago; another thread often gets there first
+                    long amount = item.getMinimumNextBid() + random.nextInt(3) * item.getMinimumBidIncrement();
+                    BidStatus status = item.placeBid(bidder, amount);
+                    if (status == BidStatus.ACCEPTED) {
+                        accepted[index]++;
+                    } else if (status == BidStatus.BELOW_MINIMUM) {
+                        belowMinimum[index]++;
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        BidEventDispatcher.getInstance().shutdown();
+        System.setOut(console);
+        
+        int totalAccepted = 0;
+        int totalRejected = 0;
+        for (int t = 0; t < THREADS; t++) {
+            totalAccepted += accepted[t];
+            totalRejected += belowMinimum[t];
+            checks.equal(accepted[t], bidders.get(t).getMyBidIds().length,
+                "bidder" + t + " is credited once per accepted bid");
+            checks.equal(BIDS_PER_THREAD, accepted[t] + belowMinimum[t], "bidder" + t + "'s bids all resolved");
+        }
+        checks.that(totalRejected > 0, "threads collided on the same price at least once");
+        checks.equal(totalAccepted, item.getBidCount(), "one recorded bid per accepted bid");
+        checks.equal(totalAccepted, item.getBidHistory().size(), "history is published up to the bid count");
+        
+        // The history is gap-free and rises by at least an increment each time
+        List<Bid> history = item.getBidHistory();
+        long previous = item.getStartingPrice();
+        boolean rising = true;
+        for (int i = 0; i < history.size(); i++) {
+            Bid bid = history.get(i);
+            if (bid == null || bid.getAmount() < previous + item.getMinimumBidIncrement()) {
+                rising = false;
+                break;
+            }
+            previous = bid.getAmount();
+        }
+        checks.that(rising, "each bid is at least an increment over the previous one");
+        Bid last = history.get(history.size() - 1);
+        checks.equal(last.getAmount(), item.getCurrentBid(), "current bid is the last recorded bid");
+        checks.equal(last.getBidderId(), item.getCurrentHighestBidderId(), "leader placed the last recorded bid");
+        checks.that(item.getVersion() >= totalAccepted + 1, "every accepted bid bumped the version");
+        
+        checks.finish();
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
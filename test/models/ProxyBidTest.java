@@ -0,0 +1,126 @@
+package com.auction.models;
+
+import com.auction.enums.AuctionState;
+import com.auction.enums.BidStatus;
+import com.auction.enums.ItemCategory;
+import com.auction.enums.LogLevel;
+import com.auction.enums.UserRole;
+import com.auction.logging.AuctionLogger;
+import com.auction.observers.AuctionLifecycleListener;
+import com.auction.observers.BidEventDispatcher;
+import com.auction.util.Checks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks one auction through proxy-bid resolution: a proxy answering a
+ * plain bid, a higher proxy taking over, equal maximums, and a leader
+ * re-submitting a lower or higher maximum. Checks the recorded bids, the
+ * price, the state version and the proxy maximums reported for the journal.
+ */
+public class ProxyBidTest {
+    
+    private static final Checks checks = new Checks("ProxyBidTest");
+    
+    public static void main(String[] args) {
+        AuctionLogger.setLevel(LogLevel.ERROR);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // bid and outbid notices
+        
+        User seller = user("seller");
+        User alice = user("alice");
+        User bob = user("bob");
+        User carol = user("carol");
+        User dave = user("dave");
+        User erin = user("erin");
+        AuctionItem item = new AuctionItem("proxied", "", 1_000, 0, seller, ItemCategory.values()[0],
+            System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1), System::currentTimeMillis);
+        List<Long> journaledMaximums = new ArrayList<>();
+        item.setLifecycleListener(new AuctionLifecycleListener() {
+            @Override
+            public void onStateChanged(AuctionItem changed, AuctionState from, AuctionState to) {
+            }
+            
+            @Override
+            public void onProxyMaximum(AuctionItem changed, String leaderId, long maximum) {
+                journaledMaximums.add(maximum);
+            }
+        });
+        item.startAuction();
+        long increment = item.getMinimumBidIncrement();
+        
+        // The first proxy opens one increment over the starting price
+        checks.equal(BidStatus.ACCEPTED, item.placeProxyBid(alice, 5_000), "alice's proxy leads");
+        checks.equal(1_000 + increment, item.getCurrentBid(), "opening proxy bid is one increment up");
+        
+        // A plain bid under the proxy is recorded, then answered one increment higher
+        checks.equal(BidStatus.OUTBID_BY_PROXY, item.placeBid(bob, 2_000), "bob's bid is answered");
+        checks.equal(Arrays.asList("alice " + (1_000 + increment), "bob 2000", "alice " + (2_000 + increment)),
+            bids(item), "bob's bid and alice's reply are recorded");
+        
+        // A higher proxy takes over: the old proxy's last bid at its maximum, then one increment over it
+        checks.equal(BidStatus.ACCEPTED, item.placeProxyBid(carol, 8_000), "carol's higher proxy leads");
+        checks.equal(Arrays.asList("alice 5000", "carol " + (5_000 + increment)), lastBids(item, 2),
+            "alice's proxy bids its maximum before carol takes over");
+        
+        // Equal maximums: the earlier bidder keeps the lead with a single bid at the maximum
+        int count = item.getBidCount();
+        checks.equal(BidStatus.OUTBID_BY_PROXY, item.placeProxyBid(dave, 8_000), "dave's equal proxy loses");
+        checks.equal(count + 1, item.getBidCount(), "a tie records one bid");
+        checks.equal(Arrays.asList("carol 8000"), lastBids(item, 1), "the tie bid is carol's, at the maximum");
+        checks.that(!item.hasBidFrom(dave.getUserId()), "no bid is recorded for dave");
+        checks.equal(carol.getUserId(), item.getCurrentHighestBidderId(), "carol still leads");
+        
+        // A plain bid equal to the leader's maximum is a tie too
+        checks.equal(BidStatus.BELOW_MINIMUM, item.placeBid(erin, 8_000), "erin's bid at the price is too low");
+        checks.equal(BidStatus.ACCEPTED, item.placeProxyBid(carol, 9_000), "carol raises to 9000");
+        checks.equal(8_000L, item.getCurrentBid(), "raising a maximum leaves the price alone");
+        checks.equal(BidStatus.OUTBID_BY_PROXY, item.placeBid(erin, 9_000), "erin's bid at carol's maximum loses");
+        checks.equal(Arrays.asList("carol 8000", "carol 9000"), lastBids(item, 2), "erin's tie records carol only");
+        
+        // A leader re-submitting a lower maximum changes nothing
+        checks.equal(BidStatus.ACCEPTED, item.placeProxyBid(bob, 12_000), "bob's proxy leads at 12000");
+        long version = item.getVersion();
+        count = item.getBidCount();
+        int journaled = journaledMaximums.size();
+        checks.equal(BidStatus.ACCEPTED, item.placeProxyBid(bob, 10_000), "bob still leads after lowering the maximum");
+        checks.equal(BidStatus.ACCEPTED, item.placeProxyBid(bob, 500), "a maximum under the price changes nothing");
+        checks.equal(version, item.getVersion(), "lowering a maximum does not bump the version");
+        checks.equal(count, item.getBidCount(), "lowering a maximum records no bid");
+        checks.equal(journaled, journaledMaximums.size(), "lowering a maximum journals nothing");
+        checks.equal(12_000L, item.getLeaderMaximum(bob.getUserId()), "bob's maximum stays 12000");
+        
+        // Raising it is a new maximum
+        checks.equal(BidStatus.ACCEPTED, item.placeProxyBid(bob, 15_000), "bob raises to 15000");
+        checks.equal(version + 1, item.getVersion(), "raising a maximum bumps the version");
+        checks.equal(15_000L, journaledMaximums.get(journaledMaximums.size() - 1), "the raised maximum is journaled");
+        
+        BidEventDispatcher.getInstance().shutdown();
+        System.setOut(console);
+        checks.finish();
+    }
+    
+    private static User user(String name) {
+        return new User(name, "pw", name + "@example.com", UserRole.USER);
+    }
+    
+    private static List<String> bids(AuctionItem item) {
+        return lastBids(item, item.getBidCount());
+    }
+    
+    /**
+     * The last count bids as "bidder amount"
+     */
+    private static List<String> lastBids(AuctionItem item, int count) {
+        List<String> bids = new ArrayList<>();
+        for (Bid bid : item.getRecentBids(count)) {
+            bids.add(bid.getBidderUsername() + " " + bid.getAmount());
+        }
+        return bids;
+    }
+}
@@ -0,0 +1,45 @@
+package com.auction.util;
+
+/**
+ * Failure counter shared by the test mains: each check that does not hold
+ * is printed, and finish() reports the result and exits 1 if any failed.
+ */
+public final class Checks {
+    
+    private final String testName;
+    private int failures;
+    
+    public Checks(String testName) {
+        this.testName = testName;
+    }
+    
+    /**
+     * Record a failure unless the condition holds
+     */
+    public void that(boolean condition, String description) {
+        if (!condition) {
+            failures++;
+            System.err.println("FAILED: " + description);
+        }
+    }
+    
+    /**
+     * Record a failure, showing both values, unless they are equal
+     */
+    public void equal(Object expected, Object actual, String description) {
+        boolean same = expected == null ? actual == null : expected.equals(actual);
+        that(same, description + " (expected " + expected + ", got " + actual + ")");
+    }
+    
+    public int getFailures() {
+        return failures;
+    }
+    
+    /**
+     * Print the outcome and exit the JVM: 0 if every check held, 1 otherwise
+     */
+    public void finish() {
+        System.out.println(failures == 0 ? testName + " passed" : testName + ": " + failures + " check(s) failed");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
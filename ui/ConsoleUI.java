@@ -1,7 +1,12 @@
 package com.auction.ui;
 
 import com.auction.enums.*;
+import com.auction.logging.AuctionLogger;
 import com.auction.managers.AuctionManager;
+import com.auction.managers.AuctionPage;
+import com.auction.managers.FileManager;
+import com.auction.managers.IdPrefixResult;
+import com.auction.managers.SearchPage;
 import com.auction.models.*;
 
 import java.util.*;
@@ -14,6 +19,8 @@ public class ConsoleUI {
     private AuctionManager manager;
     private User currentUser;
     
+    private static final int PAGE_SIZE = 20;
+    
     public ConsoleUI() {
         scanner = new Scanner(System.in);
         manager = AuctionManager.getInstance();
@@ -24,6 +31,8 @@ public class ConsoleUI {
         
         while(true) {
             try {
+                // Let pending log output reach the console before the next prompt
+                AuctionLogger.flush();
                 if (currentUser == null) {
                     showLoginMenu();
                 } else {
@@ -113,7 +122,8 @@ public class ConsoleUI {
                 7. View All Users
                 8. View All Auctions
                 9. Remove Auction
-                10. System Statistics""");
+                10. System Statistics
+                11. Export to CSV""");
         }
         System.out.println("\n0. Logout");
         System.out.print("\nChoose option: ");
@@ -131,26 +141,38 @@ public class ConsoleUI {
             case 8 -> { if(currentUser instanceof Admin) ((Admin) currentUser).viewAllAuctions(); }
             case 9 -> { if(currentUser instanceof Admin) removeAuction(); }
             case 10 -> { if(currentUser instanceof Admin) manager.printStatistics(); }
+            case 11 -> { if(currentUser instanceof Admin) exportToCSV(); }
             case 0 -> logout();
             default -> System.out.println("❌ Invalid option");
         }
     }
     
     private void browseAuctions() {
-        List<AuctionItem> activeAuctions = manager.getActiveAuctions();
-        if (activeAuctions.isEmpty()) {
+        int activeCount = manager.getActiveAuctionCount();
+        if (activeCount == 0) {
             System.out.println("\n⚠️  No active auctions at the moment.");
             return;
         }
         System.out.println("\n" + "=".repeat(60));
-        System.out.println("ACTIVE AUCTIONS (" + activeAuctions.size() + ")");
+        System.out.println("ACTIVE AUCTIONS (" + activeCount + ")");
         System.out.println("=".repeat(60));
-        for (int i=0; i<activeAuctions.size(); i++) {
-            AuctionItem item = activeAuctions.get(i);
-            System.out.printf("\n[%d] %s\n", i+1, item.getTitle());
-            System.out.printf("    Category: %s | Current Bid: $%.2f\n", item.getCategory(), item.getCurrentBid());
-            System.out.printf("    Time Remaining: %d minutes | %s\n", item.getTimeRemainingMinutes(),
-                item.isReserveMet() ? "✅ Reserve Met" : "⚠️ Reserve Not Met");
+        AuctionPage page = manager.getActiveAuctionsPage(null, PAGE_SIZE);
+        int shown = 0;
+        while (true) {
+            for (AuctionItem item : page.getItems()) {
+                System.out.printf("\n[%d] %s\n", ++shown, item.getTitle());
+                System.out.printf("    Category: %s | Current Bid: %s\n", item.getCategory(), Money.format(item.getCurrentBid()));
+                System.out.printf("    Time Remaining: %d minutes | %s\n", item.getTimeRemainingMinutes(),
+                    item.isReserveMet() ? "✅ Reserve Met" : "⚠️ Reserve Not Met");
+            }
+            if (!page.hasMore()) {
+                break;
+            }
+            System.out.print("\nShow more? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                break;
+            }
+            page = manager.getActiveAuctionsPage(page.getNextCursor(), PAGE_SIZE);
         }
         System.out.println();
     }
@@ -158,27 +180,33 @@ public class ConsoleUI {
     private void searchAuctions() {
         System.out.print("\nEnter search keyword: ");
         String keyword = scanner.nextLine().trim();
-        List<AuctionItem> results = manager.searchAuctions(keyword);
-        if(results.isEmpty()) {
+        SearchPage results = manager.searchAuctions(keyword, 0, PAGE_SIZE);
+        if(results.getTotalHits() == 0) {
             System.out.println("\n⚠️  No auctions found matching '" + keyword + "'");
             return;
         }
-        System.out.println("\n=== SEARCH RESULTS (" + results.size() + ") ===");
-        for(AuctionItem item : results) {
-            System.out.printf("%s - $%.2f [%s] (ID: %s)\n",
-                item.getTitle(), item.getCurrentBid(), item.getState(),
-                item.getItemId().substring(0, 8));
+        System.out.println("\n=== SEARCH RESULTS (" + results.getTotalHits() + ") ===");
+        while(true) {
+            for(AuctionItem item : results.getItems()) {
+                System.out.printf("%s - %s [%s] (ID: %s)\n",
+                    item.getTitle(), Money.format(item.getCurrentBid()), item.getState(),
+                    item.getItemId());
+            }
+            if(!results.hasMore()) {
+                break;
+            }
+            System.out.print("\nShow more? (y/n): ");
+            if(!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                break;
+            }
+            results = manager.searchAuctions(keyword, results.getPageNumber() + 1, PAGE_SIZE);
         }
     }
     
     private void viewAuctionDetailsAndBid() {
-        System.out.print("\nEnter Auction ID (first 8 characters): ");
-        String idPrefix = scanner.nextLine().trim();
-        AuctionItem item = manager.getAllAuctions().stream()
-                .filter(a -> a.getItemId().startsWith(idPrefix))
-                .findFirst().orElse(null);
+        System.out.print("\nEnter Auction ID (or a unique prefix): ");
+        AuctionItem item = resolveAuction(scanner.nextLine());
         if(item == null) {
-            System.out.println("❌ Auction not found");
             return;
         }
         System.out.println("\n" + "=".repeat(60));
@@ -187,28 +215,31 @@ public class ConsoleUI {
         System.out.println("Title: " + item.getTitle());
         System.out.println("Description: " + item.getDescription());
         System.out.println("Category: " + item.getCategory());
-        System.out.printf("Current Bid: $%.2f\n", item.getCurrentBid());
-        System.out.printf("Reserve Price: $%.2f [%s]\n", item.getReservePrice(), item.isReserveMet() ? "✅ Met" : "⚠️ Not Met");
-        System.out.printf("Minimum Next Bid: $%.2f\n", item.getCurrentBid() + item.getMinimumBidIncrement());
+        System.out.println("Current Bid: " + Money.format(item.getCurrentBid()));
+        System.out.printf("Reserve Price: %s [%s]\n", Money.format(item.getReservePrice()), item.isReserveMet() ? "✅ Met" : "⚠️ Not Met");
+        System.out.println("Minimum Next Bid: " + Money.format(item.getMinimumNextBid()));
         System.out.println("State: " + item.getState());
         System.out.println("Seller: " + item.getSellerUsername());
         System.out.println("Time Remaining: " + item.getTimeRemainingMinutes() + " minutes");
-        System.out.println("\nBid History: " + item.getBidHistory().size() + " bid(s)");
-        if(!item.getBidHistory().isEmpty()) {
+        System.out.println("\nBid History: " + item.getBidCount() + " bid(s)");
+        if(item.getBidCount() > 0) {
             System.out.println("\nRecent Bids:");
-            List<Bid> history = item.getBidHistory();
-            int showCount = Math.min(5, history.size());
-            for(int i = history.size() - 1; i >= history.size() - showCount; i--) {
-                System.out.println("  " + history.get(i));
+            List<Bid> recent = item.getRecentBids(5);
+            for(int i = recent.size() - 1; i >= 0; i--) {
+                System.out.println("  " + recent.get(i));
             }
         }
         if(currentUser !=null && item.getState() == AuctionState.ACTIVE) {
-            System.out.print("\nPlace a bid? (y/n): ");
+            System.out.print("\nPlace a bid? (y = bid now, m = set max bid, n = no): ");
             String resp = scanner.nextLine().trim();
             if(resp.equalsIgnoreCase("y")) {
                 System.out.print("Enter bid amount: $");
-                double amount = getDoubleInput();
-                item.placeBid(currentUser, amount);
+                long amount = getMoneyInput();
+                manager.placeBid(item.getItemId(), currentUser, amount);
+            } else if(resp.equalsIgnoreCase("m")) {
+                System.out.print("Enter your maximum bid (we bid for you up to this): $");
+                long maximum = getMoneyInput();
+                manager.placeProxyBid(item.getItemId(), currentUser, maximum);
             }
         } else if(currentUser == null) {
             System.out.println("\n⚠️  Please login to place bids.");
@@ -216,23 +247,19 @@ public class ConsoleUI {
     }
     
     private void viewMyBids() {
-        List<String> myBidIds = currentUser.getMyBidIds();
-        if(myBidIds.isEmpty()) {
+        int myBidCount = currentUser.getMyBidCount();
+        if(myBidCount == 0) {
             System.out.println("\n⚠️  You haven't placed any bids yet.");
             return;
         }
-        System.out.println("\n=== MY BIDS (" + myBidIds.size() + ") ===");
-        for(AuctionItem auction : manager.getAllAuctions()) {
-            List<Bid> relevantBids = auction.getBidHistory().stream()
-                .filter(bid -> myBidIds.contains(bid.getBidId()))
-                .toList();
-            if (!relevantBids.isEmpty()) {
-                System.out.println("\n📦 " + auction.getTitle() + " [" + auction.getState() + "]");
-                for(Bid bid : relevantBids) {
-                    System.out.println("   " + bid);
-                }
-                System.out.printf("   Current Winning Bid: $%.2f\n", auction.getCurrentBid());
+        System.out.println("\n=== MY BIDS (" + myBidCount + ") ===");
+        for(Map.Entry<AuctionItem, List<Bid>> entry : manager.getBidsByUser(currentUser).entrySet()) {
+            AuctionItem auction = entry.getKey();
+            System.out.println("\n📦 " + auction.getTitle() + " [" + auction.getState() + "]");
+            for(Bid bid : entry.getValue()) {
+                System.out.println("   " + bid);
             }
+            System.out.println("   Current Winning Bid: " + Money.format(auction.getCurrentBid()));
         }
     }
     
@@ -245,9 +272,9 @@ public class ConsoleUI {
         System.out.print("Description: ");
         String desc = scanner.nextLine().trim();
         System.out.print("Starting Price: $");
-        double startPrice = getDoubleInput();
+        long startPrice = getMoneyInput();
         System.out.print("Reserve Price: $");
-        double reservePrice = getDoubleInput();
+        long reservePrice = getMoneyInput();
         System.out.print("Duration (minutes): ");
         int duration = getIntInput();
         System.out.println("\nAvailable Categories:");
@@ -264,7 +291,7 @@ public class ConsoleUI {
         String id = manager.createAuction(title, desc, startPrice, reservePrice, currentUser, categories[catChoice], duration);
         if(id != null) {
             System.out.println("\n✅ Auction created successfully!");
-            System.out.println("Auction ID: " + id.substring(0, 8));
+            System.out.println("Auction ID: " + id);
         }
     }
     
@@ -277,23 +304,61 @@ public class ConsoleUI {
         System.out.println("\n=== MY AUCTIONS (" + myAuctions.size() + ") ===");
         for(AuctionItem item : myAuctions) {
             System.out.printf("\n%s [%s]\n", item.getTitle(), item.getState());
-            System.out.printf("  Current Bid: $%.2f | Bids: %d\n", item.getCurrentBid(), item.getBidHistory().size());
+            System.out.printf("  Current Bid: %s | Bids: %d\n", Money.format(item.getCurrentBid()), item.getBidCount());
         }
     }
     
     private void removeAuction() {
         System.out.print("\nEnter Auction ID to remove: ");
-        String idPrefix = scanner.nextLine().trim();
-        AuctionItem item = manager.getAllAuctions().stream()
-                .filter(a -> a.getItemId().startsWith(idPrefix))
-                .findFirst().orElse(null);
+        AuctionItem item = resolveAuction(scanner.nextLine());
         if(item != null) {
             ((Admin)currentUser).removeAuction(item.getItemId());
+        }
+    }
+    
+    /**
+     * Export every auction, or every bid, to a CSV file in data/
+     */
+    private void exportToCSV() {
+        System.out.print("\nExport (1) auctions or (2) bids? ");
+        int choice = getIntInput();
+        if(choice != 1 && choice != 2) {
+            System.out.println("❌ Invalid option");
+            return;
+        }
+        String defaultName = choice == 1 ? "auctions.csv" : "bids.csv";
+        System.out.print("File name (Enter for " + defaultName + ", add .gz to compress): ");
+        String filename = scanner.nextLine().trim();
+        if(filename.isEmpty()) {
+            filename = defaultName;
+        }
+        if(choice == 1) {
+            FileManager.exportAuctionsToCSV(manager.iterateAllAuctions(), filename);
         } else {
-            System.out.println("❌ Auction not found");
+            FileManager.exportBidsToCSV(manager.iterateAllAuctions(), filename);
         }
     }
     
+    /**
+     * Look up the auction for a typed ID prefix, explaining a missing or ambiguous match
+     */
+    private AuctionItem resolveAuction(String idPrefix) {
+        IdPrefixResult result = manager.findByIdPrefix(idPrefix, 5);
+        switch(result.getMatch()) {
+            case UNIQUE -> {
+                return result.getItem();
+            }
+            case MISSING -> System.out.println("❌ Auction not found");
+            case AMBIGUOUS -> {
+                System.out.println("⚠️  That prefix matches several auctions - type more of the ID:");
+                for(AuctionItem candidate : result.getCandidates()) {
+                    System.out.printf("    %s  %s\n", candidate.getItemId(), candidate.getTitle());
+                }
+            }
+        }
+        return null;
+    }
+    
     private void logout() {
         System.out.println("\n👋 Goodbye, " + currentUser.getUsername() + "!");
         currentUser = null;
@@ -304,7 +369,7 @@ public class ConsoleUI {
         String save = scanner.nextLine().trim();
         if(save.equalsIgnoreCase("y")) {
             System.out.println("💾 Saving data...");
-            // Call FileManager save methods here if implemented
+            manager.saveSnapshot(FileManager.getSnapshotPath());
         }
         manager.shutdown();
         System.out.println("\n👋 Thank you for using Online Auction System!");
@@ -321,12 +386,12 @@ public class ConsoleUI {
         }
     }
     
-    private double getDoubleInput() {
+    private long getMoneyInput() {
         while(true) {
             try {
-                return Double.parseDouble(scanner.nextLine().trim());
+                return Money.parse(scanner.nextLine());
             } catch(NumberFormatException e) {
-                System.out.print("❌ Invalid input. Please enter a number: ");
+                System.out.print("❌ Invalid input. Please enter an amount like 12.50: ");
             }
         }
     }
@@ -0,0 +1,45 @@
+package com.auction.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coarse clock: a single daemon ticker thread refreshes a cached
+ * epoch-millis value at a fixed resolution, so readers only do a
+ * volatile read. Readings may lag real time by up to one resolution step.
+ */
+public class CachedClockSource implements ClockSource {
+    private final long resolutionNanos;
+    private final Thread ticker;
+    private volatile long now;
+    private volatile boolean running;
+    
+    public CachedClockSource(long resolutionMillis) {
+        if (resolutionMillis <= 0) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        this.resolutionNanos = resolutionMillis * 1_000_000L;
+        this.now = System.currentTimeMillis();
+        this.running = true;
+        this.ticker = new Thread(this::tick, "auction-clock-ticker");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+    
+    private void tick() {
+        while (running) {
+            now = System.currentTimeMillis();
+            LockSupport.parkNanos(resolutionNanos);
+        }
+    }
+    
+    @Override
+    public long millis() {
+        return now;
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+}
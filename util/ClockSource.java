@@ -0,0 +1,17 @@
+package com.auction.util;
+
+/**
+ * Source of wall-clock time in epoch milliseconds
+ */
+public interface ClockSource {
+    /**
+     * Current time in milliseconds since the epoch
+     */
+    long millis();
+    
+    /**
+     * Release any background resources held by the clock
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,54 @@
+package com.auction.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Holder for the system-wide clock, for code with no manager clock at hand.
+ *
+ * Defaults to the high-resolution system clock; setting the
+ * "auction.clock.resolutionMillis" system property selects a coarse cached
+ * clock instead. AuctionManager.setClockSource() swaps it at runtime; the
+ * manager hands its own clock to the auctions, bids and journal it owns.
+ */
+public final class Clocks {
+    private static volatile ClockSource source = createDefault();
+    
+    private Clocks() {
+    }
+    
+    private static ClockSource createDefault() {
+        long resolution = Long.getLong("auction.clock.resolutionMillis", 0L);
+        return resolution > 0 ? new CachedClockSource(resolution) : new SystemClockSource();
+    }
+    
+    /**
+     * Current time in epoch milliseconds from the configured source
+     */
+    public static long millis() {
+        return source.millis();
+    }
+    
+    public static ClockSource getSource() {
+        return source;
+    }
+    
+    /**
+     * Replace the clock source, closing the previous one
+     */
+    public static void setSource(ClockSource newSource) {
+        ClockSource previous = source;
+        source = newSource;
+        if (previous != newSource) {
+            previous.close();
+        }
+    }
+    
+    /**
+     * Convert epoch millis to local date-time for display only
+     */
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
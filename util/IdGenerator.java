@@ -0,0 +1,11 @@
+package com.auction.util;
+
+/**
+ * Source of unique 64-bit identifiers
+ */
+public interface IdGenerator {
+    /**
+     * Return a new identifier, never repeated by this generator
+     */
+    long nextId();
+}
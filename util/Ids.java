@@ -0,0 +1,91 @@
+package com.auction.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Holder for the system-wide ID generator plus the compact textual form.
+ *
+ * IDs are rendered as 13 Crockford base-32 characters. The text sorts in the
+ * same order as the numeric ID, so time-ordered IDs stay time-ordered as text.
+ * The node ID defaults to the "auction.nodeId" system property.
+ */
+public final class Ids {
+    public static final int TEXT_LENGTH = 13;
+    
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] DECODE = new byte[128];
+    
+    private static volatile IdGenerator generator =
+        new SnowflakeIdGenerator(Integer.getInteger("auction.nodeId", 0));
+    
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+            DECODE[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+    }
+    
+    private Ids() {
+    }
+    
+    /**
+     * Replace the generator (e.g. with one for a different node)
+     */
+    public static void setGenerator(IdGenerator newGenerator) {
+        generator = newGenerator;
+    }
+    
+    /**
+     * Next numeric ID
+     */
+    public static long next() {
+        return generator.nextId();
+    }
+    
+    /**
+     * Next ID in its textual form
+     */
+    public static String nextText() {
+        return toText(generator.nextId());
+    }
+    
+    /**
+     * Render an ID as 13 Crockford base-32 characters
+     */
+    public static String toText(long id) {
+        char[] chars = new char[TEXT_LENGTH];
+        for (int i = TEXT_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Parse the textual form back into the numeric ID (case-insensitive)
+     */
+    public static long fromText(String text) {
+        if (text.length() != TEXT_LENGTH) {
+            throw new IllegalArgumentException("ID must be " + TEXT_LENGTH + " characters: " + text);
+        }
+        long id = 0;
+        for (int i = 0; i < TEXT_LENGTH; i++) {
+            char c = text.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid ID character '" + c + "' in " + text);
+            }
+            id = (id << 5) | value;
+        }
+        return id;
+    }
+    
+    /**
+     * Normalize a user-typed ID or prefix for comparison with textual IDs
+     */
+    public static String normalize(String text) {
+        return text.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,12 @@
+package com.auction.util;
+
+/**
+ * High-resolution clock that reads the system clock on every call
+ */
+public class SystemClockSource implements ClockSource {
+    
+    @Override
+    public long millis() {
+        return System.currentTimeMillis();
+    }
+}